@@ -0,0 +1,49 @@
+package com.africahr.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Bounded in-process caches. The manager is transaction aware: puts and evictions issued inside a
+ * transaction are applied only after it commits, so a rolled-back approval never evicts and a reader
+ * never re-caches a balance that is about to change.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String LEAVE_BALANCES = "leaveBalances";
+    public static final String LEAVE_TYPES_BY_NAME = "leaveTypesByName";
+    public static final String LEAVE_TYPES_BY_CODE = "leaveTypesByCode";
+    public static final String USER_STATES = "userStates";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${leave.cache.maximum-size:10000}") long maximumSize,
+                                     @Value("${leave.cache.ttl:10m}") Duration ttl,
+                                     @Value("${leave.cache.user-state-ttl:1m}") Duration userStateTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setCacheNames(List.of(LEAVE_BALANCES, LEAVE_TYPES_BY_NAME, LEAVE_TYPES_BY_CODE));
+        // Checked on every request for role and active flag; evicted when a user row changes, and short-lived
+        // to bound staleness after changes made outside JPA
+        cacheManager.registerCustomCache(USER_STATES, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(userStateTtl)
+                .recordStats()
+                .build());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
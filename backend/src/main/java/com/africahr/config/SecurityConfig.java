@@ -18,6 +18,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.web.access.AccessDeniedHandlerImpl;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -40,7 +41,10 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/v3/api-docs/**", "/swagger-ui/**").permitAll()
-                .requestMatchers("/api/leave/balance", "/api/leave/requests").hasAnyRole("USER", "MANAGER", "ADMIN")
+                .requestMatchers("/api/leave/balance", "/api/leave/balance/history", "/api/leave/balance/projection",
+                        "/api/leave/requests").hasAnyRole("USER", "MANAGER", "ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/leave/requests/bulk").hasAnyRole("USER", "MANAGER", "ADMIN")
+                .requestMatchers(HttpMethod.PUT, "/api/leave/requests/*/cancel").hasAnyRole("USER", "MANAGER", "ADMIN")
                 .requestMatchers("/api/leave/requests/**").hasAnyRole("MANAGER", "ADMIN")
                 .anyRequest().authenticated()
             )
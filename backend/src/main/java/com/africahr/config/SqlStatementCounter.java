@@ -0,0 +1,39 @@
+package com.africahr.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread, and the SELECTs among them.
+ * Registered as the session factory's statement inspector in {@link DatabaseConfig};
+ * {@link SqlStatementCountFilter} resets it per request, and tests assert on it around a block to pin its
+ * query budget. Statements issued through JdbcTemplate bypass Hibernate and are not counted.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    // [all statements, selects]
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[2]);
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        count[0]++;
+        if (sql.stripLeading().regionMatches(true, 0, "select", 0, 6)) {
+            count[1]++;
+        }
+        return sql;
+    }
+
+    public static void reset() {
+        int[] count = COUNT.get();
+        count[0] = 0;
+        count[1] = 0;
+    }
+
+    public static int count() {
+        return COUNT.get()[0];
+    }
+
+    public static int selectCount() {
+        return COUNT.get()[1];
+    }
+}
@@ -1,13 +1,28 @@
 package com.africahr.controller;
 
 import com.africahr.dto.AdminPanelDTO;
+import com.africahr.dto.PublicHolidayDTO;
+import com.africahr.dto.request.AccrualSimulationRequest;
+import com.africahr.dto.response.AccrualRunResponse;
+import com.africahr.dto.response.CacheStatsResponse;
+import com.africahr.dto.response.JobLeaseResponse;
+import com.africahr.exception.LeaveManagementException;
+import com.africahr.service.AccrualRunService;
+import com.africahr.service.AccrualSimulationService;
 import com.africahr.service.AdminPanelService;
+import com.africahr.service.BalanceProjectionService;
+import com.africahr.service.JobLeaseService;
+import com.africahr.service.LeaveCacheService;
+import com.africahr.service.OrgHierarchyService;
+import com.africahr.service.YearEndCarryoverService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -18,6 +33,27 @@ public class AdminPanelController {
     @Autowired
     private AdminPanelService adminPanelService;
 
+    @Autowired
+    private OrgHierarchyService orgHierarchyService;
+
+    @Autowired
+    private LeaveCacheService leaveCacheService;
+
+    @Autowired
+    private BalanceProjectionService balanceProjectionService;
+
+    @Autowired
+    private AccrualRunService accrualRunService;
+
+    @Autowired
+    private AccrualSimulationService accrualSimulationService;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private YearEndCarryoverService yearEndCarryoverService;
+
     @GetMapping("/leave-types")
     public ResponseEntity<List<AdminPanelDTO>> getAllLeaveTypes() {
         return ResponseEntity.ok(adminPanelService.getAllLeaveTypes());
@@ -50,4 +86,84 @@ public class AdminPanelController {
     public ResponseEntity<List<AdminPanelDTO>> getActiveLeaveTypes() {
         return ResponseEntity.ok(adminPanelService.getActiveLeaveTypes());
     }
-}
+
+    @GetMapping("/holidays")
+    public ResponseEntity<List<PublicHolidayDTO>> getPublicHolidays(@RequestParam int year) {
+        return ResponseEntity.ok(adminPanelService.getPublicHolidays(year));
+    }
+
+    @PostMapping("/holidays")
+    public ResponseEntity<PublicHolidayDTO> createPublicHoliday(@Valid @RequestBody PublicHolidayDTO dto) {
+        return ResponseEntity.ok(adminPanelService.createPublicHoliday(dto));
+    }
+
+    @DeleteMapping("/holidays/{id}")
+    public ResponseEntity<Void> deletePublicHoliday(@PathVariable Long id) {
+        adminPanelService.deletePublicHoliday(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PutMapping("/users/{id}/manager")
+    public ResponseEntity<?> assignManager(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long managerId) {
+        try {
+            orgHierarchyService.assignManager(id, managerId);
+            return ResponseEntity.noContent().build();
+        } catch (LeaveManagementException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/users/hierarchy/rebuild")
+    public ResponseEntity<Integer> rebuildHierarchy() {
+        return ResponseEntity.ok(orgHierarchyService.rebuild());
+    }
+
+    @GetMapping("/balances/projection")
+    public ResponseEntity<?> projectCompanyBalances(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam String leaveType) {
+        try {
+            return ResponseEntity.ok(balanceProjectionService.projectCompanyBalances(date, leaveType));
+        } catch (LeaveManagementException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/accrual-runs")
+    public ResponseEntity<List<AccrualRunResponse>> getAccrualRuns(
+            @RequestParam(required = false) String job,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(accrualRunService.getRecentRuns(job, limit));
+    }
+
+    @PostMapping("/year-end-carryover")
+    public ResponseEntity<?> processYearEndCarryover(@RequestParam(required = false) Integer year) {
+        try {
+            int closing = year != null ? year : LocalDate.now().getYear() - 1;
+            return ResponseEntity.ok(yearEndCarryoverService.closeYear(closing));
+        } catch (LeaveManagementException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/job-leases")
+    public ResponseEntity<List<JobLeaseResponse>> getJobLeases() {
+        return ResponseEntity.ok(jobLeaseService.getLeases());
+    }
+
+    @PostMapping("/accrual-simulations")
+    public ResponseEntity<?> simulateAccruals(@Valid @RequestBody AccrualSimulationRequest request) {
+        try {
+            return ResponseEntity.ok(accrualSimulationService.simulate(request));
+        } catch (LeaveManagementException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/cache-stats")
+    public ResponseEntity<List<CacheStatsResponse>> getCacheStats() {
+        return ResponseEntity.ok(leaveCacheService.getStats());
+    }
+}
\ No newline at end of file
@@ -1,17 +1,29 @@
 package com.africahr.controller;
 
+import com.africahr.dto.request.BulkDecisionRequest;
+import com.africahr.dto.request.LeaveFilter;
 import com.africahr.dto.request.LeaveRequest;
 import com.africahr.dto.response.LeaveResponse;
 import com.africahr.exception.LeaveManagementException;
+import com.africahr.service.BalanceProjectionService;
+import com.africahr.service.LeaveExportService;
+import com.africahr.service.LeaveLedgerService;
 import com.africahr.service.LeaveService;
+import com.africahr.service.TeamAvailabilityService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -19,6 +31,10 @@ import java.util.List;
 @RequiredArgsConstructor
 public class LeaveController {
     private final LeaveService leaveService;
+    private final LeaveExportService leaveExportService;
+    private final TeamAvailabilityService teamAvailabilityService;
+    private final LeaveLedgerService leaveLedgerService;
+    private final BalanceProjectionService balanceProjectionService;
 
     @GetMapping("/balance")
     @PreAuthorize("hasAnyRole('USER', 'MANAGER', 'ADMIN')")
@@ -26,12 +42,96 @@ public class LeaveController {
         return ResponseEntity.ok(leaveService.getLeaveBalance());
     }
 
+    @GetMapping("/balance/history")
+    @PreAuthorize("hasAnyRole('USER', 'MANAGER', 'ADMIN')")
+    public ResponseEntity<?> getBalanceHistory(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        try {
+            return ResponseEntity.ok(leaveLedgerService.getBalanceHistory(asOf));
+        } catch (LeaveManagementException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/balance/projection")
+    @PreAuthorize("hasAnyRole('USER', 'MANAGER', 'ADMIN')")
+    public ResponseEntity<?> getBalanceProjection(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String leaveType) {
+        try {
+            return ResponseEntity.ok(balanceProjectionService.projectOwnBalances(date, leaveType));
+        } catch (LeaveManagementException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/requests")
     @PreAuthorize("hasAnyRole('USER', 'MANAGER', 'ADMIN')")
-    public ResponseEntity<List<LeaveResponse>> getLeaveRequests() {
-        return ResponseEntity.ok(leaveService.getLeaveRequests());
+    public ResponseEntity<?> getLeaveRequests(LeaveFilter filter) {
+        try {
+            return ResponseEntity.ok(leaveService.getLeaveRequests(filter));
+        } catch (LeaveManagementException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/team-calendar")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<?> getTeamCalendar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(leaveService.getTeamCalendar(from, to));
+        } catch (LeaveManagementException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
+    @GetMapping("/availability")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<?> getAvailability(
+            @RequestParam(defaultValue = "DEPARTMENT") TeamAvailabilityService.Scope scope,
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(teamAvailabilityService.getAvailability(scope, departmentId, from, to));
+        } catch (LeaveManagementException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/availability/absent")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<?> getAbsentUsers(
+            @RequestParam(defaultValue = "DEPARTMENT") TeamAvailabilityService.Scope scope,
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            return ResponseEntity.ok(teamAvailabilityService.getAbsentUsers(scope, departmentId, date));
+        } catch (LeaveManagementException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> exportLeaves(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            LeaveExportService.Format exportFormat = LeaveExportService.Format.from(format);
+            StreamingResponseBody body = leaveExportService.export(exportFormat, from, to);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"leave-history." + exportFormat.getExtension() + "\"")
+                    .body(body);
+        } catch (LeaveManagementException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 
     @PostMapping("/requests")
     @PreAuthorize("hasAnyRole('USER', 'MANAGER', 'ADMIN')")
@@ -50,6 +150,26 @@ public class LeaveController {
         }
     }
 
+    @PostMapping("/requests/bulk")
+    @PreAuthorize("hasAnyRole('USER', 'MANAGER', 'ADMIN')")
+    public ResponseEntity<?> createLeaveRequests(@RequestBody List<LeaveRequest> leaveRequests) {
+        try {
+            return ResponseEntity.ok(leaveService.createLeaveRequests(leaveRequests));
+        } catch (LeaveManagementException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PutMapping("/requests/decisions")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<?> decideLeaveRequests(@Valid @RequestBody BulkDecisionRequest request) {
+        try {
+            return ResponseEntity.ok(leaveService.decideLeaves(request));
+        } catch (LeaveManagementException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @PutMapping("/requests/{id}/approve")
     @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
     public ResponseEntity<?> approveLeaveRequest(
@@ -62,6 +182,16 @@ public class LeaveController {
         }
     }
 
+    @PutMapping("/requests/{id}/cancel")
+    @PreAuthorize("hasAnyRole('USER', 'MANAGER', 'ADMIN')")
+    public ResponseEntity<?> cancelLeaveRequest(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(leaveService.cancelLeave(id));
+        } catch (LeaveManagementException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @PutMapping("/requests/{id}/reject")
     @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
     public ResponseEntity<?> rejectLeaveRequest(
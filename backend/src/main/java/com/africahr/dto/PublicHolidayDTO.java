@@ -0,0 +1,30 @@
+package com.africahr.dto;
+
+import com.africahr.entity.PublicHoliday;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class PublicHolidayDTO {
+    private Long id;
+
+    @NotBlank(message = "Name is required")
+    private String name;
+
+    @NotNull(message = "Date is required")
+    private LocalDate date;
+
+    private String description;
+
+    public static PublicHolidayDTO fromPublicHoliday(PublicHoliday holiday) {
+        PublicHolidayDTO dto = new PublicHolidayDTO();
+        dto.setId(holiday.getId());
+        dto.setName(holiday.getName());
+        dto.setDate(holiday.getDate());
+        dto.setDescription(holiday.getDescription());
+        return dto;
+    }
+}
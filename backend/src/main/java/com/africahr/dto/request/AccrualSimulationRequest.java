@@ -0,0 +1,64 @@
+package com.africahr.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccrualSimulationRequest {
+    @NotBlank(message = "Leave type code is required")
+    private String leaveType;
+
+    // First month simulated; defaults to next month
+    private LocalDate startPeriod;
+
+    @Min(value = 1, message = "At least one month must be simulated")
+    @Max(value = 36, message = "At most 36 months can be simulated")
+    @Builder.Default
+    private int months = 12;
+
+    // Users with the largest differences listed in the report
+    @Min(value = 0, message = "Limit cannot be negative")
+    @Max(value = 1000, message = "At most 1000 users can be listed")
+    @Builder.Default
+    private int limit = 100;
+
+    // Proposed policies, in effect from the start period; the baseline uses the current ones
+    @Valid
+    @Builder.Default
+    private List<PolicyChange> policies = new ArrayList<>();
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class PolicyChange {
+        // Null for a company-wide policy
+        private Long departmentId;
+
+        @NotNull(message = "Accrual rate is required")
+        @PositiveOrZero(message = "Accrual rate cannot be negative")
+        private Double accrualRate;
+
+        @NotNull(message = "Max carryover is required")
+        @PositiveOrZero(message = "Max carryover cannot be negative")
+        private Double maxCarryover;
+
+        @PositiveOrZero(message = "Max annual leave cannot be negative")
+        private int maxAnnualLeave;
+    }
+}
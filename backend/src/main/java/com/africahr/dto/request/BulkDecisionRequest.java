@@ -0,0 +1,27 @@
+package com.africahr.dto.request;
+
+import com.africahr.enums.LeaveStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkDecisionRequest {
+    @NotEmpty(message = "At least one leave request id is required")
+    @Size(max = 500, message = "At most 500 leave requests can be decided at once")
+    private List<Long> leaveIds;
+
+    @NotNull(message = "Decision is required")
+    private LeaveStatus decision;
+
+    private String comment;
+}
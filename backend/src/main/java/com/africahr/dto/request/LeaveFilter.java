@@ -0,0 +1,23 @@
+package com.africahr.dto.request;
+
+import com.africahr.enums.LeaveStatus;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+public class LeaveFilter {
+    private LeaveStatus status;
+    private String leaveType;
+    private Long userId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    private String cursor;
+    private Integer size;
+}
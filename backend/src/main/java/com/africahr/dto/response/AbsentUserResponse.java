@@ -0,0 +1,19 @@
+package com.africahr.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AbsentUserResponse {
+    private Long userId;
+    private String userName;
+    private LocalDate startDate;
+    private LocalDate endDate;
+}
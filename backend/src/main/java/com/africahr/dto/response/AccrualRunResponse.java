@@ -0,0 +1,28 @@
+package com.africahr.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccrualRunResponse {
+    private Long id;
+    private String jobName;
+    private LocalDate period;
+    private Long leaveTypeId;
+    private String engine;
+    private String status;
+    private long usersProcessed;
+    private long accrualsWritten;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Long durationMs;
+    private String error;
+}
@@ -0,0 +1,52 @@
+package com.africahr.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccrualSimulationResponse {
+    private String leaveType;
+    private LocalDate startPeriod;
+    private int months;
+    private int users;
+    private long elapsedMs;
+    private Totals baseline;
+    private Totals proposed;
+    private int usersAffected;
+    private double balanceDifference;
+    private List<UserDifference> largestDifferences;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Totals {
+        private double openingBalance;
+        private double accrued;
+        private double carriedOver;
+        private double expired;
+        private double closingBalance;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UserDifference {
+        private Long userId;
+        private String email;
+        private Long departmentId;
+        private double currentBalance;
+        private double baselineBalance;
+        private double proposedBalance;
+        private double difference;
+    }
+}
@@ -0,0 +1,21 @@
+package com.africahr.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceProjectionResponse {
+    private Long userId;
+    private String userName;
+    private String leaveType;
+    private LocalDate date;
+    private double currentBalance;
+    private double projectedBalance;
+}
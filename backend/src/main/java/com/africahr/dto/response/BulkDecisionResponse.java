@@ -0,0 +1,19 @@
+package com.africahr.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDecisionResponse {
+    private List<LeaveResponse> processed;
+    // leave id -> reason it was skipped
+    private Map<Long, String> failed;
+}
@@ -0,0 +1,23 @@
+package com.africahr.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobLeaseResponse {
+    private String jobName;
+    // Node holding the lease, or the last one that held it when it is free
+    private String holder;
+    private boolean held;
+    private boolean heldByThisNode;
+    private LocalDateTime leaseUntil;
+    private LocalDateTime acquiredAt;
+    private LocalDateTime renewedAt;
+}
@@ -15,4 +15,5 @@ public class LeaveBalanceResponse {
     private double totalDays;
     private double usedDays;
     private double remainingDays;
+    private double reservedDays;
 }
@@ -0,0 +1,28 @@
+package com.africahr.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaveExportRow {
+    private Long id;
+    private Long userId;
+    private String userName;
+    private String userEmail;
+    private String leaveType;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String status;
+    private String reason;
+    private String approverComment;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
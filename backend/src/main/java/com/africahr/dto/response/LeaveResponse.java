@@ -27,5 +27,6 @@ public class LeaveResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private double remainingDays;
+    private double reservedDays;
     private double totalDays;
 }
@@ -0,0 +1,20 @@
+package com.africahr.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamAvailabilityResponse {
+    private LocalDate from;
+    private LocalDate to;
+    // absences[i] = number of people out on from + i days
+    private int[] absences;
+    private int peakAbsences;
+}
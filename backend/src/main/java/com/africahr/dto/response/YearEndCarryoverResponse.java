@@ -0,0 +1,21 @@
+package com.africahr.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class YearEndCarryoverResponse {
+    private int year;
+    // COMPLETED, or SKIPPED when the year had already been closed
+    private String status;
+    private long usersProcessed;
+    private long balancesUpdated;
+    private double daysCarried;
+    private double daysForfeited;
+    private long elapsedMs;
+}
@@ -0,0 +1,76 @@
+package com.africahr.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One invocation of an accrual job. Unlike {@link JobCheckpoint}, which tracks progress per period,
+ * every attempt gets its own row, so re-runs and resumes show up with their own counts.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "accrual_runs", indexes = {
+        @Index(name = "idx_accrual_runs_job_period", columnList = "job_name, period")
+})
+public class AccrualRun {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        SKIPPED,
+        INCOMPLETE,
+        // Completed, but the accrual rows written do not match the users eligible for them
+        NEEDS_REVIEW,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_name", nullable = false, length = 64)
+    private String jobName;
+
+    @Column(nullable = false)
+    private LocalDate period;
+
+    @Column(nullable = false)
+    private Long leaveTypeId;
+
+    @Column(nullable = false, length = 16)
+    private String engine;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    // Users read by this invocation, and accrual rows it wrote; users accrued earlier are read but skipped
+    @Column(nullable = false)
+    @Builder.Default
+    private long usersProcessed = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private long accrualsWritten = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column
+    private LocalDateTime finishedAt;
+
+    @Column
+    private Long durationMs;
+
+    @Column(length = 1000)
+    private String error;
+}
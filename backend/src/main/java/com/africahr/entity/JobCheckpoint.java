@@ -0,0 +1,68 @@
+package com.africahr.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * How far a chunked batch job has got for one period. Chunks advance {@code lastUserId} in their own
+ * transaction, so a crashed run resumes after the last committed chunk.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "job_checkpoints", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_job_checkpoints_job_period", columnNames = {"job_name", "period"})
+})
+public class JobCheckpoint {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_name", nullable = false, length = 64)
+    private String jobName;
+
+    @Column(nullable = false)
+    private LocalDate period;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long lastUserId = 0L;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private long processedCount = 0;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column
+    private LocalDateTime completedAt;
+
+    // Users (rangeStart, rangeEnd] of a partition of a parallel run
+    @Column
+    private Long rangeStart;
+
+    @Column
+    private Long rangeEnd;
+}
@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -16,8 +17,21 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "leave_requests")
+@NamedEntityGraph(name = Leave.SUMMARY_GRAPH, attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode("leaveType")
+})
+@Table(name = "leave_requests", indexes = {
+        @Index(name = "idx_leave_requests_created", columnList = "created_at, id"),
+        @Index(name = "idx_leave_requests_status_created", columnList = "status, created_at, id"),
+        @Index(name = "idx_leave_requests_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_leave_requests_type_created", columnList = "leave_type_id, created_at, id"),
+        @Index(name = "idx_leave_requests_user_status_start", columnList = "user_id, status, start_date"),
+        @Index(name = "idx_leave_requests_user_dates", columnList = "user_id, start_date, end_date")
+})
 public class Leave {
+    public static final String SUMMARY_GRAPH = "Leave.summary";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -39,7 +53,12 @@ public class Leave {
     @Column(length = 500)
     private String reason;
 
+    // Working days reserved against the balance at submission; null for leaves filed before reservations existed
+    @Column(name = "duration_days")
+    private Integer durationDays;
+
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "leave_documents", joinColumns = @JoinColumn(name = "leave_id"))
     @Column(name = "document_url")
     private List<String> documentUrls;
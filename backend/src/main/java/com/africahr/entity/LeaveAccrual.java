@@ -12,7 +12,13 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "leave_accruals")
+@Table(name = "leave_accruals", indexes = {
+        @Index(name = "idx_leave_accruals_user_type_status", columnList = "user_id, leave_type_id, status"),
+        @Index(name = "idx_leave_accruals_status_expiry", columnList = "status, expiry_date")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_leave_accruals_user_type_kind_period",
+                columnNames = {"user_id", "leave_type_id", "kind", "period"})
+})
 public class LeaveAccrual {
     
     public enum AccrualStatus {
@@ -22,21 +28,30 @@ public class LeaveAccrual {
         CARRIED_OVER
     }
 
+    public enum AccrualKind {
+        MONTHLY,
+        CARRYOVER
+    }
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "leave_type_id", nullable = false)
     private LeaveType leaveType;
 
     @Column(nullable = false)
     private double daysAccrued;
 
+    // Days taken by approved leave, soonest to expire first; expiry deducts only daysAccrued - daysUsed
+    @Column(nullable = false)
+    private double daysUsed;
+
     @Column(nullable = false)
     private LocalDate accrualDate;
 
@@ -46,4 +61,12 @@ public class LeaveAccrual {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private AccrualStatus status;
+
+    // With period (first day of the month), the key that makes an accrual happen once per user and type
+    @Enumerated(EnumType.STRING)
+    @Column
+    private AccrualKind kind;
+
+    @Column
+    private LocalDate period;
 }
@@ -9,17 +9,19 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "leave_balances")
+@Table(name = "leave_balances", indexes = {
+        @Index(name = "idx_leave_balances_user_type", columnList = "user_id, leave_type_id")
+})
 public class LeaveBalance {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "leave_type_id", nullable = false)
     private LeaveType leaveType;
 
@@ -39,6 +41,11 @@ public class LeaveBalance {
     @Builder.Default
     private double carriedOverDays = 0;
 
+    // Days held by PENDING requests; available = remainingDays - reservedDays
+    @Column(nullable = false)
+    @Builder.Default
+    private double reservedDays = 0;
+
     @Column(nullable = false)
     @Builder.Default
     private double balance = 0;
@@ -55,7 +62,7 @@ public class LeaveBalance {
     @Column
     private LocalDate expiryDate;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "policy_id") // or whatever column name you prefer
     private LeavePolicy policy;
 
@@ -64,6 +71,10 @@ public class LeaveBalance {
         return this.usedDays;
     }
 
+    public double getAvailableDays() {
+        return this.remainingDays - this.reservedDays;
+    }
+
     // Business logic methods
     public void updateBalance() {
         this.remainingDays = this.totalDays - this.usedDays + this.carriedOverDays;
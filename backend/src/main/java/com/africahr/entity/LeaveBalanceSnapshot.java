@@ -0,0 +1,47 @@
+package com.africahr.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Ledger total of a (user, leave type) pair at the end of {@code asOfDate}, counting every entry up to
+ * {@code lastEntryId}. Entries appended later are added on top when a balance is read.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "leave_balance_snapshots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_leave_balance_snapshots_user_type_date",
+                columnNames = {"user_id", "leave_type_id", "as_of_date"})
+})
+public class LeaveBalanceSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "leave_type_id", nullable = false)
+    private Long leaveTypeId;
+
+    @Column(name = "as_of_date", nullable = false)
+    private LocalDate asOfDate;
+
+    @Column(nullable = false)
+    private double balance;
+
+    @Column(name = "last_entry_id", nullable = false)
+    private Long lastEntryId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
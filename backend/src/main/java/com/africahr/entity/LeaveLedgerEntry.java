@@ -0,0 +1,65 @@
+package com.africahr.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One signed movement of a leave balance. Entries are only ever appended; the running total of a
+ * (user, leave type) pair always equals {@code leave_balances.remaining_days}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Immutable
+@Table(name = "leave_balance_ledger", indexes = {
+        @Index(name = "idx_leave_balance_ledger_user_type_date", columnList = "user_id, leave_type_id, effective_date")
+})
+public class LeaveLedgerEntry {
+
+    public enum EntryType {
+        ACCRUAL,
+        USAGE,
+        CARRYOVER,
+        ADJUSTMENT,
+        EXPIRY
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "leave_type_id", nullable = false)
+    private Long leaveTypeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EntryType entryType;
+
+    // Positive entries add to the balance, negative ones take from it
+    @Column(nullable = false)
+    private double days;
+
+    @Column(name = "effective_date", nullable = false)
+    private LocalDate effectiveDate;
+
+    @Column(name = "leave_id")
+    private Long leaveId;
+
+    @Column
+    private String description;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
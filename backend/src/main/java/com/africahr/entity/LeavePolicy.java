@@ -38,7 +38,7 @@ public class LeavePolicy {
     @Column
     private boolean active = true;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "department_id")
     private Department department;
 
@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -59,13 +61,20 @@ public class LeaveType {
     @Column
     private LocalDate endDate;
 
+    // Excluded from equals/hashCode/toString: cached instances are detached and must not touch lazy collections
     @OneToMany(mappedBy = "leaveType")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<LeaveBalance> leaveBalances;
 
     @OneToMany(mappedBy = "leaveType")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<LeaveRequest> leaveRequests;
 
     @OneToMany(mappedBy = "leaveType")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<LeavePolicy> policies;
 
     public double calculateMonthlyAccrual() {
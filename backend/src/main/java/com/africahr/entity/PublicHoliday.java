@@ -13,7 +13,9 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "public_holidays")
+@Table(name = "public_holidays", indexes = {
+        @Index(name = "idx_public_holidays_date", columnList = "date")
+})
 public class PublicHoliday {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
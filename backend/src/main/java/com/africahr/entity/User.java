@@ -1,6 +1,7 @@
 package com.africahr.entity;
 
 import com.africahr.enums.Role;
+import com.africahr.service.UserStateEvictionListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -18,7 +19,10 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "users")
+@EntityListeners(UserStateEvictionListener.class)
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_active", columnList = "active, id")
+})
 public class User implements UserDetails {
 
     @Id
@@ -43,7 +47,7 @@ public class User implements UserDetails {
     @Enumerated(EnumType.STRING)
     private Role role;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "department_id")
     private Department department;
 
@@ -53,7 +57,7 @@ public class User implements UserDetails {
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
     private List<LeaveBalance> leaveBalances;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "manager_id")
     private User manager;
 
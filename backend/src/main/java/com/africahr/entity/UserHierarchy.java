@@ -0,0 +1,43 @@
+package com.africahr.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Closure of the {@code users.manager_id} reporting line: one row per (ancestor, descendant) pair,
+ * including the depth-0 row of every user to itself.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(UserHierarchy.Key.class)
+@Table(name = "user_hierarchy", indexes = {
+        @Index(name = "idx_user_hierarchy_descendant", columnList = "descendant_id, depth")
+})
+public class UserHierarchy {
+    @Id
+    @Column(name = "ancestor_id")
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id")
+    private Long descendantId;
+
+    @Column(nullable = false)
+    private int depth;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long ancestorId;
+        private Long descendantId;
+    }
+}
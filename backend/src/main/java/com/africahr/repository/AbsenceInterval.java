@@ -0,0 +1,15 @@
+package com.africahr.repository;
+
+import java.time.LocalDate;
+
+public interface AbsenceInterval {
+    Long getUserId();
+
+    String getFirstName();
+
+    String getLastName();
+
+    LocalDate getStartDate();
+
+    LocalDate getEndDate();
+}
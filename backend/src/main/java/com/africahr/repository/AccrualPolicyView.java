@@ -0,0 +1,23 @@
+package com.africahr.repository;
+
+import com.africahr.enums.LeaveType;
+
+import java.time.LocalDate;
+
+public interface AccrualPolicyView {
+    Long getPolicyId();
+
+    LeaveType getLeaveType();
+
+    Long getDepartmentId();
+
+    double getAccrualRate();
+
+    double getMaxCarryover();
+
+    int getMaxAnnualLeave();
+
+    LocalDate getEffectiveDate();
+
+    LocalDate getExpiryDate();
+}
@@ -0,0 +1,15 @@
+package com.africahr.repository;
+
+import com.africahr.entity.AccrualRun;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AccrualRunRepository extends JpaRepository<AccrualRun, Long> {
+    List<AccrualRun> findAllByOrderByIdDesc(Limit limit);
+
+    List<AccrualRun> findByJobNameOrderByIdDesc(String jobName, Limit limit);
+}
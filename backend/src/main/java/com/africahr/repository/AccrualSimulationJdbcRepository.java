@@ -0,0 +1,135 @@
+package com.africahr.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Arrays;
+
+/**
+ * Reads the workforce, balances and open accruals of a leave type straight into primitive arrays
+ * for the accrual simulation, indexed by the position of the user in {@link Workforce#userIds()}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccrualSimulationJdbcRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Active users in id order; {@code departmentIds} holds null for users without a department.
+     */
+    public record Workforce(long[] userIds, String[] emails, Long[] departmentIds) {
+        public int size() {
+            return userIds.length;
+        }
+
+        public int indexOf(long userId) {
+            return Arrays.binarySearch(userIds, userId);
+        }
+    }
+
+    /**
+     * Open (ACTIVE or CARRIED_OVER) accruals grouped by user: those of user {@code i} are at
+     * {@code offsets[i]} up to, not including, {@code offsets[i + 1]}.
+     */
+    public record OpenAccruals(int[] offsets, double[] days, long[] expiryDays, boolean[] carriedOver) {
+    }
+
+    /**
+     * Balances of the leave type per user; a user with several keeps the first one, as the accrual jobs do.
+     */
+    public record Balances(double[] remaining, double[] reserved, boolean[] present) {
+    }
+
+    public Workforce loadActiveUsers() {
+        int capacity = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE active = 1", Integer.class);
+        long[] userIds = new long[capacity];
+        String[] emails = new String[capacity];
+        Long[] departmentIds = new Long[capacity];
+        int[] count = {0};
+
+        jdbcTemplate.query("SELECT id, email, department_id FROM users WHERE active = 1 ORDER BY id", rs -> {
+            int i = count[0];
+            if (i == userIds.length) {
+                return; // activated after the count; left out of this simulation
+            }
+            userIds[i] = rs.getLong(1);
+            emails[i] = rs.getString(2);
+            long departmentId = rs.getLong(3);
+            departmentIds[i] = rs.wasNull() ? null : departmentId;
+            count[0] = i + 1;
+        });
+
+        int size = count[0];
+        return new Workforce(Arrays.copyOf(userIds, size), Arrays.copyOf(emails, size),
+                Arrays.copyOf(departmentIds, size));
+    }
+
+    public Balances loadBalances(Workforce workforce, Long leaveTypeId) {
+        double[] remaining = new double[workforce.size()];
+        double[] reserved = new double[workforce.size()];
+        boolean[] present = new boolean[workforce.size()];
+
+        jdbcTemplate.query(
+                "SELECT user_id, remaining_days, reserved_days FROM leave_balances WHERE leave_type_id = ? ORDER BY id",
+                rs -> {
+                    int i = workforce.indexOf(rs.getLong(1));
+                    if (i >= 0 && !present[i]) {
+                        remaining[i] = rs.getDouble(2);
+                        reserved[i] = rs.getDouble(3);
+                        present[i] = true;
+                    }
+                },
+                leaveTypeId);
+        return new Balances(remaining, reserved, present);
+    }
+
+    /**
+     * Unused days of the accruals of the leave type still open, including any past their expiry date
+     * that the sweeper has not picked up yet.
+     */
+    public OpenAccruals loadOpenAccruals(Workforce workforce, Long leaveTypeId) {
+        int[] counts = new int[workforce.size() + 1];
+        LotBuffer lots = new LotBuffer();
+
+        jdbcTemplate.query(
+                "SELECT user_id, days_accrued - days_used, expiry_date, status FROM leave_accruals " +
+                        "WHERE leave_type_id = ? AND status IN ('ACTIVE', 'CARRIED_OVER') " +
+                        "ORDER BY user_id, id",
+                rs -> {
+                    int user = workforce.indexOf(rs.getLong(1));
+                    if (user >= 0) {
+                        lots.add(rs.getDouble(2), rs.getDate(3).toLocalDate().toEpochDay(),
+                                "CARRIED_OVER".equals(rs.getString(4)));
+                        counts[user + 1]++;
+                    }
+                },
+                leaveTypeId);
+
+        // Rows arrive in user order, so prefix sums of the per-user counts are the offsets
+        for (int i = 1; i < counts.length; i++) {
+            counts[i] += counts[i - 1];
+        }
+        return new OpenAccruals(counts, Arrays.copyOf(lots.days, lots.size),
+                Arrays.copyOf(lots.expiryDays, lots.size), Arrays.copyOf(lots.carriedOver, lots.size));
+    }
+
+    private static final class LotBuffer {
+        private double[] days = new double[1024];
+        private long[] expiryDays = new long[1024];
+        private boolean[] carriedOver = new boolean[1024];
+        private int size;
+
+        void add(double lotDays, long expiryDay, boolean carried) {
+            if (size == days.length) {
+                days = Arrays.copyOf(days, size * 2);
+                expiryDays = Arrays.copyOf(expiryDays, size * 2);
+                carriedOver = Arrays.copyOf(carriedOver, size * 2);
+            }
+            days[size] = lotDays;
+            expiryDays[size] = expiryDay;
+            carriedOver[size] = carried;
+            size++;
+        }
+    }
+}
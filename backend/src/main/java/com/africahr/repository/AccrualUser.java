@@ -0,0 +1,9 @@
+package com.africahr.repository;
+
+public interface AccrualUser {
+    Long getId();
+
+    String getEmail();
+
+    Long getDepartmentId();
+}
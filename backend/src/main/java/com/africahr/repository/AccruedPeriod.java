@@ -0,0 +1,13 @@
+package com.africahr.repository;
+
+import com.africahr.entity.LeaveAccrual;
+
+import java.time.LocalDate;
+
+public interface AccruedPeriod {
+    Long getUserId();
+
+    LeaveAccrual.AccrualKind getKind();
+
+    LocalDate getPeriod();
+}
@@ -0,0 +1,7 @@
+package com.africahr.repository;
+
+public interface DepartmentCount {
+    Long getDepartmentId();
+
+    Long getUsers();
+}
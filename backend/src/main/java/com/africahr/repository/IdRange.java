@@ -0,0 +1,7 @@
+package com.africahr.repository;
+
+public interface IdRange {
+    Long getMinId();
+
+    Long getMaxId();
+}
@@ -0,0 +1,30 @@
+package com.africahr.repository;
+
+import com.africahr.entity.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, Long> {
+    Optional<JobCheckpoint> findByJobNameAndPeriod(String jobName, LocalDate period);
+
+    @Query("select c from JobCheckpoint c where substring(c.jobName, 1, length(:prefix)) = :prefix " +
+            "and c.period = :period order by c.rangeStart")
+    List<JobCheckpoint> findPartitions(@Param("prefix") String prefix, @Param("period") LocalDate period);
+
+    @Modifying
+    @Query("update JobCheckpoint c set c.lastUserId = :lastUserId, " +
+            "c.processedCount = c.processedCount + :processed, c.updatedAt = :now where c.id = :id")
+    int advance(@Param("id") Long id,
+                @Param("lastUserId") Long lastUserId,
+                @Param("processed") long processed,
+                @Param("now") LocalDateTime now);
+}
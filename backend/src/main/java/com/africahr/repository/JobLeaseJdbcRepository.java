@@ -0,0 +1,78 @@
+package com.africahr.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Leases on {@code job_leases}. Every statement touches one row by primary key and compares against
+ * the database clock, so nodes with skewed clocks still agree on when a lease has expired.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JobLeaseJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record Lease(String jobName, String holder, LocalDateTime leaseUntil, LocalDateTime acquiredAt,
+                        LocalDateTime renewedAt, boolean held) {
+    }
+
+    public void createIfAbsent(String jobName) {
+        jdbcTemplate.update("INSERT IGNORE INTO job_leases (job_name, lease_until) VALUES (?, '1970-01-01')",
+                jobName);
+    }
+
+    /**
+     * Takes the lease if nobody holds it, including a holder that died and let it expire.
+     *
+     * @return whether {@code holder} now holds the lease
+     */
+    public boolean acquire(String jobName, String holder, long seconds) {
+        return jdbcTemplate.update(
+                "UPDATE job_leases SET holder = ?, lease_until = TIMESTAMPADD(SECOND, ?, NOW(6)), " +
+                        "acquired_at = NOW(6), renewed_at = NOW(6) " +
+                        "WHERE job_name = ? AND lease_until <= NOW(6)",
+                holder, seconds, jobName) == 1;
+    }
+
+    /**
+     * Extends a lease still held by {@code holder}.
+     *
+     * @return false if the lease expired and was taken over
+     */
+    public boolean renew(String jobName, String holder, long seconds) {
+        return jdbcTemplate.update(
+                "UPDATE job_leases SET lease_until = TIMESTAMPADD(SECOND, ?, NOW(6)), renewed_at = NOW(6) " +
+                        "WHERE job_name = ? AND holder = ? AND lease_until > NOW(6)",
+                seconds, jobName, holder) == 1;
+    }
+
+    /**
+     * Ends the lease, but no sooner than {@code minHoldSeconds} after it was taken, so a node whose
+     * trigger fires late finds the job still held instead of running it again. The holder is kept so
+     * the status shows who ran the job last.
+     */
+    public void release(String jobName, String holder, long minHoldSeconds) {
+        jdbcTemplate.update(
+                "UPDATE job_leases SET lease_until = GREATEST(NOW(6), TIMESTAMPADD(SECOND, ?, acquired_at)) " +
+                        "WHERE job_name = ? AND holder = ?",
+                minHoldSeconds, jobName, holder);
+    }
+
+    public List<Lease> findAll() {
+        return jdbcTemplate.query(
+                "SELECT job_name, holder, lease_until, acquired_at, renewed_at, lease_until > NOW(6) " +
+                        "FROM job_leases ORDER BY job_name",
+                (rs, rowNum) -> new Lease(rs.getString(1), rs.getString(2), toLocalDateTime(rs.getTimestamp(3)),
+                        toLocalDateTime(rs.getTimestamp(4)), toLocalDateTime(rs.getTimestamp(5)), rs.getBoolean(6)));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
@@ -0,0 +1,15 @@
+package com.africahr.repository;
+
+import java.time.LocalDate;
+
+public interface LaggingBalance {
+    Long getBalanceId();
+
+    Long getUserId();
+
+    String getEmail();
+
+    Long getDepartmentId();
+
+    LocalDate getLastAccrualDate();
+}
@@ -0,0 +1,303 @@
+package com.africahr.repository;
+
+import com.africahr.entity.LeaveAccrual;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch inserts of accrual rows for the chunked accrual jobs, and the statements of the set-based
+ * accrual, which accrue every active user at once with INSERT ... SELECT and UPDATE ... JOIN.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LeaveAccrualJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record NewAccrual(Long userId, Long leaveTypeId, double days, LocalDate accrualDate,
+                             LocalDate expiryDate, LeaveAccrual.AccrualStatus status,
+                             LeaveAccrual.AccrualKind kind, LocalDate period) {
+        public NewAccrual withStatus(LeaveAccrual.AccrualStatus status) {
+            return new NewAccrual(userId, leaveTypeId, days, accrualDate, expiryDate, status, kind, period);
+        }
+    }
+
+    public record ExpiredAccrual(Long id, Long userId, Long leaveTypeId, double days, LocalDate expiryDate) {
+    }
+
+    public record Usage(Long userId, Long leaveTypeId, double days) {
+    }
+
+    private record BalanceKey(Long userId, Long leaveTypeId) {
+    }
+
+    private record OpenAccrual(Long id, double days, double used) {
+    }
+
+    public void insertAll(List<NewAccrual> accruals) {
+        if (accruals.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(accruals.size());
+        for (NewAccrual accrual : accruals) {
+            batch.add(new Object[]{
+                    accrual.userId(), accrual.leaveTypeId(), accrual.days(), Date.valueOf(accrual.accrualDate()),
+                    Date.valueOf(accrual.expiryDate()), accrual.status().name(), accrual.kind().name(),
+                    Date.valueOf(accrual.period())});
+        }
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO leave_accruals (user_id, leave_type_id, days_accrued, accrual_date, expiry_date, status, " +
+                        "kind, period, days_used) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)",
+                batch);
+    }
+
+    /**
+     * Highest accrual id so far. The set-based statements that follow the inserts only touch rows above
+     * it, so users accrued by an earlier run of the period are neither credited nor journaled again.
+     */
+    public long maxId() {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM leave_accruals", Long.class);
+    }
+
+    // Forfeits are journaled first and then applied to balances by joining on this description
+    private static final String FORFEIT_DESCRIPTION = "Forfeited at year end";
+
+    // Balances not yet carried over for the period, one per user and type; a carryover accrual written
+    // before the run (id <= afterId), from before last_carryover_date was stamped, also counts as carried
+    private static final String FOLDING =
+            "b.leave_type_id = ? AND (b.last_carryover_date IS NULL OR b.last_carryover_date < ?) " +
+                    "AND b.id IN (SELECT f.id FROM (SELECT MIN(id) AS id FROM leave_balances " +
+                    "WHERE leave_type_id = ? GROUP BY user_id) f) " +
+                    "AND b.user_id NOT IN (SELECT x.user_id FROM (SELECT user_id FROM leave_accruals " +
+                    "WHERE leave_type_id = ? AND kind = 'CARRYOVER' AND period = ? AND id <= ?) x) ";
+
+    // What a balance has available at year end, as CarryoverFolder reads it: remaining less reserved days
+    // and the unused days of the new year's accruals
+    private static final String AVAILABLE =
+            "(b.remaining_days - b.reserved_days - COALESCE((SELECT SUM(n.days_accrued - n.days_used) " +
+                    "FROM leave_accruals n WHERE n.user_id = b.user_id AND n.leave_type_id = b.leave_type_id " +
+                    "AND n.kind = 'MONTHLY' AND n.status = 'ACTIVE' AND n.accrual_date >= ?), 0))";
+
+    private static Object[] folding(Long leaveTypeId, Date period, long afterId) {
+        return new Object[]{leaveTypeId, period, leaveTypeId, leaveTypeId, period, afterId};
+    }
+
+    // Statement parameters with the FOLDING ones spliced in
+    private static Object[] params(Object... parts) {
+        List<Object> params = new ArrayList<>();
+        for (Object part : parts) {
+            if (part instanceof Object[] nested) {
+                params.addAll(Arrays.asList(nested));
+            } else {
+                params.add(part);
+            }
+        }
+        return params.toArray();
+    }
+
+    /**
+     * Carries what each balance of an active user has available over into one CARRIED_OVER accrual dated
+     * {@code period}, capped at {@code maxCarryover}. The carried days are already in the balance, so
+     * nothing is credited; run {@link #insertForfeits}, {@link #applyForfeits},
+     * {@link #expireCarryoverSources} and {@link #markCarriedOver} after it.
+     */
+    public int insertCarryovers(Long leaveTypeId, LocalDate period, double maxCarryover, long afterId) {
+        Date date = Date.valueOf(period);
+        return jdbcTemplate.update(
+                "INSERT INTO leave_accruals (user_id, leave_type_id, days_accrued, accrual_date, expiry_date, status, " +
+                        "kind, period, days_used) " +
+                        "SELECT b.user_id, b.leave_type_id, LEAST(" + AVAILABLE + ", ?), ?, ?, 'CARRIED_OVER', " +
+                        "'CARRYOVER', ?, 0 FROM leave_balances b JOIN users u ON u.id = b.user_id AND u.active = 1 " +
+                        "WHERE " + FOLDING + "AND LEAST(" + AVAILABLE + ", ?) > 0",
+                params(date, maxCarryover, date, Date.valueOf(period.plusDays(31)), date,
+                        folding(leaveTypeId, date, afterId), date, maxCarryover));
+    }
+
+    // Journals the available days above maxCarryover as forfeited
+    public int insertForfeits(Long leaveTypeId, LocalDate period, double maxCarryover, long afterId) {
+        Date date = Date.valueOf(period);
+        return jdbcTemplate.update(
+                "INSERT INTO leave_balance_ledger (user_id, leave_type_id, entry_type, days, effective_date, " +
+                        "description, created_at) " +
+                        "SELECT b.user_id, b.leave_type_id, 'EXPIRY', -(" + AVAILABLE + " - ?), CURDATE(), ?, NOW(6) " +
+                        "FROM leave_balances b JOIN users u ON u.id = b.user_id AND u.active = 1 " +
+                        "WHERE " + FOLDING + "AND " + AVAILABLE + " > ?",
+                params(date, maxCarryover, FORFEIT_DESCRIPTION, folding(leaveTypeId, date, afterId),
+                        date, maxCarryover));
+    }
+
+    // Takes the forfeits journaled after afterLedgerId off the balances
+    public int applyForfeits(Long leaveTypeId, LocalDate period, long afterLedgerId) {
+        return jdbcTemplate.update(
+                "UPDATE leave_balances b JOIN leave_balance_ledger l ON l.user_id = b.user_id " +
+                        "AND l.leave_type_id = b.leave_type_id AND l.entry_type = 'EXPIRY' AND l.description = ? " +
+                        "AND l.id > ? " +
+                        "SET b.remaining_days = b.remaining_days + l.days, b.balance = b.balance + l.days, " +
+                        "b.last_updated = ? WHERE b.leave_type_id = ?",
+                FORFEIT_DESCRIPTION, afterLedgerId, Date.valueOf(period), leaveTypeId);
+    }
+
+    /**
+     * Marks the folded balances' ACTIVE accruals granted before the period and unexpired when it starts
+     * EXPIRED, so the sweeper never deducts them; the carryover replaces them.
+     */
+    public int expireCarryoverSources(Long leaveTypeId, LocalDate period, long afterId) {
+        Date date = Date.valueOf(period);
+        return jdbcTemplate.update(
+                "UPDATE leave_accruals a JOIN leave_balances b ON b.user_id = a.user_id " +
+                        "AND b.leave_type_id = a.leave_type_id JOIN users u ON u.id = a.user_id AND u.active = 1 " +
+                        "SET a.status = 'EXPIRED' WHERE a.status = 'ACTIVE' AND a.accrual_date < ? " +
+                        "AND a.expiry_date >= ? AND " + FOLDING,
+                params(date, date, folding(leaveTypeId, date, afterId)));
+    }
+
+    // Run last: stamps the carried days and last_carryover_date, which takes the balances out of FOLDING
+    public int markCarriedOver(Long leaveTypeId, LocalDate period, long afterId) {
+        Date date = Date.valueOf(period);
+        return jdbcTemplate.update(
+                "UPDATE leave_balances b JOIN users u ON u.id = b.user_id AND u.active = 1 " +
+                        "LEFT JOIN leave_accruals c ON c.user_id = b.user_id AND c.leave_type_id = b.leave_type_id " +
+                        "AND c.kind = 'CARRYOVER' AND c.period = ? AND c.id > ? " +
+                        "SET b.carried_over_days = COALESCE(c.days_accrued, 0), b.last_carryover_date = ?, " +
+                        "b.last_updated = ? WHERE " + FOLDING,
+                params(date, afterId, date, date, folding(leaveTypeId, date, afterId)));
+    }
+
+    // Active users not yet accrued for the period
+    public int insertForActiveUsers(Long leaveTypeId, LocalDate period, double days) {
+        Date date = Date.valueOf(period);
+        return jdbcTemplate.update(
+                "INSERT INTO leave_accruals (user_id, leave_type_id, days_accrued, accrual_date, expiry_date, status, " +
+                        "kind, period, days_used) " +
+                        "SELECT u.id, ?, ?, ?, ?, 'ACTIVE', 'MONTHLY', ?, 0 FROM users u WHERE u.active = 1 " +
+                        "AND NOT EXISTS (SELECT 1 FROM leave_accruals x WHERE x.user_id = u.id " +
+                        "AND x.leave_type_id = ? AND x.kind = 'MONTHLY' AND x.period = ?)",
+                leaveTypeId, days, date, Date.valueOf(period.plusYears(1)), date, leaveTypeId, date);
+    }
+
+    public int addToActiveBalances(Long leaveTypeId, LocalDate period, long afterId) {
+        Date date = Date.valueOf(period);
+        return jdbcTemplate.update(
+                "UPDATE leave_balances b JOIN leave_accruals a ON a.user_id = b.user_id " +
+                        "AND a.leave_type_id = b.leave_type_id AND a.kind = 'MONTHLY' AND a.period = ? AND a.id > ? " +
+                        "SET b.total_days = b.total_days + a.days_accrued, " +
+                        "b.remaining_days = b.remaining_days + a.days_accrued, b.balance = b.balance + a.days_accrued, " +
+                        "b.last_accrual_date = ?, b.last_updated = ? WHERE b.leave_type_id = ?",
+                date, afterId, date, date, leaveTypeId);
+    }
+
+    // Run after addToActiveBalances, so the opened balances are not credited twice
+    public int openMissingBalances(Long leaveTypeId, LocalDate period, long afterId) {
+        Date date = Date.valueOf(period);
+        return jdbcTemplate.update(
+                "INSERT INTO leave_balances (user_id, leave_type_id, total_days, used_days, remaining_days, " +
+                        "carried_over_days, reserved_days, balance, last_accrual_date, last_updated) " +
+                        "SELECT a.user_id, a.leave_type_id, a.days_accrued, 0, a.days_accrued, 0, 0, a.days_accrued, " +
+                        "?, ? FROM leave_accruals a WHERE a.leave_type_id = ? AND a.kind = 'MONTHLY' " +
+                        "AND a.period = ? AND a.id > ? AND NOT EXISTS (SELECT 1 FROM leave_balances b " +
+                        "WHERE b.user_id = a.user_id AND b.leave_type_id = a.leave_type_id)",
+                date, date, leaveTypeId, date, afterId);
+    }
+
+    // Ledger entries mirroring the monthly accrual rows this run wrote for the period; carryover credits nothing
+    public int appendLedgerEntries(Long leaveTypeId, LocalDate period, long afterId) {
+        return jdbcTemplate.update(
+                "INSERT INTO leave_balance_ledger (user_id, leave_type_id, entry_type, days, effective_date, " +
+                        "description, created_at) " +
+                        "SELECT a.user_id, a.leave_type_id, 'ACCRUAL', a.days_accrued, CURDATE(), 'Monthly accrual', " +
+                        "NOW(6) FROM leave_accruals a WHERE a.leave_type_id = ? AND a.kind = 'MONTHLY' " +
+                        "AND a.period = ? AND a.id > ?",
+                leaveTypeId, Date.valueOf(period), afterId);
+    }
+
+    /**
+     * Next page of accruals in {@code status} that expired on or before {@code today}, in
+     * (expiry_date, id) order after the given position; served by the (status, expiry_date) index.
+     */
+    public List<ExpiredAccrual> findExpired(LeaveAccrual.AccrualStatus status, LocalDate today,
+                                            LocalDate afterExpiry, long afterId, int limit) {
+        Date after = Date.valueOf(afterExpiry);
+        return jdbcTemplate.query(
+                "SELECT id, user_id, leave_type_id, days_accrued, expiry_date FROM leave_accruals " +
+                        "WHERE status = ? AND expiry_date <= ? AND (expiry_date > ? OR (expiry_date = ? AND id > ?)) " +
+                        "ORDER BY expiry_date, id LIMIT ?",
+                (rs, rowNum) -> new ExpiredAccrual(rs.getLong("id"), rs.getLong("user_id"),
+                        rs.getLong("leave_type_id"), rs.getDouble("days_accrued"),
+                        rs.getDate("expiry_date").toLocalDate()),
+                status.name(), Date.valueOf(today), after, after, afterId, limit);
+    }
+
+    /**
+     * Marks the accruals EXPIRED if they are still in {@code status}; the result has one update count
+     * per id, 0 where another run got there first.
+     */
+    public int[] markExpired(List<Long> ids, LeaveAccrual.AccrualStatus status) {
+        List<Object[]> batch = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            batch.add(new Object[]{id, status.name()});
+        }
+        return jdbcTemplate.batchUpdate(
+                "UPDATE leave_accruals SET status = 'EXPIRED' WHERE id = ? AND status = ?", batch);
+    }
+
+    /**
+     * Records approved leave against each user's open accruals of the type, soonest to expire first, so
+     * the expiry sweeper only deducts what is left of them. Run it after the balance deduction, while the
+     * balance row is locked; days beyond what the open accruals hold (opening balances, adjustments) are
+     * not tracked.
+     */
+    public void consume(List<Usage> usages) {
+        draw(usages, true);
+    }
+
+    // Gives refunded days back to the open accruals that consumed them, latest to expire first
+    public void release(List<Usage> usages) {
+        draw(usages, false);
+    }
+
+    private void draw(List<Usage> usages, boolean consume) {
+        Map<BalanceKey, Double> daysByBalance = new LinkedHashMap<>();
+        for (Usage usage : usages) {
+            daysByBalance.merge(new BalanceKey(usage.userId(), usage.leaveTypeId()), usage.days(), Double::sum);
+        }
+
+        List<Object[]> batch = new ArrayList<>();
+        daysByBalance.forEach((balance, days) -> {
+            double left = days;
+            for (OpenAccrual accrual : findOpen(balance.userId(), balance.leaveTypeId(), consume)) {
+                if (left <= 0) {
+                    break;
+                }
+                double drawn = Math.min(left, consume ? accrual.days() - accrual.used() : accrual.used());
+                batch.add(new Object[]{consume ? drawn : -drawn, accrual.id()});
+                left -= drawn;
+            }
+        });
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE leave_accruals SET days_used = days_used + ? WHERE id = ?", batch);
+        }
+    }
+
+    // ACTIVE and CARRIED_OVER accruals with days left to consume, or consumed days to release
+    private List<OpenAccrual> findOpen(Long userId, Long leaveTypeId, boolean consume) {
+        return jdbcTemplate.query(
+                "SELECT id, days_accrued, days_used FROM leave_accruals WHERE user_id = ? AND leave_type_id = ? " +
+                        "AND status IN ('ACTIVE', 'CARRIED_OVER') " +
+                        (consume ? "AND days_used < days_accrued ORDER BY expiry_date, id"
+                                : "AND days_used > 0 ORDER BY expiry_date DESC, id DESC"),
+                (rs, rowNum) -> new OpenAccrual(rs.getLong("id"), rs.getDouble("days_accrued"),
+                        rs.getDouble("days_used")),
+                userId, leaveTypeId);
+    }
+}
@@ -1,10 +1,15 @@
 package com.africahr.repository;
 
 import com.africahr.entity.LeaveAccrual;
+import com.africahr.entity.LeaveAccrual.AccrualKind;
 import com.africahr.entity.LeaveAccrual.AccrualStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,4 +20,47 @@ public interface LeaveAccrualRepository extends JpaRepository<LeaveAccrual, Long
         Long userId,
         Long leaveTypeId
     );
+
+    long countByLeaveTypeIdAndKindAndPeriodAndUserIdGreaterThanAndUserIdLessThanEqual(
+            Long leaveTypeId, AccrualKind kind, LocalDate period, Long afterUserId, Long upperUserId);
+
+    boolean existsByUserIdAndLeaveTypeIdAndKindAndPeriod(Long userId, Long leaveTypeId, AccrualKind kind,
+                                                          LocalDate period);
+
+    // Users of the page already accrued for the period; a lookup on the unique (user, type, kind, period) key
+    @Query("select a.user.id from LeaveAccrual a where a.user.id in :userIds and a.leaveType.id = :leaveTypeId " +
+            "and a.kind = :kind and a.period = :period")
+    List<Long> findAccruedUserIds(@Param("userIds") Collection<Long> userIds,
+                                  @Param("leaveTypeId") Long leaveTypeId,
+                                  @Param("kind") AccrualKind kind,
+                                  @Param("period") LocalDate period);
+
+    // What a January folds: ACTIVE accruals granted before the period and unexpired when it starts
+    @Query("select a.id from LeaveAccrual a " +
+            "where a.user.id in :userIds and a.leaveType.id = :leaveTypeId and a.status = :status " +
+            "and a.accrualDate < :period and a.expiryDate >= :period order by a.id")
+    List<Long> findCarryoverSourceIds(@Param("userIds") Collection<Long> userIds,
+                                      @Param("leaveTypeId") Long leaveTypeId,
+                                      @Param("status") AccrualStatus status,
+                                      @Param("period") LocalDate period);
+
+    // Unused days of the accruals granted from the period on, per user
+    @Query("select a.user.id as userId, sum(a.daysAccrued - a.daysUsed) as days from LeaveAccrual a " +
+            "where a.user.id in :userIds and a.leaveType.id = :leaveTypeId and a.kind = :kind " +
+            "and a.status = :status and a.accrualDate >= :period group by a.user.id")
+    List<UnusedDays> sumUnusedSince(@Param("userIds") Collection<Long> userIds,
+                                    @Param("leaveTypeId") Long leaveTypeId,
+                                    @Param("kind") AccrualKind kind,
+                                    @Param("status") AccrualStatus status,
+                                    @Param("period") LocalDate period);
+
+    // What is left of the accruals once the leave that consumed them is taken off
+    @Query("select a.id as id, a.daysAccrued - a.daysUsed as days from LeaveAccrual a where a.id in :ids")
+    List<UnusedAccrual> findUnused(@Param("ids") Collection<Long> ids);
+
+    @Query("select a.user.id as userId, a.kind as kind, a.period as period from LeaveAccrual a " +
+            "where a.user.id in :userIds and a.leaveType.id = :leaveTypeId and a.period >= :from")
+    List<AccruedPeriod> findAccruedPeriods(@Param("userIds") Collection<Long> userIds,
+                                           @Param("leaveTypeId") Long leaveTypeId,
+                                           @Param("from") LocalDate from);
 }
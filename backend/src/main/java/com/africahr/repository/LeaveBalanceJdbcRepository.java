@@ -0,0 +1,160 @@
+package com.africahr.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-oriented writes to leave_balances that bypass the persistence context. Statements join the
+ * caller's transaction and are sent as JDBC batches (rewriteBatchedStatements on the MySQL URL).
+ */
+@Repository
+@RequiredArgsConstructor
+public class LeaveBalanceJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Days to take from a balance and, of those, how many were reserved at submission.
+     */
+    public record Deduction(double days, double reserved) {
+        public Deduction plus(Deduction other) {
+            return new Deduction(days + other.days, reserved + other.reserved);
+        }
+    }
+
+    /**
+     * Deducts each amount only if the balance still covers it.
+     *
+     * @return the balance ids whose deduction was not applied
+     */
+    public List<Long> deductIfAvailable(Map<Long, Deduction> deductionsByBalanceId) {
+        if (deductionsByBalanceId.isEmpty()) {
+            return List.of();
+        }
+
+        Date today = Date.valueOf(LocalDate.now());
+        List<Long> balanceIds = new ArrayList<>(deductionsByBalanceId.keySet());
+        List<Object[]> batch = new ArrayList<>(balanceIds.size());
+        for (Long balanceId : balanceIds) {
+            Deduction deduction = deductionsByBalanceId.get(balanceId);
+            batch.add(new Object[]{
+                    deduction.days(), deduction.days(), deduction.reserved(), today, balanceId, deduction.days()});
+        }
+
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE leave_balances SET remaining_days = remaining_days - ?, used_days = used_days + ?, " +
+                        "reserved_days = GREATEST(reserved_days - ?, 0), last_updated = ? " +
+                        "WHERE id = ? AND remaining_days >= ?",
+                batch);
+
+        List<Long> rejected = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                rejected.add(balanceIds.get(i));
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * Adds accrued days to existing balances.
+     */
+    public void addAccruals(Map<Long, Double> daysByBalanceId, LocalDate accrualDate) {
+        if (daysByBalanceId.isEmpty()) {
+            return;
+        }
+
+        Date date = Date.valueOf(accrualDate);
+        List<Object[]> batch = new ArrayList<>(daysByBalanceId.size());
+        daysByBalanceId.forEach((balanceId, days) -> batch.add(new Object[]{days, days, days, date, date, balanceId}));
+
+        jdbcTemplate.batchUpdate(
+                "UPDATE leave_balances SET total_days = total_days + ?, remaining_days = remaining_days + ?, " +
+                        "balance = balance + ?, last_accrual_date = ?, last_updated = ? WHERE id = ?",
+                batch);
+    }
+
+    /**
+     * Opens a balance holding {@code days} for each user that has none for the leave type yet.
+     */
+    public void insertAccrued(Map<Long, Double> daysByUserId, Long leaveTypeId, LocalDate accrualDate) {
+        if (daysByUserId.isEmpty()) {
+            return;
+        }
+
+        Date date = Date.valueOf(accrualDate);
+        List<Object[]> batch = new ArrayList<>(daysByUserId.size());
+        daysByUserId.forEach((userId, days) ->
+                batch.add(new Object[]{userId, leaveTypeId, days, days, days, date, date}));
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO leave_balances (user_id, leave_type_id, total_days, used_days, remaining_days, " +
+                        "carried_over_days, reserved_days, balance, last_accrual_date, last_updated) " +
+                        "VALUES (?, ?, ?, 0, ?, 0, 0, ?, ?, ?)",
+                batch);
+    }
+
+    /**
+     * Takes expired days off existing balances; {@code totalDays} keeps what was granted.
+     */
+    public void deductExpired(Map<Long, Double> daysByBalanceId, LocalDate today) {
+        if (daysByBalanceId.isEmpty()) {
+            return;
+        }
+
+        Date date = Date.valueOf(today);
+        List<Object[]> batch = new ArrayList<>(daysByBalanceId.size());
+        daysByBalanceId.forEach((balanceId, days) -> batch.add(new Object[]{days, days, date, balanceId}));
+
+        jdbcTemplate.batchUpdate(
+                "UPDATE leave_balances SET remaining_days = remaining_days - ?, balance = balance - ?, " +
+                        "last_updated = ? WHERE id = ?",
+                batch);
+    }
+
+    public void releaseReserved(Map<Long, Double> daysByBalanceId) {
+        if (daysByBalanceId.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(daysByBalanceId.size());
+        daysByBalanceId.forEach((balanceId, days) -> batch.add(new Object[]{days, balanceId}));
+
+        jdbcTemplate.batchUpdate(
+                "UPDATE leave_balances SET reserved_days = GREATEST(reserved_days - ?, 0) WHERE id = ?",
+                batch);
+    }
+
+    /**
+     * January carryover of a balance for {@code period}: the forfeited days come off it, the carried days
+     * are already in it.
+     */
+    public record Carryover(Long balanceId, LocalDate period, double forfeited, double carried) {
+    }
+
+    // Also stamps last_carryover_date, which keeps a balance from being carried over twice for a period
+    public void applyCarryovers(List<Carryover> carryovers) {
+        if (carryovers.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(carryovers.size());
+        for (Carryover carryover : carryovers) {
+            Date date = Date.valueOf(carryover.period());
+            batch.add(new Object[]{carryover.forfeited(), carryover.forfeited(), carryover.carried(), date, date,
+                    carryover.balanceId()});
+        }
+
+        jdbcTemplate.batchUpdate(
+                "UPDATE leave_balances SET remaining_days = remaining_days - ?, balance = balance - ?, " +
+                        "carried_over_days = ?, last_carryover_date = ?, last_updated = ? WHERE id = ?",
+                batch);
+    }
+}
@@ -2,15 +2,83 @@ package com.africahr.repository;
 
 import com.africahr.entity.LeaveBalance;
 import com.africahr.entity.LeaveType;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface LeaveBalanceRepository extends JpaRepository<LeaveBalance, Long> {
+    @EntityGraph(attributePaths = {"user", "leaveType"})
     List<LeaveBalance> findByUserId(Long userId);
     Optional<LeaveBalance> findByUserIdAndLeaveType(Long userId, LeaveType leaveType);
     List<LeaveBalance> findByUserIdAndLeaveTypeId(Long userId, Long leaveTypeId);
-}
\ No newline at end of file
+
+    @EntityGraph(attributePaths = {"user", "leaveType"})
+    List<LeaveBalance> findByLeaveTypeId(Long leaveTypeId);
+
+    // Check and deduction in one statement: concurrent approvals serialize on the row lock and can never overdraw.
+    // The reservation taken at submission is released in the same statement.
+    @Modifying(flushAutomatically = true)
+    @Query("update LeaveBalance b set b.remainingDays = b.remainingDays - :days, " +
+            "b.usedDays = b.usedDays + :days, " +
+            "b.reservedDays = case when b.reservedDays >= :reserved then b.reservedDays - :reserved else 0 end, " +
+            "b.lastUpdated = :today " +
+            "where b.id = :id and b.remainingDays >= :days")
+    int deductIfAvailable(@Param("id") Long id,
+                          @Param("days") double days,
+                          @Param("reserved") double reserved,
+                          @Param("today") LocalDate today);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update LeaveBalance b set b.reservedDays = b.reservedDays + :days " +
+            "where b.id = :id and b.remainingDays - b.reservedDays >= :days")
+    int reserveIfAvailable(@Param("id") Long id, @Param("days") double days);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update LeaveBalance b set " +
+            "b.reservedDays = case when b.reservedDays >= :days then b.reservedDays - :days else 0 end " +
+            "where b.id = :id")
+    int releaseReserved(@Param("id") Long id, @Param("days") double days);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update LeaveBalance b set b.remainingDays = b.remainingDays + :days, " +
+            "b.usedDays = b.usedDays - :days, b.lastUpdated = :today where b.id = :id")
+    int refund(@Param("id") Long id, @Param("days") double days, @Param("today") LocalDate today);
+
+    @Query("select b from LeaveBalance b where b.user.id in :userIds and b.leaveType.id in :leaveTypeIds")
+    List<LeaveBalance> findByUserIdsAndLeaveTypeIds(@Param("userIds") Collection<Long> userIds,
+                                                    @Param("leaveTypeIds") Collection<Long> leaveTypeIds);
+
+    // Oldest accrual month among active users' balances of the type; balances never accrued are ignored
+    @Query("select min(b.lastAccrualDate) from LeaveBalance b where b.leaveType.id = :leaveTypeId " +
+            "and b.user.active = true")
+    LocalDate findOldestAccrualDate(@Param("leaveTypeId") Long leaveTypeId);
+
+    // Keyset page of active users' balances last accrued before the given date
+    @Query("select b.id as balanceId, u.id as userId, u.email as email, d.id as departmentId, " +
+            "b.lastAccrualDate as lastAccrualDate from LeaveBalance b join b.user u left join u.department d " +
+            "where b.leaveType.id = :leaveTypeId and u.active = true and b.lastAccrualDate < :before " +
+            "and u.id > :afterUserId order by u.id asc")
+    List<LaggingBalance> findLagging(@Param("leaveTypeId") Long leaveTypeId,
+                                     @Param("before") LocalDate before,
+                                     @Param("afterUserId") Long afterUserId,
+                                     Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(attributePaths = {"user"})
+    @Query("select b from LeaveBalance b where b.user.id in :userIds and b.leaveType.id in :leaveTypeIds " +
+            "order by b.id")
+    List<LeaveBalance> lockByUserIdsAndLeaveTypeIds(@Param("userIds") Collection<Long> userIds,
+                                                    @Param("leaveTypeIds") Collection<Long> leaveTypeIds);
+}
@@ -0,0 +1,14 @@
+package com.africahr.repository;
+
+import com.africahr.entity.LeaveBalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface LeaveBalanceSnapshotRepository extends JpaRepository<LeaveBalanceSnapshot, Long> {
+    Optional<LeaveBalanceSnapshot> findFirstByUserIdAndLeaveTypeIdAndAsOfDateLessThanEqualOrderByAsOfDateDesc(
+            Long userId, Long leaveTypeId, LocalDate asOfDate);
+}
@@ -0,0 +1,50 @@
+package com.africahr.repository;
+
+import com.africahr.enums.LeaveStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batched status changes of leave requests for the bulk decision endpoint, bypassing the persistence
+ * context like {@link LeaveBalanceJdbcRepository}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LeaveJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Moves each request to {@code to} only if it is still in {@code from}.
+     *
+     * @return the ids that were no longer in {@code from} and were left alone
+     */
+    public List<Long> updateStatusIf(List<Long> ids, LeaveStatus from, LeaveStatus to, LocalDateTime at) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Timestamp timestamp = Timestamp.valueOf(at);
+        List<Object[]> batch = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            batch.add(new Object[]{to.name(), timestamp, id, from.name()});
+        }
+
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE leave_requests SET status = ?, updated_at = ? WHERE id = ? AND status = ?", batch);
+
+        List<Long> skipped = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                skipped.add(ids.get(i));
+            }
+        }
+        return skipped;
+    }
+}
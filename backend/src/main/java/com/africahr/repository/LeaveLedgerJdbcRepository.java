@@ -0,0 +1,65 @@
+package com.africahr.repository;
+
+import com.africahr.entity.LeaveLedgerEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk writes to the balance ledger. Appends are plain INSERTs, so batch jobs never contend on a
+ * balance row while recording their movements.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LeaveLedgerJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void appendAll(List<LeaveLedgerEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(entries.size());
+        for (LeaveLedgerEntry entry : entries) {
+            batch.add(new Object[]{
+                    entry.getUserId(), entry.getLeaveTypeId(), entry.getEntryType().name(), entry.getDays(),
+                    Date.valueOf(entry.getEffectiveDate()), entry.getLeaveId(), entry.getDescription(), now});
+        }
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO leave_balance_ledger (user_id, leave_type_id, entry_type, days, effective_date, " +
+                        "leave_id, description, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                batch);
+    }
+
+    /**
+     * Writes a snapshot as of {@code asOf} for every pair with entries the previous snapshot has not
+     * counted, rolling the previous snapshot forward instead of re-summing the whole ledger.
+     *
+     * @return the number of snapshots written
+     */
+    public int snapshot(LocalDate asOf, long lastEntryId) {
+        Date asOfDate = Date.valueOf(asOf);
+        return jdbcTemplate.update(
+                "INSERT INTO leave_balance_snapshots (user_id, leave_type_id, as_of_date, balance, last_entry_id, created_at) " +
+                        "SELECT l.user_id, l.leave_type_id, ?, COALESCE(s.balance, 0) + SUM(l.days), ?, NOW(6) " +
+                        "FROM leave_balance_ledger l " +
+                        "LEFT JOIN leave_balance_snapshots s ON s.user_id = l.user_id AND s.leave_type_id = l.leave_type_id " +
+                        "AND s.as_of_date = (SELECT MAX(p.as_of_date) FROM leave_balance_snapshots p " +
+                        "WHERE p.user_id = l.user_id AND p.leave_type_id = l.leave_type_id AND p.as_of_date < ?) " +
+                        "WHERE l.id <= ? AND l.effective_date <= ? " +
+                        "AND (s.id IS NULL OR l.id > s.last_entry_id OR l.effective_date > s.as_of_date) " +
+                        "GROUP BY l.user_id, l.leave_type_id, s.balance " +
+                        "ON DUPLICATE KEY UPDATE balance = VALUES(balance), last_entry_id = VALUES(last_entry_id)",
+                asOfDate, lastEntryId, asOfDate, lastEntryId, asOfDate);
+    }
+}
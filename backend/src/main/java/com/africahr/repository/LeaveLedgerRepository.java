@@ -0,0 +1,30 @@
+package com.africahr.repository;
+
+import com.africahr.entity.LeaveLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface LeaveLedgerRepository extends JpaRepository<LeaveLedgerEntry, Long> {
+
+    // Entries effective by asOf that the snapshot (taken at snapshotDate up to lastEntryId) has not counted
+    @Query("select coalesce(sum(e.days), 0) from LeaveLedgerEntry e " +
+            "where e.userId = :userId and e.leaveTypeId = :leaveTypeId and e.effectiveDate <= :asOf " +
+            "and (e.id > :lastEntryId or e.effectiveDate > :snapshotDate)")
+    double sumAfterSnapshot(@Param("userId") Long userId,
+                            @Param("leaveTypeId") Long leaveTypeId,
+                            @Param("asOf") LocalDate asOf,
+                            @Param("snapshotDate") LocalDate snapshotDate,
+                            @Param("lastEntryId") Long lastEntryId);
+
+    @Query("select distinct e.leaveTypeId from LeaveLedgerEntry e where e.userId = :userId")
+    List<Long> findLeaveTypeIdsByUserId(@Param("userId") Long userId);
+
+    @Query("select coalesce(max(e.id), 0) from LeaveLedgerEntry e")
+    Long findMaxId();
+}
@@ -2,8 +2,10 @@ package com.africahr.repository;
 
 import com.africahr.entity.LeavePolicy;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +13,10 @@ public interface LeavePolicyRepository extends JpaRepository<LeavePolicy, Long>
     Optional<Double> findAccrualRateByLeaveType(String leaveType);
     Optional<Double> findMaxCarryoverByLeaveType(String leaveType);
     Optional<LeavePolicy> findByLeaveType(String leaveType);
+
+    @Query("select p.id as policyId, p.leaveType as leaveType, d.id as departmentId, p.accrualRate as accrualRate, " +
+            "p.maxCarryover as maxCarryover, p.maxAnnualLeave as maxAnnualLeave, " +
+            "p.effectiveDate as effectiveDate, p.expiryDate as expiryDate " +
+            "from LeavePolicy p left join p.department d where p.active = true and p.leaveType is not null")
+    List<AccrualPolicyView> findActiveAccrualPolicies();
 }
@@ -2,15 +2,99 @@ package com.africahr.repository;
 
 import com.africahr.entity.Leave;
 import com.africahr.entity.User;
+import com.africahr.enums.LeaveStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface LeaveRepository extends JpaRepository<Leave, Long> {
+public interface LeaveRepository extends JpaRepository<Leave, Long>, JpaSpecificationExecutor<Leave> {
     List<Leave> findByUser_Email(String email);
     List<Leave> findByStatus(String status);
     List<Leave> findByApprover_Email(String email);
     List<Leave> findByUser(User user);
+
+    @EntityGraph(Leave.SUMMARY_GRAPH)
+    Optional<Leave> findWithDetailsById(Long id);
+
+    List<Leave> findByUserIdAndStatusAndStartDateBetween(Long userId, LeaveStatus status,
+                                                         LocalDate from, LocalDate to);
+
+    List<Leave> findByLeaveTypeIdAndStatusAndStartDateBetween(Long leaveTypeId, LeaveStatus status,
+                                                              LocalDate from, LocalDate to);
+
+    @Query("select u.id as userId, u.firstName as firstName, u.lastName as lastName, " +
+            "l.startDate as startDate, l.endDate as endDate " +
+            "from Leave l join l.user u " +
+            "where u.department.id = :departmentId and l.status = :status " +
+            "and l.startDate <= :to and l.endDate >= :from")
+    List<AbsenceInterval> findDepartmentAbsences(@Param("departmentId") Long departmentId,
+                                                 @Param("status") LeaveStatus status,
+                                                 @Param("from") LocalDate from,
+                                                 @Param("to") LocalDate to);
+
+    @Query("select u.id as userId, u.firstName as firstName, u.lastName as lastName, " +
+            "l.startDate as startDate, l.endDate as endDate " +
+            "from Leave l join l.user u join UserHierarchy h on h.descendantId = u.id " +
+            "where h.ancestorId = :managerId and h.depth > 0 and l.status = :status " +
+            "and l.startDate <= :to and l.endDate >= :from")
+    List<AbsenceInterval> findTeamAbsences(@Param("managerId") Long managerId,
+                                           @Param("status") LeaveStatus status,
+                                           @Param("from") LocalDate from,
+                                           @Param("to") LocalDate to);
+
+    @EntityGraph(Leave.SUMMARY_GRAPH)
+    List<Leave> findWithDetailsByIdIn(Collection<Long> ids);
+
+    boolean existsByUserIdAndStatusInAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
+            Long userId, Collection<LeaveStatus> statuses, LocalDate endDate, LocalDate startDate);
+
+    List<Leave> findByUserIdAndStatusInAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
+            Long userId, Collection<LeaveStatus> statuses, LocalDate endDate, LocalDate startDate);
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows one at a time instead of buffering the result set.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("select l from Leave l join fetch l.user join fetch l.leaveType " +
+            "where (:from is null or l.endDate >= :from) and (:to is null or l.startDate <= :to) " +
+            "order by l.id")
+    Stream<Leave> streamForExport(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @EntityGraph(Leave.SUMMARY_GRAPH)
+    @Query("select l from Leave l join UserHierarchy h on h.descendantId = l.user.id " +
+            "where h.ancestorId = :managerId and h.depth > 0 and l.status = :status " +
+            "and l.startDate <= :to and l.endDate >= :from order by l.startDate")
+    List<Leave> findTeamLeaves(@Param("managerId") Long managerId,
+                               @Param("status") LeaveStatus status,
+                               @Param("from") LocalDate from,
+                               @Param("to") LocalDate to);
+
+    @EntityGraph(Leave.SUMMARY_GRAPH)
+    @Query("select l from Leave l where l.status = :status " +
+            "and l.startDate <= :to and l.endDate >= :from order by l.startDate")
+    List<Leave> findLeavesInRange(@Param("status") LeaveStatus status,
+                                  @Param("from") LocalDate from,
+                                  @Param("to") LocalDate to);
+
+    // Status change only from the expected status: of two concurrent decisions on one request, the second
+    // waits on the row lock and then matches no row
+    @Modifying(flushAutomatically = true)
+    @Query("update Leave l set l.status = :to, l.updatedAt = :at where l.id = :id and l.status = :from")
+    int updateStatusIf(@Param("id") Long id,
+                       @Param("from") LeaveStatus from,
+                       @Param("to") LeaveStatus to,
+                       @Param("at") LocalDateTime at);
 }
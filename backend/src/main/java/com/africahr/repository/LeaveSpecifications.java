@@ -0,0 +1,62 @@
+package com.africahr.repository;
+
+import com.africahr.dto.request.LeaveCursor;
+import com.africahr.entity.Leave;
+import com.africahr.entity.UserHierarchy;
+import com.africahr.enums.LeaveStatus;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * Predicates for {@link LeaveRepository} listings. Each one is only added when its filter is present,
+ * so the generated SQL stays a plain conjunction the composite indexes on leave_requests can serve.
+ */
+public final class LeaveSpecifications {
+
+    public static final Sort KEYSET_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    private LeaveSpecifications() {
+    }
+
+    public static Specification<Leave> hasStatus(LeaveStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Leave> hasLeaveType(Long leaveTypeId) {
+        return (root, query, cb) -> cb.equal(root.get("leaveType").get("id"), leaveTypeId);
+    }
+
+    public static Specification<Leave> belongsTo(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Leave> inReportingLineOf(Long managerId) {
+        return (root, query, cb) -> {
+            Subquery<Long> reports = query.subquery(Long.class);
+            Root<UserHierarchy> hierarchy = reports.from(UserHierarchy.class);
+            reports.select(hierarchy.get("descendantId"))
+                    .where(cb.equal(hierarchy.get("ancestorId"), managerId));
+            return root.get("user").get("id").in(reports);
+        };
+    }
+
+    public static Specification<Leave> endsOnOrAfter(LocalDate from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("endDate"), from);
+    }
+
+    public static Specification<Leave> startsOnOrBefore(LocalDate to) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("startDate"), to);
+    }
+
+    public static Specification<Leave> after(LeaveCursor cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), cursor.createdAt()),
+                cb.and(
+                        cb.equal(root.get("createdAt"), cursor.createdAt()),
+                        cb.lessThan(root.get("id"), cursor.id())));
+    }
+}
@@ -1,7 +1,10 @@
 package com.africahr.repository;
 
+import com.africahr.config.CacheConfig;
 import com.africahr.entity.LeaveType;
 import jakarta.validation.constraints.NotBlank;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -11,7 +14,23 @@ import java.util.Optional;
 @Repository
 public interface LeaveTypeRepository extends JpaRepository<LeaveType, Long> {
     List<LeaveType> findByActiveTrue();
+
+    @Cacheable(cacheNames = CacheConfig.LEAVE_TYPES_BY_CODE, unless = "#result == null")
     LeaveType findByCode(String code);
+
+    @Cacheable(cacheNames = CacheConfig.LEAVE_TYPES_BY_NAME, unless = "#result == null")
     Optional<LeaveType> findByName(@NotBlank(message = "Leave type is required") String name);
+
     boolean existsByName(String name);
+
+    // Balance responses carry the leave type name, so they go stale with the type as well
+    @Override
+    @CacheEvict(cacheNames = {CacheConfig.LEAVE_TYPES_BY_NAME, CacheConfig.LEAVE_TYPES_BY_CODE,
+            CacheConfig.LEAVE_BALANCES}, allEntries = true)
+    <S extends LeaveType> S save(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = {CacheConfig.LEAVE_TYPES_BY_NAME, CacheConfig.LEAVE_TYPES_BY_CODE,
+            CacheConfig.LEAVE_BALANCES}, allEntries = true)
+    void delete(LeaveType entity);
 }
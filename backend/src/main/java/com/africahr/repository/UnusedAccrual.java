@@ -0,0 +1,7 @@
+package com.africahr.repository;
+
+public interface UnusedAccrual {
+    Long getId();
+
+    Double getDays();
+}
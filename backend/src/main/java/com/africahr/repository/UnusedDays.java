@@ -0,0 +1,7 @@
+package com.africahr.repository;
+
+public interface UnusedDays {
+    Long getUserId();
+
+    Double getDays();
+}
@@ -0,0 +1,66 @@
+package com.africahr.repository;
+
+import com.africahr.entity.UserHierarchy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Set;
+
+@Repository
+public interface UserHierarchyRepository extends JpaRepository<UserHierarchy, UserHierarchy.Key> {
+    boolean existsByAncestorIdAndDescendantIdAndDepthGreaterThan(Long ancestorId, Long descendantId, int depth);
+
+    boolean existsByAncestorIdAndDescendantId(Long ancestorId, Long descendantId);
+
+    @Query("select h.descendantId from UserHierarchy h " +
+            "where h.ancestorId = :managerId and h.depth > 0 and h.descendantId in :userIds")
+    Set<Long> findReportIds(@Param("managerId") Long managerId, @Param("userIds") Collection<Long> userIds);
+
+    // Users registered without their closure rows, e.g. by a failed registration before it was transactional
+    @Query("select count(u) from User u where not exists " +
+            "(select h from UserHierarchy h where h.ancestorId = u.id and h.descendantId = u.id)")
+    long countUsersWithoutSelfRow();
+
+    @Modifying
+    @Query(value = "INSERT INTO user_hierarchy (ancestor_id, descendant_id, depth) VALUES (:userId, :userId, 0)",
+            nativeQuery = true)
+    void insertSelf(@Param("userId") Long userId);
+
+    // Removes every path that enters the subtree rooted at userId from above it.
+    @Modifying
+    @Query(value = "DELETE h FROM user_hierarchy h " +
+            "JOIN user_hierarchy sub ON sub.descendant_id = h.descendant_id " +
+            "JOIN user_hierarchy sup ON sup.ancestor_id = h.ancestor_id " +
+            "WHERE sub.ancestor_id = :userId AND sup.descendant_id = :userId AND sup.depth > 0",
+            nativeQuery = true)
+    int detachSubtree(@Param("userId") Long userId);
+
+    // Links every ancestor of managerId (itself included) to every member of the subtree rooted at userId.
+    @Modifying
+    @Query(value = "INSERT INTO user_hierarchy (ancestor_id, descendant_id, depth) " +
+            "SELECT sup.ancestor_id, sub.descendant_id, sup.depth + sub.depth + 1 " +
+            "FROM user_hierarchy sup JOIN user_hierarchy sub " +
+            "WHERE sup.descendant_id = :managerId AND sub.ancestor_id = :userId",
+            nativeQuery = true)
+    int attachSubtree(@Param("userId") Long userId, @Param("managerId") Long managerId);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_hierarchy", nativeQuery = true)
+    void deleteAllRows();
+
+    @Modifying
+    @Query(value = "INSERT INTO user_hierarchy (ancestor_id, descendant_id, depth) " +
+            "WITH RECURSIVE chain (ancestor_id, descendant_id, depth) AS (" +
+            "  SELECT id, id, 0 FROM users" +
+            "  UNION ALL" +
+            "  SELECT u.manager_id, c.descendant_id, c.depth + 1 FROM chain c" +
+            "  JOIN users u ON u.id = c.ancestor_id" +
+            "  WHERE u.manager_id IS NOT NULL AND c.depth < :maxDepth" +
+            ") SELECT ancestor_id, descendant_id, MIN(depth) FROM chain GROUP BY ancestor_id, descendant_id",
+            nativeQuery = true)
+    int rebuildFromManagers(@Param("maxDepth") int maxDepth);
+}
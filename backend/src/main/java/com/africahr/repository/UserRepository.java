@@ -1,7 +1,13 @@
 package com.africahr.repository;
 
 import com.africahr.entity.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,7 +16,40 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    @EntityGraph(attributePaths = "manager")
+    Optional<User> findWithManagerByEmail(String email);
     boolean existsByEmail(String email);
+
+    // Serializes a user's leave submissions, so an overlap check and the insert it allows cannot interleave
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.id = :id")
+    Optional<User> lockById(@Param("id") Long id);
+
+    @Query("select u.id as id, u.email as email, u.role as role, d.id as departmentId, u.active as active " +
+            "from User u left join u.department d where u.email = :email")
+    Optional<UserState> findStateByEmail(@Param("email") String email);
+
     Optional<User> findByTwoFactorSecret(String secret);
     List<User> findByActiveTrue();
+
+    // Keyset page for batch jobs within (afterId, upperId], served by idx_users_active
+    @Query("select u.id as id, u.email as email, d.id as departmentId from User u left join u.department d " +
+            "where u.active = true and u.id > :afterId and u.id <= :upperId order by u.id asc")
+    List<AccrualUser> findAccrualPage(@Param("afterId") Long afterId, @Param("upperId") Long upperId, Limit limit);
+
+    // Keyset page over every user, active or not
+    @Query("select u.id as id, u.email as email, d.id as departmentId from User u left join u.department d " +
+            "where u.id > :afterId order by u.id asc")
+    List<AccrualUser> findUserPage(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("select min(u.id) as minId, max(u.id) as maxId from User u where u.active = true")
+    IdRange findActiveIdRange();
+
+    // Active users in (afterId, upperId] per department; the accrual rate depends on the department
+    @Query("select d.id as departmentId, count(u) as users from User u left join u.department d " +
+            "where u.active = true and u.id > :afterId and u.id <= :upperId group by d.id")
+    List<DepartmentCount> countActiveByDepartment(@Param("afterId") Long afterId, @Param("upperId") Long upperId);
+
+    long countByActiveTrue();
 } 
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.africahr.repository;
+
+import com.africahr.enums.Role;
+
+/**
+ * What request handling needs to know about a user beyond the token claims.
+ */
+public interface UserState {
+    Long getId();
+
+    String getEmail();
+
+    Role getRole();
+
+    Long getDepartmentId();
+
+    boolean isActive();
+}
@@ -0,0 +1,29 @@
+package com.africahr.security;
+
+import com.africahr.enums.Role;
+import com.africahr.repository.UserState;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * The caller of a request, built from the verified JWT claims without a database lookup. Its name is
+ * the login email, so {@code Authentication.getName()} keeps returning the email.
+ */
+public record AuthenticatedUser(Long id, String email, Role role) implements Principal {
+
+    public static AuthenticatedUser of(UserState state) {
+        return new AuthenticatedUser(state.getId(), state.getEmail(), state.getRole());
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+}
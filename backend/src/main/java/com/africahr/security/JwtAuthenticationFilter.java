@@ -1,6 +1,10 @@
 package com.africahr.security;
 
+import com.africahr.repository.UserState;
+import com.africahr.service.CurrentUserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,8 +16,6 @@ import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -21,6 +23,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @Slf4j
 @Component
@@ -28,7 +31,7 @@ import java.util.Map;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final CurrentUserService currentUserService;
     private final ObjectMapper objectMapper;
 
     @Override
@@ -49,30 +52,45 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
 
             jwt = authHeader.substring(7);
-            userEmail = jwtService.extractUsername(jwt);
-            log.debug("Extracted email from JWT: {}", userEmail);
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                Claims claims;
+                try {
+                    claims = jwtService.parseClaims(jwt);
+                } catch (JwtException e) {
+                    log.warn("Rejected JWT token: {}", e.getMessage());
+                    sendErrorResponse(response, "Invalid token", HttpStatus.UNAUTHORIZED);
+                    return;
+                }
+                userEmail = claims.getSubject();
+                log.debug("Extracted email from JWT: {}", userEmail);
 
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-                log.debug("Loaded user details for: {}", userEmail);
-                
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    log.debug("JWT token is valid for user: {}", userEmail);
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
-                    );
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                    log.debug("Set authentication in SecurityContext for user: {}", userEmail);
-                } else {
+                // Role and active flag are read from the cached user state rather than trusted from the
+                // token, so a demoted or disabled user loses access within leave.cache.user-state-ttl
+                Optional<UserState> state = currentUserService.findState(userEmail);
+                if (state.isEmpty() || !state.get().isActive()) {
+                    log.warn("JWT token is for an unknown or inactive user: {}", userEmail);
+                    sendErrorResponse(response, "Invalid token", HttpStatus.UNAUTHORIZED);
+                    return;
+                }
+                // Tokens issued before the id and role claims have no id to compare
+                Optional<AuthenticatedUser> claimed = jwtService.extractPrincipal(claims);
+                if (claimed.isPresent() && !claimed.get().id().equals(state.get().getId())) {
                     log.warn("JWT token is invalid for user: {}", userEmail);
                     sendErrorResponse(response, "Invalid token", HttpStatus.UNAUTHORIZED);
                     return;
                 }
+                AuthenticatedUser principal = AuthenticatedUser.of(state.get());
+
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    principal,
+                    null,
+                    principal.getAuthorities()
+                );
+                authToken.setDetails(
+                    new WebAuthenticationDetailsSource().buildDetails(request)
+                );
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                log.debug("Set authentication in SecurityContext for user: {}", userEmail);
             }
             filterChain.doFilter(request, response);
         } catch (Exception e) {
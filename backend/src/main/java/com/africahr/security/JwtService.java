@@ -1,5 +1,7 @@
 package com.africahr.security;
 
+import com.africahr.entity.User;
+import com.africahr.enums.Role;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -13,10 +15,13 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLE_CLAIM = "role";
 
     @Value("${spring.security.jwt.secret}")
     private String SECRET_KEY;
@@ -33,8 +38,14 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
+    // Users get their id and role as claims, so requests can be authenticated from the token alone
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user) {
+            claims.put(USER_ID_CLAIM, user.getId());
+            claims.put(ROLE_CLAIM, user.getRole().name());
+        }
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
@@ -52,6 +63,28 @@ public class JwtService {
         return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
     }
 
+    /**
+     * Verifies the signature and expiry of {@code token} and returns its claims.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
+    }
+
+    /**
+     * The principal carried by verified claims, or empty for tokens issued before they held the user
+     * id and role.
+     */
+    public Optional<AuthenticatedUser> extractPrincipal(Claims claims) {
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (userId == null || role == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new AuthenticatedUser(userId.longValue(), claims.getSubject(), Role.valueOf(role)));
+    }
+
     private boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
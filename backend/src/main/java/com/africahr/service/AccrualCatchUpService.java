@@ -0,0 +1,293 @@
+package com.africahr.service;
+
+import com.africahr.entity.AccrualRun;
+import com.africahr.entity.JobCheckpoint;
+import com.africahr.entity.LeaveAccrual;
+import com.africahr.entity.LeaveBalance;
+import com.africahr.entity.LeaveLedgerEntry;
+import com.africahr.repository.AccruedPeriod;
+import com.africahr.repository.JobCheckpointRepository;
+import com.africahr.repository.LaggingBalance;
+import com.africahr.repository.LeaveAccrualJdbcRepository;
+import com.africahr.repository.LeaveAccrualJdbcRepository.NewAccrual;
+import com.africahr.repository.LeaveAccrualRepository;
+import com.africahr.repository.LeaveBalanceJdbcRepository;
+import com.africahr.repository.LeaveBalanceJdbcRepository.Carryover;
+import com.africahr.repository.LeaveBalanceRepository;
+import com.africahr.service.AccrualChunkProcessor.ChunkResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Back-fills accrual months missed while the monthly job was not running. Rather than replaying the
+ * job once per month, it pages once through the balances whose {@code lastAccrualDate} is behind and
+ * writes every missing month of a page, including any January carryover, in one transaction of
+ * batch statements. Months already accrued are skipped, and progress is checkpointed like the
+ * monthly job.
+ */
+@Service
+public class AccrualCatchUpService {
+    private static final Logger logger = LoggerFactory.getLogger(AccrualCatchUpService.class);
+    static final String CATCH_UP_JOB = "accrual-catch-up";
+    private static final String ENGINE = "CATCH_UP";
+
+    private final LeaveBalanceRepository leaveBalanceRepository;
+    private final LeaveAccrualRepository leaveAccrualRepository;
+    private final LeaveAccrualJdbcRepository leaveAccrualJdbcRepository;
+    private final LeaveBalanceJdbcRepository leaveBalanceJdbcRepository;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final JobCheckpointService jobCheckpointService;
+    private final AccrualRunService accrualRunService;
+    private final LeaveLedgerService leaveLedgerService;
+    private final LeaveCacheService leaveCacheService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxMonths;
+
+    public AccrualCatchUpService(LeaveBalanceRepository leaveBalanceRepository,
+                                 LeaveAccrualRepository leaveAccrualRepository,
+                                 LeaveAccrualJdbcRepository leaveAccrualJdbcRepository,
+                                 LeaveBalanceJdbcRepository leaveBalanceJdbcRepository,
+                                 JobCheckpointRepository jobCheckpointRepository,
+                                 JobCheckpointService jobCheckpointService,
+                                 AccrualRunService accrualRunService,
+                                 LeaveLedgerService leaveLedgerService,
+                                 LeaveCacheService leaveCacheService,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${leave.accrual.chunk-size:500}") int chunkSize,
+                                 @Value("${leave.accrual.catch-up.max-months:12}") int maxMonths) {
+        this.leaveBalanceRepository = leaveBalanceRepository;
+        this.leaveAccrualRepository = leaveAccrualRepository;
+        this.leaveAccrualJdbcRepository = leaveAccrualJdbcRepository;
+        this.leaveBalanceJdbcRepository = leaveBalanceJdbcRepository;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.jobCheckpointService = jobCheckpointService;
+        this.accrualRunService = accrualRunService;
+        this.leaveLedgerService = leaveLedgerService;
+        this.leaveCacheService = leaveCacheService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxMonths = maxMonths;
+    }
+
+    /**
+     * The first month before {@code currentPeriod} that some active user's balance has not accrued,
+     * or null when every balance is up to date. The current month is the monthly job's business.
+     */
+    public LocalDate findFirstMissedPeriod(Long leaveTypeId, LocalDate currentPeriod) {
+        LocalDate oldest = leaveBalanceRepository.findOldestAccrualDate(leaveTypeId);
+        if (oldest == null) {
+            return null;
+        }
+        LocalDate next = oldest.withDayOfMonth(1).plusMonths(1);
+        LocalDate earliest = currentPeriod.minusMonths(maxMonths);
+        LocalDate first = next.isBefore(earliest) ? earliest : next;
+        return first.isBefore(currentPeriod) ? first : null;
+    }
+
+    /**
+     * Accrues every month from each lagging balance's last accrual up to, not including,
+     * {@code currentPeriod}, going back at most {@code leave.accrual.catch-up.max-months}.
+     */
+    public void catchUp(AccrualPolicyTable.LeaveTypeRules rules, LocalDate currentPeriod) {
+        String jobName = CATCH_UP_JOB + "/" + rules.code();
+        Long leaveTypeId = rules.leaveTypeId();
+        AccrualRun record = accrualRunService.start(jobName, currentPeriod, leaveTypeId, ENGINE);
+        try {
+            JobCheckpoint checkpoint = jobCheckpointService.startOrResume(jobName, currentPeriod);
+            if (checkpoint.getStatus() == JobCheckpoint.Status.COMPLETED) {
+                logger.info("{} for {} already completed", jobName, currentPeriod);
+                accrualRunService.finish(record.getId(), AccrualRun.Status.SKIPPED, ChunkResult.EMPTY, null);
+                return;
+            }
+
+            long start = System.nanoTime();
+            LocalDate lastPeriod = currentPeriod.minusMonths(1);
+            long lastUserId = checkpoint.getLastUserId();
+            ChunkResult total = ChunkResult.EMPTY;
+            List<LaggingBalance> page;
+            do {
+                page = leaveBalanceRepository.findLagging(leaveTypeId, lastPeriod, lastUserId, Limit.of(chunkSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                List<LaggingBalance> balances = page;
+                total = total.plus(transactionTemplate.execute(status -> process(
+                        checkpoint.getId(), balances, rules, currentPeriod)));
+                lastUserId = page.get(page.size() - 1).getUserId();
+            } while (page.size() == chunkSize);
+
+            jobCheckpointService.complete(checkpoint.getId());
+            accrualRunService.finish(record.getId(), AccrualRun.Status.COMPLETED, total, null);
+            logger.info("{} up to {}: {} users, {} accruals written in {} ms", jobName, lastPeriod,
+                    total.users(), total.accruals(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            accrualRunService.finish(record.getId(), AccrualRun.Status.FAILED, ChunkResult.EMPTY, e.toString());
+            throw e;
+        }
+    }
+
+    private ChunkResult process(Long checkpointId, List<LaggingBalance> page,
+                                AccrualPolicyTable.LeaveTypeRules rules, LocalDate currentPeriod) {
+        Long leaveTypeId = rules.leaveTypeId();
+        LocalDate earliest = currentPeriod.minusMonths(maxMonths);
+
+        // A user with several balances of the type is credited on the first one, as the monthly job does
+        Map<Long, LaggingBalance> byUser = new LinkedHashMap<>();
+        LocalDate from = currentPeriod;
+        for (LaggingBalance balance : page) {
+            if (byUser.putIfAbsent(balance.getUserId(), balance) == null) {
+                LocalDate first = firstMissing(balance, earliest);
+                from = first.isBefore(from) ? first : from;
+            }
+        }
+
+        Set<String> accrued = new HashSet<>();
+        for (AccruedPeriod existing : leaveAccrualRepository.findAccruedPeriods(byUser.keySet(), leaveTypeId, from)) {
+            accrued.add(key(existing.getUserId(), existing.getKind(), existing.getPeriod()));
+        }
+
+        // Januaries whose stored carryover sources are expired already, and the balances the carryover reads
+        Set<LocalDate> expiredJanuaries = new HashSet<>();
+        LocalDate firstJanuary = from.getMonth() == Month.JANUARY ? from : from.withDayOfYear(1).plusYears(1);
+        Map<Long, LeaveBalance> locked = new HashMap<>();
+        if (firstJanuary.isBefore(currentPeriod)) {
+            for (LeaveBalance balance : leaveBalanceRepository.lockByUserIdsAndLeaveTypeIds(
+                    byUser.keySet(), List.of(leaveTypeId))) {
+                locked.put(balance.getId(), balance);
+            }
+        }
+        List<NewAccrual> accruals = new ArrayList<>();
+        List<LeaveLedgerEntry> entries = new ArrayList<>();
+        Map<Long, Double> balanceDays = new LinkedHashMap<>();
+        List<Carryover> carryovers = new ArrayList<>();
+
+        for (LaggingBalance balance : byUser.values()) {
+            Long userId = balance.getUserId();
+            LeaveBalance current = locked.get(balance.getBalanceId());
+            List<NewAccrual> written = new ArrayList<>();
+            double days = 0;
+            double forfeited = 0;
+            Carryover carryover = null;
+
+            for (LocalDate period = firstMissing(balance, earliest); period.isBefore(currentPeriod);
+                 period = period.plusMonths(1)) {
+                AccrualPolicyTable.Rule rule = rules.resolve(balance.getDepartmentId(), period);
+                if (period.getMonth() == Month.JANUARY && current != null
+                        && !carriedOver(balance, current, accrued, period)) {
+                    expireSources(expiredJanuaries, byUser.values(), locked, accrued, earliest, leaveTypeId, period);
+                    expireWritten(written, period);
+                    // Split as CarryoverFolder does, on the balance as of this January: the stored days plus
+                    // the months this pass credited before it
+                    CarryoverFolder.Split split = CarryoverFolder.split(
+                            current.getAvailableDays() + days - forfeited, rule.maxCarryover());
+                    if (split.carried() > 0) {
+                        written.add(new NewAccrual(userId, leaveTypeId, split.carried(), period,
+                                period.plusDays(31), LeaveAccrual.AccrualStatus.CARRIED_OVER,
+                                LeaveAccrual.AccrualKind.CARRYOVER, period));
+                    }
+                    if (split.forfeited() > 0) {
+                        entries.add(LeaveLedgerService.entry(userId, leaveTypeId, LeaveLedgerEntry.EntryType.EXPIRY,
+                                -split.forfeited(), null, "Forfeited at year end"));
+                        forfeited += split.forfeited();
+                    }
+                    carryover = new Carryover(balance.getBalanceId(), period, forfeited, split.carried());
+                }
+                double monthlyDays = rule.monthlyDays();
+                if (monthlyDays > 0 && !accrued.contains(key(userId, LeaveAccrual.AccrualKind.MONTHLY, period))) {
+                    written.add(new NewAccrual(userId, leaveTypeId, monthlyDays, period, period.plusYears(1),
+                            LeaveAccrual.AccrualStatus.ACTIVE, LeaveAccrual.AccrualKind.MONTHLY, period));
+                    entries.add(LeaveLedgerService.entry(userId, leaveTypeId, LeaveLedgerEntry.EntryType.ACCRUAL,
+                            monthlyDays, null, "Monthly accrual (catch-up " + YearMonth.from(period) + ")"));
+                    days += monthlyDays;
+                }
+            }
+
+            accruals.addAll(written);
+            // Zero days still moves lastAccrualDate forward, so the balance is not picked up again
+            balanceDays.put(balance.getBalanceId(), days);
+            if (carryover != null) {
+                carryovers.add(carryover);
+            }
+        }
+
+        leaveAccrualJdbcRepository.insertAll(accruals);
+        leaveBalanceJdbcRepository.applyCarryovers(carryovers);
+        leaveBalanceJdbcRepository.addAccruals(balanceDays, currentPeriod.minusMonths(1));
+        leaveLedgerService.recordAll(entries);
+        jobCheckpointRepository.advance(checkpointId, page.get(page.size() - 1).getUserId(), byUser.size(),
+                LocalDateTime.now());
+        leaveCacheService.evictBalances(byUser.values().stream().map(LaggingBalance::getEmail).toList());
+        return new ChunkResult(byUser.size(), accruals.size());
+    }
+
+    private static LocalDate firstMissing(LaggingBalance balance, LocalDate earliest) {
+        LocalDate next = balance.getLastAccrualDate().withDayOfMonth(1).plusMonths(1);
+        return next.isBefore(earliest) ? earliest : next;
+    }
+
+    // Carried over for the January already, by the monthly job, the year-end close or an earlier catch-up
+    private static boolean carriedOver(LaggingBalance balance, LeaveBalance current, Set<String> accrued,
+                                       LocalDate january) {
+        return accrued.contains(key(balance.getUserId(), LeaveAccrual.AccrualKind.CARRYOVER, january))
+                || current.getLastCarryoverDate() != null && !current.getLastCarryoverDate().isBefore(january);
+    }
+
+    /**
+     * Marks EXPIRED, on first use of {@code january}, the stored carryover sources of the page's users
+     * whose catch-up folds it; the carryover replaces them.
+     */
+    private void expireSources(Set<LocalDate> expiredJanuaries, Collection<LaggingBalance> balances,
+                               Map<Long, LeaveBalance> locked, Set<String> accrued, LocalDate earliest,
+                               Long leaveTypeId, LocalDate january) {
+        if (!expiredJanuaries.add(january)) {
+            return;
+        }
+        Set<Long> userIds = new HashSet<>();
+        for (LaggingBalance balance : balances) {
+            LeaveBalance current = locked.get(balance.getBalanceId());
+            if (current != null && !firstMissing(balance, earliest).isAfter(january)
+                    && !carriedOver(balance, current, accrued, january)) {
+                userIds.add(balance.getUserId());
+            }
+        }
+        if (!userIds.isEmpty()) {
+            leaveAccrualJdbcRepository.markExpired(leaveAccrualRepository.findCarryoverSourceIds(
+                    userIds, leaveTypeId, LeaveAccrual.AccrualStatus.ACTIVE, january),
+                    LeaveAccrual.AccrualStatus.ACTIVE);
+        }
+    }
+
+    // Marks the monthly accruals written earlier in this pass that the January folds
+    private static void expireWritten(List<NewAccrual> written, LocalDate january) {
+        for (int i = 0; i < written.size(); i++) {
+            NewAccrual accrual = written.get(i);
+            if (accrual.status() == LeaveAccrual.AccrualStatus.ACTIVE && accrual.period().isBefore(january)
+                    && !accrual.expiryDate().isBefore(january)) {
+                written.set(i, accrual.withStatus(LeaveAccrual.AccrualStatus.EXPIRED));
+            }
+        }
+    }
+
+    private static String key(Long userId, LeaveAccrual.AccrualKind kind, LocalDate period) {
+        return userId + ":" + kind + ":" + period;
+    }
+}
@@ -0,0 +1,154 @@
+package com.africahr.service;
+
+import com.africahr.entity.LeaveAccrual;
+import com.africahr.entity.LeaveBalance;
+import com.africahr.entity.LeaveLedgerEntry;
+import com.africahr.repository.AccrualUser;
+import com.africahr.repository.JobCheckpointRepository;
+import com.africahr.repository.LeaveAccrualJdbcRepository;
+import com.africahr.repository.LeaveAccrualJdbcRepository.NewAccrual;
+import com.africahr.repository.LeaveAccrualRepository;
+import com.africahr.repository.LeaveBalanceJdbcRepository;
+import com.africahr.repository.LeaveBalanceRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Accrues one page of users in its own transaction: a couple of reads for the whole page, then batch
+ * inserts and updates. The job checkpoint advances in the same transaction, so a page is either fully
+ * applied and recorded or not at all. Users already accrued for the period, by an earlier or concurrent
+ * run, are looked up on the accrual key and skipped.
+ */
+@Component
+public class AccrualChunkProcessor {
+
+    /**
+     * One accrual run of a leave type for the month starting at {@code period}, with the rules
+     * compiled for the run.
+     */
+    public record AccrualSpec(Long checkpointId, LocalDate period, AccrualPolicyTable.LeaveTypeRules rules) {
+        public Long leaveTypeId() {
+            return rules.leaveTypeId();
+        }
+    }
+
+    /**
+     * Users read and accrual rows written (monthly and carryover) by one page or run.
+     */
+    public record ChunkResult(long users, long accruals) {
+        public static final ChunkResult EMPTY = new ChunkResult(0, 0);
+
+        public ChunkResult plus(ChunkResult other) {
+            return new ChunkResult(users + other.users, accruals + other.accruals);
+        }
+    }
+
+    private final LeaveBalanceRepository leaveBalanceRepository;
+    private final LeaveAccrualRepository leaveAccrualRepository;
+    private final LeaveBalanceJdbcRepository leaveBalanceJdbcRepository;
+    private final LeaveAccrualJdbcRepository leaveAccrualJdbcRepository;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final LeaveLedgerService leaveLedgerService;
+    private final LeaveCacheService leaveCacheService;
+    private final CarryoverFolder carryoverFolder;
+    private final TransactionTemplate transactionTemplate;
+
+    public AccrualChunkProcessor(LeaveBalanceRepository leaveBalanceRepository,
+                                 LeaveAccrualRepository leaveAccrualRepository,
+                                 LeaveBalanceJdbcRepository leaveBalanceJdbcRepository,
+                                 LeaveAccrualJdbcRepository leaveAccrualJdbcRepository,
+                                 JobCheckpointRepository jobCheckpointRepository,
+                                 LeaveLedgerService leaveLedgerService,
+                                 LeaveCacheService leaveCacheService,
+                                 CarryoverFolder carryoverFolder,
+                                 PlatformTransactionManager transactionManager) {
+        this.leaveBalanceRepository = leaveBalanceRepository;
+        this.leaveAccrualRepository = leaveAccrualRepository;
+        this.leaveBalanceJdbcRepository = leaveBalanceJdbcRepository;
+        this.leaveAccrualJdbcRepository = leaveAccrualJdbcRepository;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.leaveLedgerService = leaveLedgerService;
+        this.leaveCacheService = leaveCacheService;
+        this.carryoverFolder = carryoverFolder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public ChunkResult process(AccrualSpec run, List<AccrualUser> users) {
+        if (users.isEmpty()) {
+            return ChunkResult.EMPTY;
+        }
+        Long lastUserId = users.get(users.size() - 1).getId();
+
+        return transactionTemplate.execute(status -> {
+            Set<Long> userIds = users.stream().map(AccrualUser::getId).collect(Collectors.toSet());
+            Map<Long, Long> departments = new HashMap<>();
+            for (AccrualUser user : users) {
+                departments.put(user.getId(), user.getDepartmentId());
+            }
+            // January carries over the available days, so those balances are read under lock
+            boolean january = run.period().getMonth() == Month.JANUARY;
+            Map<Long, LeaveBalance> balances = new HashMap<>();
+            for (LeaveBalance balance : january
+                    ? leaveBalanceRepository.lockByUserIdsAndLeaveTypeIds(userIds, List.of(run.leaveTypeId()))
+                    : leaveBalanceRepository.findByUserIdsAndLeaveTypeIds(userIds, List.of(run.leaveTypeId()))) {
+                balances.putIfAbsent(balance.getUser().getId(), balance);
+            }
+
+            List<NewAccrual> accruals = new ArrayList<>();
+            List<LeaveLedgerEntry> entries = new ArrayList<>();
+            Map<Long, Double> balanceDays = new LinkedHashMap<>();
+            Map<Long, Double> newBalances = new LinkedHashMap<>();
+            List<LeaveBalanceJdbcRepository.Carryover> carryovers = List.of();
+
+            if (january) {
+                CarryoverFolder.Fold fold = carryoverFolder.fold(run.rules(), run.period(), balances, departments);
+                accruals.addAll(fold.carryovers());
+                entries.addAll(fold.entries());
+                carryovers = fold.balances();
+            }
+
+            Set<Long> accrued = new HashSet<>(leaveAccrualRepository.findAccruedUserIds(
+                    userIds, run.leaveTypeId(), LeaveAccrual.AccrualKind.MONTHLY, run.period()));
+            for (AccrualUser user : users) {
+                double days = run.rules().resolve(user.getDepartmentId(), run.period()).monthlyDays();
+                if (days <= 0 || accrued.contains(user.getId())) {
+                    continue;
+                }
+                accruals.add(new NewAccrual(user.getId(), run.leaveTypeId(), days, run.period(),
+                        run.period().plusYears(1), LeaveAccrual.AccrualStatus.ACTIVE,
+                        LeaveAccrual.AccrualKind.MONTHLY, run.period()));
+                entries.add(LeaveLedgerService.entry(user.getId(), run.leaveTypeId(),
+                        LeaveLedgerEntry.EntryType.ACCRUAL, days, null, "Monthly accrual"));
+
+                LeaveBalance balance = balances.get(user.getId());
+                if (balance != null) {
+                    balanceDays.merge(balance.getId(), days, Double::sum);
+                } else {
+                    newBalances.put(user.getId(), days);
+                }
+            }
+
+            leaveAccrualJdbcRepository.insertAll(accruals);
+            leaveBalanceJdbcRepository.applyCarryovers(carryovers);
+            leaveBalanceJdbcRepository.addAccruals(balanceDays, run.period());
+            leaveBalanceJdbcRepository.insertAccrued(newBalances, run.leaveTypeId(), run.period());
+            leaveLedgerService.recordAll(entries);
+            jobCheckpointRepository.advance(run.checkpointId(), lastUserId, users.size(), LocalDateTime.now());
+            leaveCacheService.evictBalances(users.stream().map(AccrualUser::getEmail).collect(Collectors.toList()));
+            return new ChunkResult(users.size(), accruals.size());
+        });
+    }
+}
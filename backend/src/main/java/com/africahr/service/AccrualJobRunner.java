@@ -0,0 +1,294 @@
+package com.africahr.service;
+
+import com.africahr.entity.AccrualRun;
+import com.africahr.entity.JobCheckpoint;
+import com.africahr.entity.LeaveAccrual;
+import com.africahr.repository.AccrualUser;
+import com.africahr.repository.DepartmentCount;
+import com.africahr.repository.IdRange;
+import com.africahr.repository.LeaveAccrualRepository;
+import com.africahr.repository.UserRepository;
+import com.africahr.service.AccrualChunkProcessor.ChunkResult;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Drives an accrual run through {@link AccrualChunkProcessor}. With {@code leave.accrual.partitions} above
+ * one, active users are split into id ranges that run concurrently, each with its own checkpoint,
+ * transactions and connection. Concurrency is capped below the connection pool size so request
+ * threads still get connections while the run is in progress.
+ * <p>
+ * {@code leave.accrual.engine=set} runs flat-rate accruals through {@link SetBasedAccrualEngine} instead.
+ * <p>
+ * Every invocation is recorded in {@code accrual_runs}. A period whose checkpoint is complete is skipped
+ * outright, and both engines skip users that already have the period's accrual, so a second trigger
+ * never accrues anyone twice.
+ */
+@Service
+public class AccrualJobRunner {
+    private static final Logger logger = LoggerFactory.getLogger(AccrualJobRunner.class);
+    private static final int RESERVED_CONNECTIONS = 2;
+
+    public enum Engine {
+        ROW,
+        SET
+    }
+
+    private final UserRepository userRepository;
+    private final LeaveAccrualRepository leaveAccrualRepository;
+    private final AccrualChunkProcessor accrualChunkProcessor;
+    private final JobCheckpointService jobCheckpointService;
+    private final SetBasedAccrualEngine setBasedAccrualEngine;
+    private final AccrualRunService accrualRunService;
+    private final DataSource dataSource;
+    private final int chunkSize;
+    private final int partitions;
+    private final Engine engine;
+
+    public AccrualJobRunner(UserRepository userRepository,
+                            LeaveAccrualRepository leaveAccrualRepository,
+                            AccrualChunkProcessor accrualChunkProcessor,
+                            JobCheckpointService jobCheckpointService,
+                            SetBasedAccrualEngine setBasedAccrualEngine,
+                            AccrualRunService accrualRunService,
+                            DataSource dataSource,
+                            @Value("${leave.accrual.chunk-size:500}") int chunkSize,
+                            @Value("${leave.accrual.partitions:1}") int partitions,
+                            @Value("${leave.accrual.engine:row}") String engine) {
+        this.userRepository = userRepository;
+        this.leaveAccrualRepository = leaveAccrualRepository;
+        this.accrualChunkProcessor = accrualChunkProcessor;
+        this.jobCheckpointService = jobCheckpointService;
+        this.setBasedAccrualEngine = setBasedAccrualEngine;
+        this.accrualRunService = accrualRunService;
+        this.dataSource = dataSource;
+        this.chunkSize = chunkSize;
+        this.partitions = partitions;
+        this.engine = Engine.valueOf(engine.toUpperCase(Locale.ROOT));
+    }
+
+    public void run(String jobName, LocalDate period, AccrualPolicyTable.LeaveTypeRules rules) {
+        run(jobName, period, rules, engine);
+    }
+
+    public void run(String jobName, LocalDate period, AccrualPolicyTable.LeaveTypeRules rules, Engine engine) {
+        AccrualRun record = accrualRunService.start(jobName, period, rules.leaveTypeId(), engine.name());
+        Outcome outcome;
+        try {
+            outcome = execute(jobName, period, rules, engine);
+        } catch (RuntimeException e) {
+            accrualRunService.finish(record.getId(), AccrualRun.Status.FAILED, ChunkResult.EMPTY, e.toString());
+            throw e;
+        }
+        accrualRunService.finish(record.getId(), outcome.status(), outcome.result(), outcome.error());
+    }
+
+    private record Outcome(AccrualRun.Status status, ChunkResult result, String error) {
+        Outcome(AccrualRun.Status status, ChunkResult result) {
+            this(status, result, null);
+        }
+    }
+
+    private Outcome execute(String jobName, LocalDate period, AccrualPolicyTable.LeaveTypeRules rules,
+                            Engine engine) {
+        JobCheckpoint checkpoint = jobCheckpointService.startOrResume(jobName, period);
+        if (checkpoint.getStatus() == JobCheckpoint.Status.COMPLETED) {
+            logger.info("{} for {} already completed", jobName, period);
+            return new Outcome(AccrualRun.Status.SKIPPED, ChunkResult.EMPTY);
+        }
+
+        // The set-based engine is all-or-nothing, so it only takes runs the row engine has not started.
+        // It applies one rate to everyone, so leave types with policies go through the row engine.
+        if (engine == Engine.SET && !rules.isFlat()) {
+            logger.info("{}: {} has accrual policies; using the row engine", jobName, rules.code());
+        } else if (engine == Engine.SET && checkpoint.getLastUserId() == 0
+                && !jobCheckpointService.hasPartitions(jobName, period)) {
+            ChunkResult result = setBasedAccrualEngine.run(
+                    new AccrualChunkProcessor.AccrualSpec(checkpoint.getId(), period, rules));
+            return new Outcome(AccrualRun.Status.COMPLETED, result);
+        }
+
+        // A run keeps the mode it started in, whatever the configuration says on resume
+        boolean partitioned = jobCheckpointService.hasPartitions(jobName, period)
+                || (partitions > 1 && checkpoint.getLastUserId() == 0);
+
+        long runStart = System.nanoTime();
+        ChunkResult result;
+        String differences = null;
+        if (!partitioned) {
+            if (checkpoint.getLastUserId() > 0) {
+                logger.info("Resuming {} for {} after user {} ({} users done)",
+                        jobName, period, checkpoint.getLastUserId(), checkpoint.getProcessedCount());
+            }
+            AccrualChunkProcessor.AccrualSpec run = new AccrualChunkProcessor.AccrualSpec(
+                    checkpoint.getId(), period, rules);
+            result = runRange(jobName, run, checkpoint.getLastUserId(), Long.MAX_VALUE);
+        } else {
+            AtomicReference<ChunkResult> total = new AtomicReference<>(ChunkResult.EMPTY);
+            List<JobCheckpoint> checkpoints = runPartitions(jobName, period, rules, total);
+            if (checkpoints == null) {
+                logger.error("{} for {} left unfinished partitions; the next run resumes them", jobName, period);
+                return new Outcome(AccrualRun.Status.INCOMPLETE, total.get());
+            }
+            result = total.get();
+            differences = reconcile(jobName, period, rules, checkpoints);
+        }
+
+        // The rows written stand either way; a difference is left for an admin to look into, not re-run
+        jobCheckpointService.complete(checkpoint.getId());
+        logger.info("{} for {} completed in {} ms: {} users, {} accruals written", jobName, period,
+                (System.nanoTime() - runStart) / 1_000_000, result.users(), result.accruals());
+        return differences == null
+                ? new Outcome(AccrualRun.Status.COMPLETED, result)
+                : new Outcome(AccrualRun.Status.NEEDS_REVIEW, result, differences);
+    }
+
+    // The partitions once all of them completed, or null if one failed
+    private List<JobCheckpoint> runPartitions(String jobName, LocalDate period,
+                                              AccrualPolicyTable.LeaveTypeRules rules,
+                                              AtomicReference<ChunkResult> total) {
+        IdRange idRange = userRepository.findActiveIdRange();
+        if (idRange.getMinId() == null) {
+            return List.of();
+        }
+
+        List<JobCheckpoint> checkpoints = jobCheckpointService.partitions(
+                jobName, period, split(idRange.getMinId(), idRange.getMaxId(), partitions));
+        int parallelism = Math.min(checkpoints.size(), Math.max(1, maxPoolSize() - RESERVED_CONNECTIONS));
+        logger.info("{} for {}: {} partitions on {} threads", jobName, period, checkpoints.size(), parallelism);
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (JobCheckpoint partition : checkpoints) {
+                if (partition.getStatus() == JobCheckpoint.Status.COMPLETED) {
+                    continue;
+                }
+                futures.add(executor.submit(() -> {
+                    AccrualChunkProcessor.AccrualSpec run = new AccrualChunkProcessor.AccrualSpec(
+                            partition.getId(), period, rules);
+                    ChunkResult result = runRange(
+                            partition.getJobName(), run, partition.getLastUserId(), partition.getRangeEnd());
+                    total.accumulateAndGet(result, ChunkResult::plus);
+                    jobCheckpointService.complete(partition.getId());
+                }));
+            }
+
+            boolean succeeded = true;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    logger.error("{} partition failed", jobName, e.getCause());
+                    succeeded = false;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+            return succeeded ? checkpoints : null;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ChunkResult runRange(String name, AccrualChunkProcessor.AccrualSpec run, long afterId, long upperId) {
+        long lastUserId = afterId;
+        ChunkResult processed = ChunkResult.EMPTY;
+
+        List<AccrualUser> users;
+        do {
+            users = userRepository.findAccrualPage(
+                    lastUserId, upperId, Limit.of(chunkSize));
+            if (users.isEmpty()) {
+                break;
+            }
+
+            long chunkStart = System.nanoTime();
+            ChunkResult chunk = accrualChunkProcessor.process(run, users);
+            processed = processed.plus(chunk);
+            lastUserId = users.get(users.size() - 1).getId();
+
+            long chunkMillis = Math.max(1, (System.nanoTime() - chunkStart) / 1_000_000);
+            logger.info("{} {}: {} users up to id {} in {} ms ({} users/s), {} accruals written, {} users this run",
+                    name, run.period(), users.size(), lastUserId, chunkMillis,
+                    users.size() * 1000L / chunkMillis, chunk.accruals(), processed.users());
+        } while (users.size() == chunkSize);
+        return processed;
+    }
+
+    /**
+     * Compares, per partition, the monthly accrual rows written for the period with the active users in
+     * its range that the engine accrues: those whose policy gives a positive rate for the period. A gap
+     * means users were activated or deactivated during the run, or rows were written outside the job.
+     *
+     * @return the differences, or null if every partition reconciles
+     */
+    private String reconcile(String jobName, LocalDate period, AccrualPolicyTable.LeaveTypeRules rules,
+                             List<JobCheckpoint> checkpoints) {
+        List<String> differences = new ArrayList<>();
+        for (JobCheckpoint partition : checkpoints) {
+            JobCheckpoint current = jobCheckpointService.reload(partition.getId());
+            long eligible = 0;
+            for (DepartmentCount users : userRepository.countActiveByDepartment(
+                    current.getRangeStart(), current.getRangeEnd())) {
+                if (rules.resolve(users.getDepartmentId(), period).monthlyDays() > 0) {
+                    eligible += users.getUsers();
+                }
+            }
+            long accruals = leaveAccrualRepository
+                    .countByLeaveTypeIdAndKindAndPeriodAndUserIdGreaterThanAndUserIdLessThanEqual(
+                            rules.leaveTypeId(), LeaveAccrual.AccrualKind.MONTHLY, period,
+                            current.getRangeStart(), current.getRangeEnd());
+
+            if (eligible == accruals) {
+                logger.info("{} ({}, {}]: {} users read, {} accruals", current.getJobName(),
+                        current.getRangeStart(), current.getRangeEnd(), current.getProcessedCount(), accruals);
+            } else {
+                String difference = String.format("(%d, %d]: %d eligible users, %d accruals",
+                        current.getRangeStart(), current.getRangeEnd(), eligible, accruals);
+                logger.warn("{} {} does not reconcile", current.getJobName(), difference);
+                differences.add(difference);
+            }
+        }
+        if (differences.isEmpty()) {
+            return null;
+        }
+        logger.warn("{} for {} needs review: {} partitions do not reconcile", jobName, period, differences.size());
+        return "Reconciliation differences " + String.join("; ", differences);
+    }
+
+    // Equal-width id ranges (lower exclusive, upper inclusive); the last one is open-ended for new users
+    static List<long[]> split(long minId, long maxId, int count) {
+        long width = Math.max(1, (maxId - minId + count) / count);
+        List<long[]> ranges = new ArrayList<>(count);
+        long lower = minId - 1;
+        for (int i = 0; i < count && lower < maxId; i++) {
+            long upper = i == count - 1 ? Long.MAX_VALUE : Math.min(maxId, lower + width);
+            ranges.add(new long[]{lower, upper});
+            lower = upper;
+        }
+        ranges.get(ranges.size() - 1)[1] = Long.MAX_VALUE;
+        return ranges;
+    }
+
+    // DatabaseConfig builds a Hikari pool; with any other DataSource the bound is unknown, so run one at a time
+    private int maxPoolSize() {
+        return dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : RESERVED_CONNECTIONS + 1;
+    }
+}
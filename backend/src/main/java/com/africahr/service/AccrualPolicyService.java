@@ -0,0 +1,61 @@
+package com.africahr.service;
+
+import com.africahr.entity.LeaveType;
+import com.africahr.repository.AccrualPolicyView;
+import com.africahr.repository.LeavePolicyRepository;
+import com.africahr.repository.LeaveTypeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Builds the {@link AccrualPolicyTable} for a run from the active leave types and policies: two
+ * queries, however many users the run then resolves.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccrualPolicyService {
+    // PTO accrued these before leave types carried their own rates; kept while the PTO type has none
+    static final double DEFAULT_PTO_MONTHLY_ACCRUAL = 1.66;
+    static final double DEFAULT_PTO_MAX_CARRYOVER = 5;
+
+    private final LeaveTypeRepository leaveTypeRepository;
+    private final LeavePolicyRepository leavePolicyRepository;
+
+    @Transactional(readOnly = true)
+    public AccrualPolicyTable compile() {
+        return compile(List.of());
+    }
+
+    /**
+     * Compiles the active policies together with {@code proposed} ones that are not stored, for
+     * simulations. A proposed policy wins over a stored one when it took effect later.
+     */
+    @Transactional(readOnly = true)
+    public AccrualPolicyTable compile(Collection<AccrualPolicyTable.PolicyRow> proposed) {
+        List<AccrualPolicyTable.LeaveTypeRules.Defaults> leaveTypes = new ArrayList<>();
+        for (LeaveType leaveType : leaveTypeRepository.findByActiveTrue()) {
+            if (leaveType.getCode() == null) {
+                continue;
+            }
+            boolean legacyPto = "PTO".equals(leaveType.getCode()) && leaveType.getMonthlyAccrual() <= 0;
+            leaveTypes.add(new AccrualPolicyTable.LeaveTypeRules.Defaults(
+                    leaveType.getId(), leaveType.getCode(),
+                    legacyPto ? DEFAULT_PTO_MONTHLY_ACCRUAL : leaveType.getMonthlyAccrual(),
+                    legacyPto ? DEFAULT_PTO_MAX_CARRYOVER : leaveType.getMaxCarryForward()));
+        }
+
+        List<AccrualPolicyTable.PolicyRow> policies = new ArrayList<>();
+        for (AccrualPolicyView policy : leavePolicyRepository.findActiveAccrualPolicies()) {
+            policies.add(new AccrualPolicyTable.PolicyRow(policy.getPolicyId(), policy.getLeaveType().name(),
+                    policy.getDepartmentId(), policy.getAccrualRate(), policy.getMaxCarryover(),
+                    policy.getMaxAnnualLeave(), policy.getEffectiveDate(), policy.getExpiryDate()));
+        }
+        policies.addAll(proposed);
+        return AccrualPolicyTable.compile(leaveTypes, policies);
+    }
+}
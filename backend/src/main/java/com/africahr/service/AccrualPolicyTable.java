@@ -0,0 +1,202 @@
+package com.africahr.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accrual rules of every accruing leave type, compiled once per run by {@link AccrualPolicyService}
+ * so the per-user lookups of a batch are a hash probe and a scan of a few primitive intervals rather
+ * than a query each.
+ * <p>
+ * A department's own policy wins over a company-wide one (no department), which wins over the leave
+ * type's {@code monthlyAccrual} and {@code maxCarryForward}. Among overlapping policies the one that
+ * took effect last applies.
+ */
+public final class AccrualPolicyTable {
+
+    /**
+     * What a user accrues per month and may carry into January; {@code policyId} is null for the
+     * leave type's own defaults.
+     */
+    public record Rule(double monthlyDays, double maxCarryover, Long policyId) {
+    }
+
+    /**
+     * One active policy as read from {@code leave_policies}, reduced to what accrual needs.
+     */
+    public record PolicyRow(Long policyId, String leaveTypeCode, Long departmentId, double accrualRate,
+                            double maxCarryover, int maxAnnualLeave, LocalDate effectiveDate,
+                            LocalDate expiryDate) {
+    }
+
+    private final Map<String, LeaveTypeRules> byCode;
+
+    private AccrualPolicyTable(Map<String, LeaveTypeRules> byCode) {
+        this.byCode = byCode;
+    }
+
+    public static AccrualPolicyTable compile(Collection<LeaveTypeRules.Defaults> leaveTypes,
+                                             Collection<PolicyRow> policies) {
+        Map<String, List<PolicyRow>> policiesByCode = new HashMap<>();
+        for (PolicyRow policy : policies) {
+            policiesByCode.computeIfAbsent(policy.leaveTypeCode(), code -> new ArrayList<>()).add(policy);
+        }
+
+        Map<String, LeaveTypeRules> byCode = new LinkedHashMap<>();
+        for (LeaveTypeRules.Defaults leaveType : leaveTypes) {
+            byCode.put(leaveType.code(), LeaveTypeRules.compile(
+                    leaveType, policiesByCode.getOrDefault(leaveType.code(), List.of())));
+        }
+        return new AccrualPolicyTable(byCode);
+    }
+
+    public LeaveTypeRules forLeaveType(String code) {
+        return byCode.get(code);
+    }
+
+    /**
+     * Leave types that accrue anything at all, under their defaults or any policy.
+     */
+    public List<LeaveTypeRules> accruing() {
+        return byCode.values().stream().filter(LeaveTypeRules::accrues).toList();
+    }
+
+    /**
+     * The compiled rules of one leave type.
+     */
+    public static final class LeaveTypeRules {
+
+        public record Defaults(Long leaveTypeId, String code, double monthlyDays, double maxCarryover) {
+        }
+
+        private static final int[] NONE = new int[0];
+
+        private final Long leaveTypeId;
+        private final String code;
+        private final Rule fallback;
+        private final Map<Long, int[]> byDepartment;
+        private final int[] companyWide;
+        // Parallel arrays indexed by policy, ordered by effective date, latest first
+        private final long[] from;
+        private final long[] to;
+        private final Rule[] rules;
+
+        private LeaveTypeRules(Long leaveTypeId, String code, Rule fallback, Map<Long, int[]> byDepartment,
+                               int[] companyWide, long[] from, long[] to, Rule[] rules) {
+            this.leaveTypeId = leaveTypeId;
+            this.code = code;
+            this.fallback = fallback;
+            this.byDepartment = byDepartment;
+            this.companyWide = companyWide;
+            this.from = from;
+            this.to = to;
+            this.rules = rules;
+        }
+
+        /**
+         * Rules without any policy: every user accrues the same.
+         */
+        public static LeaveTypeRules flat(Long leaveTypeId, String code, double monthlyDays, double maxCarryover) {
+            return compile(new Defaults(leaveTypeId, code, monthlyDays, maxCarryover), List.of());
+        }
+
+        static LeaveTypeRules compile(Defaults defaults, List<PolicyRow> policies) {
+            List<PolicyRow> sorted = new ArrayList<>(policies);
+            sorted.sort(Comparator.comparing(PolicyRow::effectiveDate,
+                    Comparator.nullsFirst(Comparator.<LocalDate>naturalOrder())).reversed());
+
+            int count = sorted.size();
+            long[] from = new long[count];
+            long[] to = new long[count];
+            Rule[] rules = new Rule[count];
+            Map<Long, List<Integer>> departmentIndexes = new HashMap<>();
+            List<Integer> companyIndexes = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                PolicyRow policy = sorted.get(i);
+                from[i] = policy.effectiveDate() == null ? Long.MIN_VALUE : policy.effectiveDate().toEpochDay();
+                to[i] = policy.expiryDate() == null ? Long.MAX_VALUE : policy.expiryDate().toEpochDay();
+                // Twelve months of accrual never exceed the policy's annual maximum
+                double monthly = policy.maxAnnualLeave() > 0
+                        ? Math.min(policy.accrualRate(), policy.maxAnnualLeave() / 12.0) : policy.accrualRate();
+                rules[i] = new Rule(monthly, policy.maxCarryover(), policy.policyId());
+                if (policy.departmentId() == null) {
+                    companyIndexes.add(i);
+                } else {
+                    departmentIndexes.computeIfAbsent(policy.departmentId(), id -> new ArrayList<>()).add(i);
+                }
+            }
+
+            Map<Long, int[]> byDepartment = new HashMap<>();
+            departmentIndexes.forEach((departmentId, indexes) -> byDepartment.put(departmentId, toArray(indexes)));
+            Rule fallback = new Rule(defaults.monthlyDays(), defaults.maxCarryover(), null);
+            return new LeaveTypeRules(defaults.leaveTypeId(), defaults.code(), fallback, byDepartment,
+                    toArray(companyIndexes), from, to, rules);
+        }
+
+        public Long leaveTypeId() {
+            return leaveTypeId;
+        }
+
+        public String code() {
+            return code;
+        }
+
+        public Rule fallback() {
+            return fallback;
+        }
+
+        /**
+         * True when no policy applies, so every user gets {@link #fallback()} on every date.
+         */
+        public boolean isFlat() {
+            return rules.length == 0;
+        }
+
+        boolean accrues() {
+            if (fallback.monthlyDays() > 0) {
+                return true;
+            }
+            for (Rule rule : rules) {
+                if (rule.monthlyDays() > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public Rule resolve(Long departmentId, LocalDate date) {
+            if (rules.length == 0) {
+                return fallback;
+            }
+            long day = date.toEpochDay();
+            int index = departmentId == null ? -1 : find(byDepartment.getOrDefault(departmentId, NONE), day);
+            if (index < 0) {
+                index = find(companyWide, day);
+            }
+            return index < 0 ? fallback : rules[index];
+        }
+
+        private int find(int[] candidates, long day) {
+            for (int index : candidates) {
+                if (from[index] <= day && day <= to[index]) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+
+        private static int[] toArray(List<Integer> values) {
+            int[] array = new int[values.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = values.get(i);
+            }
+            return array;
+        }
+    }
+}
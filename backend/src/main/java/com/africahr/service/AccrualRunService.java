@@ -0,0 +1,83 @@
+package com.africahr.service;
+
+import com.africahr.dto.response.AccrualRunResponse;
+import com.africahr.entity.AccrualRun;
+import com.africahr.repository.AccrualRunRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the {@code accrual_runs} history. Each call commits on its own so a run's row is visible,
+ * and a failure recorded, whatever happens to the transactions of the run itself.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccrualRunService {
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final int MAX_RUNS = 200;
+
+    private final AccrualRunRepository accrualRunRepository;
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public AccrualRun start(String jobName, LocalDate period, Long leaveTypeId, String engine) {
+        return accrualRunRepository.save(AccrualRun.builder()
+                .jobName(jobName)
+                .period(period)
+                .leaveTypeId(leaveTypeId)
+                .engine(engine)
+                .status(AccrualRun.Status.RUNNING)
+                .startedAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void finish(Long runId, AccrualRun.Status status, AccrualChunkProcessor.ChunkResult result, String error) {
+        accrualRunRepository.findById(runId).ifPresent(run -> {
+            LocalDateTime now = LocalDateTime.now();
+            run.setStatus(status);
+            run.setUsersProcessed(result.users());
+            run.setAccrualsWritten(result.accruals());
+            run.setFinishedAt(now);
+            run.setDurationMs(Duration.between(run.getStartedAt(), now).toMillis());
+            if (error != null) {
+                run.setError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            }
+            accrualRunRepository.save(run);
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public List<AccrualRunResponse> getRecentRuns(String jobName, int limit) {
+        Limit max = Limit.of(Math.max(1, Math.min(limit, MAX_RUNS)));
+        List<AccrualRun> runs = jobName == null || jobName.isBlank()
+                ? accrualRunRepository.findAllByOrderByIdDesc(max)
+                : accrualRunRepository.findByJobNameOrderByIdDesc(jobName, max);
+        return runs.stream().map(AccrualRunService::toResponse).collect(Collectors.toList());
+    }
+
+    private static AccrualRunResponse toResponse(AccrualRun run) {
+        return AccrualRunResponse.builder()
+                .id(run.getId())
+                .jobName(run.getJobName())
+                .period(run.getPeriod())
+                .leaveTypeId(run.getLeaveTypeId())
+                .engine(run.getEngine())
+                .status(run.getStatus().name())
+                .usersProcessed(run.getUsersProcessed())
+                .accrualsWritten(run.getAccrualsWritten())
+                .startedAt(run.getStartedAt())
+                .finishedAt(run.getFinishedAt())
+                .durationMs(run.getDurationMs())
+                .error(run.getError())
+                .build();
+    }
+}
@@ -0,0 +1,130 @@
+package com.africahr.service;
+
+import com.africahr.dto.request.AccrualSimulationRequest;
+import com.africahr.dto.response.AccrualSimulationResponse;
+import com.africahr.exception.LeaveManagementException;
+import com.africahr.repository.AccrualSimulationJdbcRepository;
+import com.africahr.repository.AccrualSimulationJdbcRepository.Balances;
+import com.africahr.repository.AccrualSimulationJdbcRepository.OpenAccruals;
+import com.africahr.repository.AccrualSimulationJdbcRepository.Workforce;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Dry run of accrual policy changes over the whole workforce: the current policies and the proposed
+ * ones are each replayed month by month from today's balances and open accruals, and the report
+ * compares the two. Nothing is written; leave usage is not simulated.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccrualSimulationService {
+    private static final Logger logger = LoggerFactory.getLogger(AccrualSimulationService.class);
+
+    // Below this the two scenarios are considered equal for a user
+    private static final double TOLERANCE = 0.001;
+
+    private final AccrualSimulationJdbcRepository accrualSimulationJdbcRepository;
+    private final AccrualPolicyService accrualPolicyService;
+
+    public AccrualSimulationResponse simulate(AccrualSimulationRequest request) {
+        long start = System.nanoTime();
+        LocalDate startPeriod = request.getStartPeriod() != null
+                ? request.getStartPeriod().withDayOfMonth(1)
+                : LocalDate.now().withDayOfMonth(1).plusMonths(1);
+
+        List<AccrualPolicyTable.PolicyRow> proposed = new ArrayList<>();
+        for (AccrualSimulationRequest.PolicyChange change : request.getPolicies()) {
+            proposed.add(new AccrualPolicyTable.PolicyRow(null, request.getLeaveType(), change.getDepartmentId(),
+                    change.getAccrualRate(), change.getMaxCarryover(), change.getMaxAnnualLeave(),
+                    startPeriod, null));
+        }
+        AccrualPolicyTable.LeaveTypeRules baselineRules = rulesOf(accrualPolicyService.compile(), request);
+        AccrualPolicyTable.LeaveTypeRules proposedRules = rulesOf(accrualPolicyService.compile(proposed), request);
+
+        Workforce workforce = accrualSimulationJdbcRepository.loadActiveUsers();
+        Balances balances = accrualSimulationJdbcRepository.loadBalances(workforce, baselineRules.leaveTypeId());
+        OpenAccruals lots = accrualSimulationJdbcRepository.loadOpenAccruals(workforce, baselineRules.leaveTypeId());
+        long loaded = System.nanoTime();
+
+        AccrualSimulator simulator = new AccrualSimulator(workforce, balances, lots, startPeriod, request.getMonths());
+        AccrualSimulator.Result baseline = simulator.run(baselineRules);
+        AccrualSimulator.Result scenario = simulator.run(proposedRules);
+
+        int users = workforce.size();
+        double[] difference = new double[users];
+        int affected = 0;
+        for (int i = 0; i < users; i++) {
+            difference[i] = scenario.closing()[i] - baseline.closing()[i];
+            if (Math.abs(difference[i]) > TOLERANCE) {
+                affected++;
+            }
+        }
+        List<AccrualSimulationResponse.UserDifference> largest = IntStream.range(0, users)
+                .filter(i -> Math.abs(difference[i]) > TOLERANCE)
+                .boxed()
+                .sorted(Comparator.comparingDouble(i -> -Math.abs(difference[i])))
+                .limit(request.getLimit())
+                .map(i -> AccrualSimulationResponse.UserDifference.builder()
+                        .userId(workforce.userIds()[i])
+                        .email(workforce.emails()[i])
+                        .departmentId(workforce.departmentIds()[i])
+                        .currentBalance(balances.remaining()[i])
+                        .baselineBalance(baseline.closing()[i])
+                        .proposedBalance(scenario.closing()[i])
+                        .difference(difference[i])
+                        .build())
+                .toList();
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Simulated {} months of {} for {} users in {} ms ({} ms loading)", request.getMonths(),
+                request.getLeaveType(), users, elapsedMs, (loaded - start) / 1_000_000);
+
+        return AccrualSimulationResponse.builder()
+                .leaveType(request.getLeaveType())
+                .startPeriod(startPeriod)
+                .months(request.getMonths())
+                .users(users)
+                .elapsedMs(elapsedMs)
+                .baseline(totals(balances, baseline))
+                .proposed(totals(balances, scenario))
+                .usersAffected(affected)
+                .balanceDifference(sum(scenario.closing()) - sum(baseline.closing()))
+                .largestDifferences(largest)
+                .build();
+    }
+
+    private static AccrualPolicyTable.LeaveTypeRules rulesOf(AccrualPolicyTable table,
+                                                             AccrualSimulationRequest request) {
+        AccrualPolicyTable.LeaveTypeRules rules = table.forLeaveType(request.getLeaveType());
+        if (rules == null) {
+            throw new LeaveManagementException("Leave type not found: " + request.getLeaveType());
+        }
+        return rules;
+    }
+
+    private static AccrualSimulationResponse.Totals totals(Balances balances, AccrualSimulator.Result result) {
+        return AccrualSimulationResponse.Totals.builder()
+                .openingBalance(sum(balances.remaining()))
+                .accrued(sum(result.accrued()))
+                .carriedOver(sum(result.carried()))
+                .expired(sum(result.expired()))
+                .closingBalance(sum(result.closing()))
+                .build();
+    }
+
+    private static double sum(double[] values) {
+        double total = 0;
+        for (double value : values) {
+            total += value;
+        }
+        return total;
+    }
+}
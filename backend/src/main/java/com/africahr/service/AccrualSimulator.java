@@ -0,0 +1,124 @@
+package com.africahr.service;
+
+import com.africahr.repository.AccrualSimulationJdbcRepository.Balances;
+import com.africahr.repository.AccrualSimulationJdbcRepository.OpenAccruals;
+import com.africahr.repository.AccrualSimulationJdbcRepository.Workforce;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.stream.IntStream;
+
+/**
+ * Replays months of the accrual job, January carryover and the expiry sweeper over the arrays loaded
+ * by {@link com.africahr.repository.AccrualSimulationJdbcRepository}, without touching the database.
+ * Users are independent of each other, so they are simulated in parallel on the common pool; each
+ * one only writes its own slot of the result arrays.
+ * <p>
+ * Every month follows the order of the scheduled jobs on the 1st: carryover and accrual at midnight,
+ * then the sweeper expires what is due, deducting no more than the days still available.
+ */
+final class AccrualSimulator {
+    private final Workforce workforce;
+    private final Balances balances;
+    private final OpenAccruals lots;
+    private final LocalDate startPeriod;
+    private final int months;
+
+    AccrualSimulator(Workforce workforce, Balances balances, OpenAccruals lots, LocalDate startPeriod, int months) {
+        this.workforce = workforce;
+        this.balances = balances;
+        this.lots = lots;
+        this.startPeriod = startPeriod;
+        this.months = months;
+    }
+
+    /**
+     * Per-user results of one scenario, indexed like the workforce.
+     */
+    record Result(double[] closing, double[] accrued, double[] carried, double[] expired) {
+    }
+
+    Result run(AccrualPolicyTable.LeaveTypeRules rules) {
+        int users = workforce.size();
+        Result result = new Result(new double[users], new double[users], new double[users], new double[users]);
+        IntStream.range(0, users).parallel().forEach(user -> simulate(user, rules, result));
+        return result;
+    }
+
+    private void simulate(int user, AccrualPolicyTable.LeaveTypeRules rules, Result result) {
+        int first = lots.offsets()[user];
+        int existing = lots.offsets()[user + 1] - first;
+        // Room for the user's open accruals plus one per simulated month and one carryover per January
+        int capacity = existing + months + months / 12 + 1;
+        double[] days = new double[capacity];
+        long[] expiry = new long[capacity];
+        boolean[] carriedOver = new boolean[capacity];
+        boolean[] open = new boolean[capacity];
+        System.arraycopy(lots.days(), first, days, 0, existing);
+        System.arraycopy(lots.expiryDays(), first, expiry, 0, existing);
+        System.arraycopy(lots.carriedOver(), first, carriedOver, 0, existing);
+        for (int i = 0; i < existing; i++) {
+            open[i] = true;
+        }
+        int size = existing;
+
+        Long departmentId = workforce.departmentIds()[user];
+        boolean hasBalance = balances.present()[user];
+        double balance = balances.remaining()[user];
+        double reserved = balances.reserved()[user];
+        double accrued = 0;
+        double carried = 0;
+        double expired = 0;
+
+        LocalDate period = startPeriod;
+        for (int month = 0; month < months; month++, period = period.plusMonths(1)) {
+            long day = period.toEpochDay();
+            AccrualPolicyTable.Rule rule = rules.resolve(departmentId, period);
+
+            if (period.getMonth() == Month.JANUARY && hasBalance) {
+                // Carries the available days over as CarryoverFolder does: the active accruals still unexpired
+                // on January 1st close, the days up to the cap stay as the carryover and the rest is forfeited
+                for (int i = 0; i < size; i++) {
+                    if (open[i] && !carriedOver[i] && expiry[i] >= day) {
+                        open[i] = false;
+                    }
+                }
+                CarryoverFolder.Split split = CarryoverFolder.split(balance - reserved, rule.maxCarryover());
+                if (split.carried() > 0) {
+                    days[size] = split.carried();
+                    expiry[size] = period.plusDays(31).toEpochDay();
+                    carriedOver[size] = true;
+                    open[size] = true;
+                    size++;
+                    carried += split.carried();
+                }
+                balance -= split.forfeited();
+                expired += split.forfeited();
+            }
+
+            if (rule.monthlyDays() > 0) {
+                days[size] = rule.monthlyDays();
+                expiry[size] = period.plusYears(1).toEpochDay();
+                open[size] = true;
+                size++;
+                balance += rule.monthlyDays();
+                accrued += rule.monthlyDays();
+                hasBalance = true;
+            }
+
+            for (int i = 0; i < size; i++) {
+                if (open[i] && expiry[i] <= day) {
+                    open[i] = false;
+                    double deducted = Math.min(days[i], Math.max(0, balance - reserved));
+                    balance -= deducted;
+                    expired += deducted;
+                }
+            }
+        }
+
+        result.closing()[user] = balance;
+        result.accrued()[user] = accrued;
+        result.carried()[user] = carried;
+        result.expired()[user] = expired;
+    }
+}
@@ -1,11 +1,17 @@
 package com.africahr.service;
 
 import com.africahr.dto.AdminPanelDTO;
+import com.africahr.dto.PublicHolidayDTO;
 import com.africahr.entity.LeaveType;
+import com.africahr.entity.PublicHoliday;
 import com.africahr.repository.LeaveTypeRepository;
+import com.africahr.repository.PublicHolidayRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -15,6 +21,12 @@ public class AdminPanelService {
     @Autowired
     private LeaveTypeRepository leaveTypeRepository;
 
+    @Autowired
+    private PublicHolidayRepository publicHolidayRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public List<AdminPanelDTO> getAllLeaveTypes() {
         List<LeaveType> leaveTypes = leaveTypeRepository.findAll();
         return leaveTypes.stream()
@@ -65,4 +77,33 @@ public class AdminPanelService {
             .map(AdminPanelDTO::fromLeaveType)
             .collect(Collectors.toList());
     }
+
+    public List<PublicHolidayDTO> getPublicHolidays(int year) {
+        return publicHolidayRepository.findByDateBetween(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31))
+            .stream()
+            .map(PublicHolidayDTO::fromPublicHoliday)
+            .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public PublicHolidayDTO createPublicHoliday(PublicHolidayDTO dto) {
+        PublicHoliday holiday = PublicHoliday.builder()
+            .name(dto.getName())
+            .date(dto.getDate())
+            .description(dto.getDescription())
+            .build();
+
+        PublicHoliday saved = publicHolidayRepository.save(holiday);
+        eventPublisher.publishEvent(new WorkingDayCalendar.HolidaysChanged(saved.getDate().getYear()));
+        return PublicHolidayDTO.fromPublicHoliday(saved);
+    }
+
+    @Transactional
+    public void deletePublicHoliday(Long id) {
+        PublicHoliday holiday = publicHolidayRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Public holiday not found"));
+
+        publicHolidayRepository.delete(holiday);
+        eventPublisher.publishEvent(new WorkingDayCalendar.HolidaysChanged(holiday.getDate().getYear()));
+    }
 }
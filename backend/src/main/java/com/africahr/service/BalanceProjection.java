@@ -0,0 +1,114 @@
+package com.africahr.service;
+
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Future balance of one (user, leave type) pair as a step function: the dates on which the balance
+ * changes, ascending, with the balance at the end of each. Built once from the schedule of future
+ * deltas, then any date is answered by a binary search.
+ */
+class BalanceProjection {
+
+    private enum Kind {
+        // Same-day order: the carryover cap applies to the old year's balance, before January accrues
+        CARRYOVER_CAP,
+        ACCRUAL,
+        USAGE
+    }
+
+    private record Delta(LocalDate date, Kind kind, double days) {
+    }
+
+    private final double startBalance;
+    private final long[] dates;
+    private final double[] balances;
+
+    private BalanceProjection(double startBalance, long[] dates, double[] balances) {
+        this.startBalance = startBalance;
+        this.dates = dates;
+        this.balances = balances;
+    }
+
+    double balanceOn(LocalDate date) {
+        int index = Arrays.binarySearch(dates, date.toEpochDay());
+        if (index < 0) {
+            index = -index - 2;
+        }
+        return index < 0 ? startBalance : balances[index];
+    }
+
+    /**
+     * Accrual and carryover dates shared by every balance of one leave type in one department: the
+     * first of each month after {@code today} up to {@code horizon}, with the cap on each January 1st,
+     * each resolved from the accrual policies in force that month.
+     */
+    static class Schedule {
+        private final List<Delta> deltas = new ArrayList<>();
+
+        Schedule(LocalDate today, LocalDate horizon, AccrualPolicyTable.LeaveTypeRules rules, Long departmentId) {
+            LocalDate month = today.with(TemporalAdjusters.firstDayOfNextMonth());
+            while (!month.isAfter(horizon)) {
+                AccrualPolicyTable.Rule rule = rules.resolve(departmentId, month);
+                if (month.getMonthValue() == 1) {
+                    deltas.add(new Delta(month, Kind.CARRYOVER_CAP, rule.maxCarryover()));
+                }
+                if (rule.monthlyDays() != 0) {
+                    deltas.add(new Delta(month, Kind.ACCRUAL, rule.monthlyDays()));
+                }
+                month = month.plusMonths(1);
+            }
+        }
+
+        Builder startingAt(double balance) {
+            return new Builder(this, balance);
+        }
+    }
+
+    static class Builder {
+        private final Schedule schedule;
+        private final double startBalance;
+        private final List<Delta> usages = new ArrayList<>();
+
+        private Builder(Schedule schedule, double startBalance) {
+            this.schedule = schedule;
+            this.startBalance = startBalance;
+        }
+
+        Builder usage(LocalDate date, double days) {
+            usages.add(new Delta(date, Kind.USAGE, -days));
+            return this;
+        }
+
+        BalanceProjection build() {
+            List<Delta> deltas = new ArrayList<>(schedule.deltas.size() + usages.size());
+            deltas.addAll(schedule.deltas);
+            deltas.addAll(usages);
+            deltas.sort(Comparator.comparing(Delta::date).thenComparing(Delta::kind));
+
+            long[] dates = new long[deltas.size()];
+            double[] balances = new double[deltas.size()];
+            int size = 0;
+            double balance = startBalance;
+            for (Delta delta : deltas) {
+                balance = delta.kind() == Kind.CARRYOVER_CAP
+                        ? Math.min(balance, delta.days())
+                        : balance + delta.days();
+
+                long day = delta.date().toEpochDay();
+                if (size > 0 && dates[size - 1] == day) {
+                    balances[size - 1] = balance;
+                } else {
+                    dates[size] = day;
+                    balances[size] = balance;
+                    size++;
+                }
+            }
+            return new BalanceProjection(startBalance, Arrays.copyOf(dates, size), Arrays.copyOf(balances, size));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.africahr.service;
+
+import com.africahr.dto.response.BalanceProjectionResponse;
+import com.africahr.entity.Leave;
+import com.africahr.entity.LeaveBalance;
+import com.africahr.entity.LeaveType;
+import com.africahr.enums.LeaveStatus;
+import com.africahr.exception.LeaveManagementException;
+import com.africahr.repository.LeaveBalanceRepository;
+import com.africahr.repository.LeaveRepository;
+import com.africahr.repository.LeaveTypeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Read-only balance projections: future monthly accruals, the January carryover cap and approved
+ * leaves that have not started yet. Rates and caps come from the same policy table as the accrual
+ * job. Approved days are already off {@code remainingDays}, so they are added back and charged again
+ * on their start date to place them correctly around the cap.
+ */
+@Service
+@RequiredArgsConstructor
+public class BalanceProjectionService {
+    private static final int MAX_HORIZON_YEARS = 2;
+
+    private final LeaveBalanceRepository leaveBalanceRepository;
+    private final LeaveRepository leaveRepository;
+    private final LeaveTypeRepository leaveTypeRepository;
+    private final WorkingDayCalendar workingDayCalendar;
+    private final CurrentUserService currentUserService;
+    private final AccrualPolicyService accrualPolicyService;
+
+    // One schedule per leave type and department
+    private record ScheduleKey(Long leaveTypeId, Long departmentId) {
+    }
+
+    @Transactional(readOnly = true)
+    public List<BalanceProjectionResponse> projectOwnBalances(LocalDate date, String leaveTypeName) {
+        LocalDate today = validateDate(date);
+
+        Long userId = currentUserService.get().id();
+
+        Map<Long, List<Leave>> futureLeaves = leaveRepository
+                .findByUserIdAndStatusAndStartDateBetween(userId, LeaveStatus.APPROVED, today.plusDays(1), date)
+                .stream()
+                .collect(Collectors.groupingBy(leave -> leave.getLeaveType().getId()));
+
+        AccrualPolicyTable policies = accrualPolicyService.compile();
+        Map<ScheduleKey, BalanceProjection.Schedule> schedules = new HashMap<>();
+        return leaveBalanceRepository.findByUserId(userId).stream()
+                .filter(balance -> leaveTypeName == null || balance.getLeaveType().getName().equals(leaveTypeName))
+                .map(balance -> project(balance, schedule(schedules, policies, balance, today, date),
+                        futureLeaves.getOrDefault(balance.getLeaveType().getId(), List.of()), date))
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<BalanceProjectionResponse> projectCompanyBalances(LocalDate date, String leaveTypeName) {
+        LocalDate today = validateDate(date);
+        LeaveType leaveType = leaveTypeRepository.findByName(leaveTypeName)
+                .orElseThrow(() -> new LeaveManagementException("Leave type not found: " + leaveTypeName));
+
+        Map<Long, List<Leave>> futureLeaves = leaveRepository
+                .findByLeaveTypeIdAndStatusAndStartDateBetween(
+                        leaveType.getId(), LeaveStatus.APPROVED, today.plusDays(1), date)
+                .stream()
+                .collect(Collectors.groupingBy(leave -> leave.getUser().getId()));
+
+        AccrualPolicyTable policies = accrualPolicyService.compile();
+        Map<ScheduleKey, BalanceProjection.Schedule> schedules = new HashMap<>();
+        return leaveBalanceRepository.findByLeaveTypeId(leaveType.getId()).stream()
+                .map(balance -> project(balance, schedule(schedules, policies, balance, today, date),
+                        futureLeaves.getOrDefault(balance.getUser().getId(), List.of()), date))
+                .collect(Collectors.toList());
+    }
+
+    private BalanceProjectionResponse project(LeaveBalance balance, BalanceProjection.Schedule schedule,
+                                              List<Leave> futureLeaves, LocalDate date) {
+        double approvedAhead = 0;
+        for (Leave leave : futureLeaves) {
+            approvedAhead += duration(leave);
+        }
+
+        BalanceProjection.Builder builder = schedule.startingAt(balance.getRemainingDays() + approvedAhead);
+        futureLeaves.forEach(leave -> builder.usage(leave.getStartDate(), duration(leave)));
+
+        return BalanceProjectionResponse.builder()
+                .userId(balance.getUser().getId())
+                .userName(balance.getUser().getFullName())
+                .leaveType(balance.getLeaveType().getName())
+                .date(date)
+                .currentBalance(balance.getRemainingDays())
+                .projectedBalance(builder.build().balanceOn(date))
+                .build();
+    }
+
+    private static BalanceProjection.Schedule schedule(Map<ScheduleKey, BalanceProjection.Schedule> schedules,
+                                                       AccrualPolicyTable policies, LeaveBalance balance,
+                                                       LocalDate today, LocalDate horizon) {
+        LeaveType leaveType = balance.getLeaveType();
+        Long departmentId = balance.getUser().getDepartment() == null
+                ? null : balance.getUser().getDepartment().getId();
+        return schedules.computeIfAbsent(new ScheduleKey(leaveType.getId(), departmentId), key -> {
+            // Inactive or uncoded leave types are not in the table and keep their own rates
+            AccrualPolicyTable.LeaveTypeRules rules = leaveType.getCode() == null
+                    ? null : policies.forLeaveType(leaveType.getCode());
+            if (rules == null) {
+                rules = AccrualPolicyTable.LeaveTypeRules.flat(leaveType.getId(), leaveType.getCode(),
+                        leaveType.getMonthlyAccrual(), leaveType.getMaxCarryForward());
+            }
+            return new BalanceProjection.Schedule(today, horizon, rules, departmentId);
+        });
+    }
+
+    private double duration(Leave leave) {
+        return leave.getDurationDays() != null
+                ? leave.getDurationDays()
+                : workingDayCalendar.workingDaysBetween(leave.getStartDate(), leave.getEndDate());
+    }
+
+    private static LocalDate validateDate(LocalDate date) {
+        LocalDate today = LocalDate.now();
+        if (date.isBefore(today)) {
+            throw new LeaveManagementException("Projection date must not be in the past");
+        }
+        if (date.isAfter(today.plusYears(MAX_HORIZON_YEARS))) {
+            throw new LeaveManagementException(
+                    String.format("Balances can be projected at most %d years ahead", MAX_HORIZON_YEARS));
+        }
+        return today;
+    }
+}
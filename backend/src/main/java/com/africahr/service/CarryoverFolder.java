@@ -0,0 +1,114 @@
+package com.africahr.service;
+
+import com.africahr.entity.LeaveAccrual;
+import com.africahr.entity.LeaveBalance;
+import com.africahr.entity.LeaveLedgerEntry;
+import com.africahr.repository.LeaveAccrualJdbcRepository;
+import com.africahr.repository.LeaveAccrualJdbcRepository.NewAccrual;
+import com.africahr.repository.LeaveAccrualRepository;
+import com.africahr.repository.LeaveBalanceJdbcRepository.Carryover;
+import com.africahr.repository.UnusedDays;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * January carryover of one page of balances, shared by the monthly job, the catch-up and the year-end
+ * close. What a balance has available when the year ends carries over up to the policy cap and the rest
+ * is forfeited; days taken or reserved during the year are not carried, and neither are the new year's
+ * accruals. The ACTIVE accruals granted before January and still unexpired on the 1st are marked EXPIRED,
+ * so the sweeper never deducts them again, and one CARRIED_OVER accrual of the carried days replaces them.
+ * <p>
+ * Balances already carried over for the period, by either job, have their last carryover date on it (or,
+ * from before that was kept, a carryover accrual for it) and are skipped. Nothing is written but the
+ * source statuses; the caller applies the returned accruals, ledger entries and balance changes in the
+ * same transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class CarryoverFolder {
+
+    private final LeaveAccrualRepository leaveAccrualRepository;
+    private final LeaveAccrualJdbcRepository leaveAccrualJdbcRepository;
+
+    /**
+     * What one page carried over: carryover accruals to insert, forfeit ledger entries, and the balance
+     * changes.
+     */
+    public record Fold(List<NewAccrual> carryovers, List<LeaveLedgerEntry> entries, List<Carryover> balances) {
+        public double carried() {
+            return balances.stream().mapToDouble(Carryover::carried).sum();
+        }
+
+        public double forfeited() {
+            return balances.stream().mapToDouble(Carryover::forfeited).sum();
+        }
+    }
+
+    public record Split(double carried, double forfeited) {
+    }
+
+    /**
+     * Splits what a balance has available at year end into the days carried over, up to
+     * {@code maxCarryover}, and the days forfeited. Nothing is carried or forfeited from an overdrawn
+     * balance.
+     */
+    public static Split split(double available, double maxCarryover) {
+        double carried = Math.max(0, Math.min(available, maxCarryover));
+        return new Split(carried, Math.max(0, available - carried));
+    }
+
+    /**
+     * Folds the balances in {@code balancesByUserId}, which the caller holds locked.
+     */
+    public Fold fold(AccrualPolicyTable.LeaveTypeRules rules, LocalDate period,
+                     Map<Long, LeaveBalance> balancesByUserId, Map<Long, Long> departmentsByUserId) {
+        Fold fold = new Fold(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+
+        Set<Long> carried = new HashSet<>(leaveAccrualRepository.findAccruedUserIds(
+                balancesByUserId.keySet(), rules.leaveTypeId(), LeaveAccrual.AccrualKind.CARRYOVER, period));
+        Set<Long> userIds = new HashSet<>();
+        balancesByUserId.forEach((userId, balance) -> {
+            if (!carried.contains(userId)
+                    && (balance.getLastCarryoverDate() == null || balance.getLastCarryoverDate().isBefore(period))) {
+                userIds.add(userId);
+            }
+        });
+        if (userIds.isEmpty()) {
+            return fold;
+        }
+
+        Map<Long, Double> newYear = new HashMap<>();
+        for (UnusedDays unused : leaveAccrualRepository.sumUnusedSince(userIds, rules.leaveTypeId(),
+                LeaveAccrual.AccrualKind.MONTHLY, LeaveAccrual.AccrualStatus.ACTIVE, period)) {
+            newYear.put(unused.getUserId(), unused.getDays());
+        }
+        leaveAccrualJdbcRepository.markExpired(leaveAccrualRepository.findCarryoverSourceIds(
+                userIds, rules.leaveTypeId(), LeaveAccrual.AccrualStatus.ACTIVE, period),
+                LeaveAccrual.AccrualStatus.ACTIVE);
+
+        for (Long userId : userIds) {
+            LeaveBalance balance = balancesByUserId.get(userId);
+            Split split = split(balance.getAvailableDays() - newYear.getOrDefault(userId, 0.0),
+                    rules.resolve(departmentsByUserId.get(userId), period).maxCarryover());
+            if (split.carried() > 0) {
+                fold.carryovers().add(new NewAccrual(userId, rules.leaveTypeId(), split.carried(), period,
+                        period.plusDays(31), LeaveAccrual.AccrualStatus.CARRIED_OVER,
+                        LeaveAccrual.AccrualKind.CARRYOVER, period));
+            }
+            if (split.forfeited() > 0) {
+                fold.entries().add(LeaveLedgerService.entry(userId, rules.leaveTypeId(),
+                        LeaveLedgerEntry.EntryType.EXPIRY, -split.forfeited(), null, "Forfeited at year end"));
+            }
+            fold.balances().add(new Carryover(balance.getId(), period, split.forfeited(), split.carried()));
+        }
+        return fold;
+    }
+}
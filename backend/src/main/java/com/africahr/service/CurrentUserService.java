@@ -0,0 +1,75 @@
+package com.africahr.service;
+
+import com.africahr.config.CacheConfig;
+import com.africahr.entity.User;
+import com.africahr.exception.LeaveManagementException;
+import com.africahr.repository.UserRepository;
+import com.africahr.repository.UserState;
+import com.africahr.security.AuthenticatedUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The caller of the current request, as authenticated by {@link com.africahr.security.JwtAuthenticationFilter}
+ * from the user's state. The state is read through a short-lived cache keyed by email, which
+ * {@link UserStateEvictionListener} evicts whenever the user row changes, so most requests never load the user.
+ */
+@Service
+@RequiredArgsConstructor
+public class CurrentUserService {
+
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+
+    public AuthenticatedUser get() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            throw new LeaveManagementException("User not found");
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user;
+        }
+        return findState(authentication.getName())
+                .filter(UserState::isActive)
+                .map(AuthenticatedUser::of)
+                .orElseThrow(() -> new LeaveManagementException("User not found"));
+    }
+
+    /**
+     * The caller as an entity reference for associations; the user row is not loaded unless a field
+     * other than the id is read.
+     */
+    public User reference() {
+        return userRepository.getReferenceById(get().id());
+    }
+
+    public UserState getState() {
+        return findState(get().email())
+                .orElseThrow(() -> new LeaveManagementException("User not found"));
+    }
+
+    public Optional<UserState> findState(String email) {
+        UserState cached = states().get(email, UserState.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<UserState> state = userRepository.findStateByEmail(email);
+        state.ifPresent(value -> states().put(email, value));
+        return state;
+    }
+
+    public void evictState(String email) {
+        states().evict(email);
+    }
+
+    private Cache states() {
+        return Objects.requireNonNull(cacheManager.getCache(CacheConfig.USER_STATES));
+    }
+}
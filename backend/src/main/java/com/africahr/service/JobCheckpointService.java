@@ -0,0 +1,101 @@
+package com.africahr.service;
+
+import com.africahr.entity.JobCheckpoint;
+import com.africahr.repository.JobCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class JobCheckpointService {
+    private final JobCheckpointRepository jobCheckpointRepository;
+
+    /**
+     * Returns the checkpoint of the job for the period, creating it on the first run. A RUNNING
+     * checkpoint left by a crashed run is returned as is so the caller resumes after it.
+     */
+    @Transactional
+    public JobCheckpoint startOrResume(String jobName, LocalDate period) {
+        return jobCheckpointRepository.findByJobNameAndPeriod(jobName, period)
+                .orElseGet(() -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    return jobCheckpointRepository.save(JobCheckpoint.builder()
+                            .jobName(jobName)
+                            .period(period)
+                            .status(JobCheckpoint.Status.RUNNING)
+                            .startedAt(now)
+                            .updatedAt(now)
+                            .build());
+                });
+    }
+
+    /**
+     * Returns the partition checkpoints of a parallel run, creating one per range on the first run.
+     * Partitions created by an earlier attempt are reused as they are, so a resumed run keeps its
+     * original ranges even if the partition count or the user population has changed since.
+     */
+    @Transactional
+    public List<JobCheckpoint> partitions(String jobName, LocalDate period, List<long[]> ranges) {
+        String prefix = partitionPrefix(jobName);
+        List<JobCheckpoint> existing =
+                jobCheckpointRepository.findPartitions(prefix, period);
+        if (!existing.isEmpty()) {
+            return existing;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<JobCheckpoint> partitions = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            long[] range = ranges.get(i);
+            partitions.add(JobCheckpoint.builder()
+                    .jobName(prefix + (i + 1))
+                    .period(period)
+                    .lastUserId(range[0])
+                    .rangeStart(range[0])
+                    .rangeEnd(range[1])
+                    .status(JobCheckpoint.Status.RUNNING)
+                    .startedAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        return jobCheckpointRepository.saveAll(partitions);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<JobCheckpoint> find(String jobName, LocalDate period) {
+        return jobCheckpointRepository.findByJobNameAndPeriod(jobName, period);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean hasPartitions(String jobName, LocalDate period) {
+        return !jobCheckpointRepository
+                .findPartitions(partitionPrefix(jobName), period)
+                .isEmpty();
+    }
+
+    @Transactional(readOnly = true)
+    public JobCheckpoint reload(Long checkpointId) {
+        return jobCheckpointRepository.findById(checkpointId).orElseThrow();
+    }
+
+    private static String partitionPrefix(String jobName) {
+        return jobName + ":p";
+    }
+
+    @Transactional
+    public void complete(Long checkpointId) {
+        jobCheckpointRepository.findById(checkpointId).ifPresent(checkpoint -> {
+            LocalDateTime now = LocalDateTime.now();
+            checkpoint.setStatus(JobCheckpoint.Status.COMPLETED);
+            checkpoint.setUpdatedAt(now);
+            checkpoint.setCompletedAt(now);
+        });
+    }
+}
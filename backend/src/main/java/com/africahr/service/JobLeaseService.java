@@ -0,0 +1,135 @@
+package com.africahr.service;
+
+import com.africahr.dto.response.JobLeaseResponse;
+import com.africahr.repository.JobLeaseJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Runs scheduled jobs on one node of the cluster at a time. Every replica fires the same crons; the
+ * first to take the job's row in {@code job_leases} runs it and the others skip it. The lease is
+ * renewed in the background while the job runs and released when it ends, so a holder that dies
+ * only keeps it until {@code leave.scheduling.lease-ttl} runs out. A job that ends quickly still
+ * holds the lease for {@code leave.scheduling.lease-min-hold} after it started, so a replica whose
+ * clock or scheduler lags and fires the same trigger late skips it rather than running it twice.
+ * <p>
+ * Lease statements commit in their own short transaction, so the row lock is never held for the
+ * duration of a job or of a caller's transaction, and request threads never touch the table.
+ */
+@Service
+public class JobLeaseService {
+    private static final Logger logger = LoggerFactory.getLogger(JobLeaseService.class);
+
+    private final JobLeaseJdbcRepository jobLeaseJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+    private final long ttlSeconds;
+    private final long minHoldSeconds;
+    private final Set<String> knownJobs = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService renewals = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "job-lease-renewal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public JobLeaseService(JobLeaseJdbcRepository jobLeaseJdbcRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${leave.scheduling.node-id:}") String nodeId,
+                           @Value("${leave.scheduling.lease-ttl:5m}") Duration ttl,
+                           @Value("${leave.scheduling.lease-min-hold:10m}") Duration minHold) {
+        this.jobLeaseJdbcRepository = jobLeaseJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.ttlSeconds = Math.max(ttl.toSeconds(), 3);
+        this.minHoldSeconds = minHold.toSeconds();
+    }
+
+    /**
+     * Runs {@code job} if this node can take the lease of {@code jobName}.
+     *
+     * @return false if another node holds the lease and the job was skipped
+     */
+    public boolean runExclusively(String jobName, Runnable job) {
+        if (knownJobs.add(jobName)) {
+            transactionTemplate.executeWithoutResult(tx -> jobLeaseJdbcRepository.createIfAbsent(jobName));
+        }
+        Boolean acquired = transactionTemplate.execute(
+                tx -> jobLeaseJdbcRepository.acquire(jobName, nodeId, ttlSeconds));
+        if (!Boolean.TRUE.equals(acquired)) {
+            logger.info("Skipping {}: the lease is held by another node", jobName);
+            return false;
+        }
+
+        long period = ttlSeconds / 3;
+        ScheduledFuture<?> renewal =
+                renewals.scheduleAtFixedRate(() -> renew(jobName), period, period, TimeUnit.SECONDS);
+        try {
+            job.run();
+            return true;
+        } finally {
+            renewal.cancel(false);
+            transactionTemplate.executeWithoutResult(tx -> jobLeaseJdbcRepository.release(jobName, nodeId, minHoldSeconds));
+        }
+    }
+
+    private void renew(String jobName) {
+        try {
+            Boolean renewed = transactionTemplate.execute(
+                    tx -> jobLeaseJdbcRepository.renew(jobName, nodeId, ttlSeconds));
+            if (!Boolean.TRUE.equals(renewed)) {
+                logger.warn("Lost the lease of {} while running it; another node may start it too", jobName);
+            }
+        } catch (RuntimeException e) {
+            // Retried at the next tick; the lease only lapses if renewals keep failing for a whole TTL
+            logger.warn("Could not renew the lease of {}: {}", jobName, e.getMessage());
+        }
+    }
+
+    public List<JobLeaseResponse> getLeases() {
+        return jobLeaseJdbcRepository.findAll().stream()
+                .map(lease -> JobLeaseResponse.builder()
+                        .jobName(lease.jobName())
+                        .holder(lease.holder())
+                        .held(lease.held())
+                        .heldByThisNode(lease.held() && nodeId.equals(lease.holder()))
+                        .leaseUntil(lease.leaseUntil())
+                        .acquiredAt(lease.acquiredAt())
+                        .renewedAt(lease.renewedAt())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renewals.shutdownNow();
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + ":" + ProcessHandle.current().pid();
+    }
+}
@@ -1,140 +1,94 @@
 package com.africahr.service;
 
-import com.africahr.entity.LeaveAccrual;
-import com.africahr.entity.LeaveBalance;
-import com.africahr.entity.LeaveType;
-import com.africahr.entity.User;
-import com.africahr.repository.LeaveAccrualRepository;
-import com.africahr.repository.LeaveBalanceRepository;
-import com.africahr.repository.LeaveTypeRepository;
-import com.africahr.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import com.africahr.entity.JobCheckpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
-import java.util.List;
+import java.util.Optional;
 
 @Service
 public class LeaveAccrualService {
+    private static final Logger logger = LoggerFactory.getLogger(LeaveAccrualService.class);
+    private static final String MONTHLY_ACCRUAL_JOB = "monthly-accrual";
+    // Shared by the monthly run and the catch-up, which may run the monthly job too
+    private static final String ACCRUAL_LEASE = "leave-accrual";
 
     @Autowired
-    private LeaveAccrualRepository leaveAccrualRepository;
+    private AccrualJobRunner accrualJobRunner;
 
     @Autowired
-    private LeaveBalanceRepository leaveBalanceRepository;
+    private AccrualCatchUpService accrualCatchUpService;
 
     @Autowired
-    private LeaveTypeRepository leaveTypeRepository;
+    private JobCheckpointService jobCheckpointService;
+
+    @Value("${leave.accrual.catch-up.enabled:true}")
+    private boolean catchUpEnabled;
 
     @Autowired
-    private UserRepository userRepository;
+    private AccrualPolicyService accrualPolicyService;
 
-    private static final double MONTHLY_PTO_ACCRUAL = 1.66;
-    private static final int MAX_CARRYOVER_DAYS = 5;
+    @Autowired
+    private JobLeaseService jobLeaseService;
 
-    // Monthly accrual job
+    // Monthly accrual job: every accruing leave type, in pages of active users, resumable from the checkpoint
     @Scheduled(cron = "0 0 0 1 * ?") // Runs at midnight on the 1st of every month
-    @Transactional
     public void processMonthlyAccruals() {
-        List<User> activeUsers = userRepository.findByActiveTrue();
-        
-        for (User user : activeUsers) {
-            processUserAccrual(user);
+        jobLeaseService.runExclusively(ACCRUAL_LEASE, () -> {
+            LocalDate period = LocalDate.now().withDayOfMonth(1);
+            AccrualPolicyTable policies = accrualPolicyService.compile();
+            for (AccrualPolicyTable.LeaveTypeRules rules : policies.accruing()) {
+                accrualJobRunner.run(monthlyJobName(rules), period, rules);
+            }
+        });
+    }
+
+    private static String monthlyJobName(AccrualPolicyTable.LeaveTypeRules rules) {
+        return MONTHLY_ACCRUAL_JOB + "/" + rules.code();
+    }
+
+    // A node that was down on the 1st misses the cron trigger; check at startup and again every night
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpOnStartup() {
+        if (catchUpEnabled) {
+            jobLeaseService.runExclusively(ACCRUAL_LEASE, () -> catchUpMissedAccruals(true));
         }
     }
 
-    @Transactional
-    public void processUserAccrual(User user) {
-        LocalDate today = LocalDate.now();
-        
-        // Process PTO accrual
-        LeaveType ptoLeaveType = leaveTypeRepository.findByCode("PTO");
-        if (ptoLeaveType != null) {
-            double daysToAccrue = MONTHLY_PTO_ACCRUAL;
-            
-            // Check if we need to carry over from previous year
-            if (today.getMonthValue() == 1) { // January
-                handleYearEndCarryover(user, ptoLeaveType);
-            }
-            
-            // Create new accrual record
-            LeaveAccrual accrual = new LeaveAccrual();
-            accrual.setUser(user);
-            accrual.setLeaveType(ptoLeaveType);
-            accrual.setDaysAccrued(daysToAccrue);
-            accrual.setAccrualDate(today);
-            accrual.setExpiryDate(today.plusYears(1));
-            accrual.setStatus(LeaveAccrual.AccrualStatus.ACTIVE);
-            
-            leaveAccrualRepository.save(accrual);
-            
-            // Update leave balance
-            List<LeaveBalance> balances = leaveBalanceRepository.findByUserIdAndLeaveTypeId(
-                user.getId(), ptoLeaveType.getId());
-            LeaveBalance balance;
-            if (balances.isEmpty()) {
-                balance = new LeaveBalance();
-                balance.setUser(user);
-                balance.setLeaveType(ptoLeaveType);
-                balance.setBalance(daysToAccrue);
-                balance.setTotalDays(daysToAccrue);
-                balance.setUsedDays(0);
-                balance.setRemainingDays(daysToAccrue);
-            } else {
-                balance = balances.get(0);
-                double currentBalance = balance.getBalance();
-                balance.setBalance(currentBalance + daysToAccrue);
-                balance.setTotalDays(balance.getTotalDays() + daysToAccrue);
-                balance.setRemainingDays(balance.getRemainingDays() + daysToAccrue);
-            }
-            leaveBalanceRepository.save(balance);
+    @Scheduled(cron = "${leave.accrual.catch-up-cron:0 0 2 * * *}")
+    public void catchUpMissedAccrualsNightly() {
+        if (catchUpEnabled) {
+            jobLeaseService.runExclusively(ACCRUAL_LEASE, () -> catchUpMissedAccruals(false));
         }
     }
 
-    @Transactional
-    private void handleYearEndCarryover(User user, LeaveType ptoLeaveType) {
-        LocalDate today = LocalDate.now();
-        LocalDate expiryDate = today.minusDays(1); // Last day of previous year
-        
-        // Get all active accruals from previous year
-        List<LeaveAccrual> activeAccruals = leaveAccrualRepository.findByUserIdAndLeaveTypeIdAndStatus(
-            user.getId(), ptoLeaveType.getId(), LeaveAccrual.AccrualStatus.ACTIVE);
-            
-        double totalCarryover = 0;
-        for (LeaveAccrual accrual : activeAccruals) {
-            if (accrual.getExpiryDate().isAfter(expiryDate)) {
-                totalCarryover += accrual.getDaysAccrued();
+    /**
+     * Back-fills earlier months in one pass, then runs this month's accrual if it never ran. A RUNNING
+     * checkpoint is only resumed at startup, when it can only have been left by a crashed run.
+     */
+    void catchUpMissedAccruals(boolean startup) {
+        LocalDate period = LocalDate.now().withDayOfMonth(1);
+        AccrualPolicyTable policies = accrualPolicyService.compile();
+        for (AccrualPolicyTable.LeaveTypeRules rules : policies.accruing()) {
+            LocalDate firstMissed = accrualCatchUpService.findFirstMissedPeriod(rules.leaveTypeId(), period);
+            if (firstMissed != null) {
+                logger.warn("{} accruals missed since {}; catching up", rules.code(), firstMissed);
+                accrualCatchUpService.catchUp(rules, period);
+            }
+
+            String jobName = monthlyJobName(rules);
+            Optional<JobCheckpoint> checkpoint = jobCheckpointService.find(jobName, period);
+            if (checkpoint.isEmpty() || (startup && checkpoint.get().getStatus() != JobCheckpoint.Status.COMPLETED)) {
+                logger.warn("{} for {} has not completed; running it now", jobName, period);
+                accrualJobRunner.run(jobName, period, rules);
             }
-        }
-        
-        // Cap carryover at 5 days
-        if (totalCarryover > MAX_CARRYOVER_DAYS) {
-            totalCarryover = MAX_CARRYOVER_DAYS;
-        }
-        
-        // Create carryover record
-        LeaveAccrual carryover = new LeaveAccrual();
-        carryover.setUser(user);
-        carryover.setLeaveType(ptoLeaveType);
-        carryover.setDaysAccrued(totalCarryover);
-        carryover.setAccrualDate(today);
-        carryover.setExpiryDate(today.plusDays(31)); // Expires by Jan 31st
-        carryover.setStatus(LeaveAccrual.AccrualStatus.CARRIED_OVER);
-        leaveAccrualRepository.save(carryover);
-        
-        // Update leave balance
-        List<LeaveBalance> balances = leaveBalanceRepository.findByUserIdAndLeaveTypeId(
-            user.getId(), ptoLeaveType.getId());
-        if (!balances.isEmpty()) {
-            LeaveBalance balance = balances.get(0);
-            double currentBalance = balance.getBalance();
-            balance.setBalance(currentBalance + totalCarryover);
-            balance.setTotalDays(balance.getTotalDays() + totalCarryover);
-            balance.setRemainingDays(balance.getRemainingDays() + totalCarryover);
-            leaveBalanceRepository.save(balance);
         }
     }
 }
@@ -2,14 +2,13 @@ package com.africahr.service;
 
 import com.africahr.dto.response.LeaveBalanceResponse;
 import com.africahr.entity.LeaveBalance;
+import com.africahr.entity.LeaveLedgerEntry;
 import com.africahr.entity.LeaveType;
 import com.africahr.entity.User;
-import com.africahr.exception.LeaveManagementException;
 import com.africahr.repository.LeaveBalanceRepository;
 import com.africahr.repository.LeaveTypeRepository;
-import com.africahr.repository.UserRepository;
+import com.africahr.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,25 +20,22 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class LeaveBalanceService {
     private final LeaveBalanceRepository leaveBalanceRepository;
-    private final UserRepository userRepository;
     private final LeaveTypeRepository leaveTypeRepository;
+    private final LeaveLedgerService leaveLedgerService;
+    private final LeaveCacheService leaveCacheService;
+    private final CurrentUserService currentUserService;
 
     @Transactional(readOnly = true)
     public List<LeaveBalanceResponse> getLeaveBalances() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new LeaveManagementException("User not found"));
-
-        return leaveBalanceRepository.findByUserId(user.getId()).stream()
+        return leaveBalanceRepository.findByUserId(currentUserService.get().id()).stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
     }
 
     @Transactional
     public void accrueLeave() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new LeaveManagementException("User not found"));
+        AuthenticatedUser current = currentUserService.get();
+        User user = currentUserService.reference();
 
         // Get all active leave types
         List<LeaveType> leaveTypes = leaveTypeRepository.findByActiveTrue();
@@ -50,7 +46,7 @@ public class LeaveBalanceService {
 
             // Get or create leave balance
             LeaveBalance balance = leaveBalanceRepository.findByUserIdAndLeaveTypeId(
-                    user.getId(), leaveType.getId())
+                    current.id(), leaveType.getId())
                     .stream()
                     .findFirst()
                     .orElse(new LeaveBalance());
@@ -59,37 +55,21 @@ public class LeaveBalanceService {
                 balance.setUser(user);
                 balance.setLeaveType(leaveType);
                 balance.setBalance(leaveType.getDefaultBalance());
+                balance.setTotalDays(leaveType.getDefaultBalance());
+                balance.setRemainingDays(leaveType.getDefaultBalance());
+                leaveLedgerService.record(current.id(), leaveType.getId(), LeaveLedgerEntry.EntryType.ADJUSTMENT,
+                        leaveType.getDefaultBalance(), null, "Opening balance");
             }
 
             // Add monthly accrual
             balance.setBalance(balance.getBalance() + accrual);
+            balance.setTotalDays(balance.getTotalDays() + accrual);
+            balance.setRemainingDays(balance.getRemainingDays() + accrual);
             leaveBalanceRepository.save(balance);
+            leaveLedgerService.record(current.id(), leaveType.getId(), LeaveLedgerEntry.EntryType.ACCRUAL,
+                    accrual, null, "Monthly accrual");
         }
-    }
-
-    @Transactional
-    public void processYearEndCarryover() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new LeaveManagementException("User not found"));
-
-        // Get all active leave types
-        List<LeaveType> leaveTypes = leaveTypeRepository.findByActiveTrue();
-
-        for (LeaveType leaveType : leaveTypes) {
-            LeaveBalance balance = leaveBalanceRepository.findByUserIdAndLeaveTypeId(
-                    user.getId(), leaveType.getId())
-                    .stream()
-                    .findFirst()
-                    .orElse(null);
-
-            if (balance != null) {
-                // Calculate carryover (maximum 5 days)
-                double carryover = Math.min(balance.getBalance(), leaveType.getMaxCarryForward());
-                balance.setBalance(carryover);
-                leaveBalanceRepository.save(balance);
-            }
-        }
+        leaveCacheService.evictBalances(current.email());
     }
 
     private LeaveBalanceResponse convertToResponse(LeaveBalance balance) {
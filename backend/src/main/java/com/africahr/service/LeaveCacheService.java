@@ -0,0 +1,79 @@
+package com.africahr.service;
+
+import com.africahr.config.CacheConfig;
+import com.africahr.dto.response.CacheStatsResponse;
+import com.africahr.dto.response.LeaveResponse;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user balance cache keyed by login email. Evictions made inside a transaction take effect after
+ * commit (see {@link CacheConfig}).
+ */
+@Service
+@RequiredArgsConstructor
+public class LeaveCacheService {
+
+    private final CacheManager cacheManager;
+
+    public List<LeaveResponse> getBalances(String email, Supplier<List<LeaveResponse>> loader) {
+        try {
+            return balances().get(email, loader::get);
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public void evictBalances(String email) {
+        balances().evict(email);
+    }
+
+    public void evictBalances(Collection<String> emails) {
+        emails.forEach(this::evictBalances);
+    }
+
+    public void evictAllBalances() {
+        balances().clear();
+    }
+
+    public List<CacheStatsResponse> getStats() {
+        return cacheManager.getCacheNames().stream()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .map(this::toStats)
+                .collect(Collectors.toList());
+    }
+
+    private CacheStatsResponse toStats(Cache cache) {
+        Cache target = cache instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : cache;
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache =
+                ((CaffeineCache) target).getNativeCache();
+        CacheStats stats = nativeCache.stats();
+        return CacheStatsResponse.builder()
+                .name(cache.getName())
+                .size(nativeCache.estimatedSize())
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictions(stats.evictionCount())
+                .build();
+    }
+
+    private Cache balances() {
+        return Objects.requireNonNull(cacheManager.getCache(CacheConfig.LEAVE_BALANCES));
+    }
+}
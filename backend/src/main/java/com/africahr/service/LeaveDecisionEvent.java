@@ -0,0 +1,11 @@
+package com.africahr.service;
+
+import com.africahr.entity.Leave;
+import com.africahr.enums.LeaveStatus;
+
+/**
+ * Published when a leave is approved or rejected. The leave's user and leave type must already be
+ * initialized, since the notification is sent after the transaction has committed.
+ */
+public record LeaveDecisionEvent(Leave leave, LeaveStatus decision) {
+}
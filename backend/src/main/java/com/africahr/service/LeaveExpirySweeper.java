@@ -0,0 +1,194 @@
+package com.africahr.service;
+
+import com.africahr.entity.LeaveAccrual;
+import com.africahr.entity.LeaveBalance;
+import com.africahr.entity.LeaveLedgerEntry;
+import com.africahr.repository.LeaveAccrualJdbcRepository;
+import com.africahr.repository.LeaveAccrualJdbcRepository.ExpiredAccrual;
+import com.africahr.repository.LeaveAccrualRepository;
+import com.africahr.repository.LeaveBalanceJdbcRepository;
+import com.africahr.repository.LeaveBalanceRepository;
+import com.africahr.repository.UnusedAccrual;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Expires ACTIVE and CARRIED_OVER accruals past their expiry date and takes the days off the balance.
+ * Accruals are read in keyset pages over the (status, expiry_date) index and each page is committed
+ * on its own, so the cost of a sweep depends on what expired since the last one, not on the size of
+ * the accrual table.
+ * <p>
+ * Approved leave is recorded against the accruals it consumed (daysUsed), so only the unused part of an
+ * accrual is deducted; the deduction is also capped at the days still available on the balance, so days
+ * reserved by pending requests or taken beyond the tracked accruals are not clawed back.
+ */
+@Service
+public class LeaveExpirySweeper {
+    private static final Logger logger = LoggerFactory.getLogger(LeaveExpirySweeper.class);
+
+    // Carryover first: it expires a month after January 1st and is the bulk of what expires early in the year
+    private static final List<LeaveAccrual.AccrualStatus> EXPIRING = List.of(
+            LeaveAccrual.AccrualStatus.CARRIED_OVER, LeaveAccrual.AccrualStatus.ACTIVE);
+
+    private static final String EXPIRY_LEASE = "accrual-expiry";
+
+    private final LeaveAccrualJdbcRepository leaveAccrualJdbcRepository;
+    private final LeaveAccrualRepository leaveAccrualRepository;
+    private final LeaveBalanceRepository leaveBalanceRepository;
+    private final LeaveBalanceJdbcRepository leaveBalanceJdbcRepository;
+    private final LeaveLedgerService leaveLedgerService;
+    private final LeaveCacheService leaveCacheService;
+    private final JobLeaseService jobLeaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public LeaveExpirySweeper(LeaveAccrualJdbcRepository leaveAccrualJdbcRepository,
+                              LeaveAccrualRepository leaveAccrualRepository,
+                              LeaveBalanceRepository leaveBalanceRepository,
+                              LeaveBalanceJdbcRepository leaveBalanceJdbcRepository,
+                              LeaveLedgerService leaveLedgerService,
+                              LeaveCacheService leaveCacheService,
+                              JobLeaseService jobLeaseService,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${leave.accrual.expiry-batch-size:1000}") int batchSize) {
+        this.leaveAccrualJdbcRepository = leaveAccrualJdbcRepository;
+        this.leaveAccrualRepository = leaveAccrualRepository;
+        this.leaveBalanceRepository = leaveBalanceRepository;
+        this.leaveBalanceJdbcRepository = leaveBalanceJdbcRepository;
+        this.leaveLedgerService = leaveLedgerService;
+        this.leaveCacheService = leaveCacheService;
+        this.jobLeaseService = jobLeaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${leave.accrual.expiry-cron:0 30 0 * * *}")
+    public void sweepExpiredAccruals() {
+        jobLeaseService.runExclusively(EXPIRY_LEASE, () -> sweep(LocalDate.now()));
+    }
+
+    /**
+     * Expires everything due on or before {@code today}.
+     *
+     * @return the number of accruals expired
+     */
+    public long sweep(LocalDate today) {
+        long start = System.nanoTime();
+        long expired = 0;
+        double deducted = 0;
+
+        for (LeaveAccrual.AccrualStatus status : EXPIRING) {
+            LocalDate afterExpiry = LocalDate.EPOCH;
+            long afterId = 0;
+            List<ExpiredAccrual> page;
+            do {
+                page = leaveAccrualJdbcRepository.findExpired(status, today, afterExpiry, afterId, batchSize);
+                if (page.isEmpty()) {
+                    break;
+                }
+                List<ExpiredAccrual> accruals = page;
+                SweepResult result = transactionTemplate.execute(tx -> expire(accruals, status, today));
+                expired += result.expired();
+                deducted += result.deducted();
+
+                ExpiredAccrual last = page.get(page.size() - 1);
+                afterExpiry = last.expiryDate();
+                afterId = last.id();
+            } while (page.size() == batchSize);
+        }
+
+        if (expired > 0) {
+            logger.info("Expired {} accruals, {} days deducted in {} ms",
+                    expired, deducted, (System.nanoTime() - start) / 1_000_000);
+        }
+        return expired;
+    }
+
+    private record SweepResult(int expired, double deducted) {
+    }
+
+    private record BalanceKey(Long userId, Long leaveTypeId) {
+    }
+
+    private SweepResult expire(List<ExpiredAccrual> page, LeaveAccrual.AccrualStatus status, LocalDate today) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> leaveTypeIds = new HashSet<>();
+        List<Long> ids = new ArrayList<>(page.size());
+        for (ExpiredAccrual accrual : page) {
+            userIds.add(accrual.userId());
+            leaveTypeIds.add(accrual.leaveTypeId());
+            ids.add(accrual.id());
+        }
+
+        // Balances first, as approvals do: the days they consumed under the same lock are settled when read below
+        Map<BalanceKey, LeaveBalance> balances = new HashMap<>();
+        for (LeaveBalance balance : leaveBalanceRepository.lockByUserIdsAndLeaveTypeIds(userIds, leaveTypeIds)) {
+            balances.putIfAbsent(new BalanceKey(balance.getUser().getId(), balance.getLeaveType().getId()), balance);
+        }
+        int[] updated = leaveAccrualJdbcRepository.markExpired(ids, status);
+
+        // Only accruals this transaction actually flipped are deducted, so overlapping sweeps cannot double count
+        List<Long> flipped = new ArrayList<>();
+        for (int i = 0; i < page.size(); i++) {
+            if (updated[i] != 0) {
+                flipped.add(page.get(i).id());
+            }
+        }
+        if (flipped.isEmpty()) {
+            return new SweepResult(0, 0);
+        }
+        Map<Long, Double> unusedById = new HashMap<>();
+        for (UnusedAccrual unused : leaveAccrualRepository.findUnused(flipped)) {
+            unusedById.put(unused.getId(), unused.getDays());
+        }
+
+        Map<BalanceKey, Double> expiredDays = new LinkedHashMap<>();
+        for (ExpiredAccrual accrual : page) {
+            Double unused = unusedById.get(accrual.id());
+            if (unused != null) {
+                expiredDays.merge(new BalanceKey(accrual.userId(), accrual.leaveTypeId()), unused, Double::sum);
+            }
+        }
+
+        String description = status == LeaveAccrual.AccrualStatus.CARRIED_OVER
+                ? "Expired carryover" : "Expired accrual";
+        Map<Long, Double> deductions = new LinkedHashMap<>();
+        List<LeaveLedgerEntry> entries = new ArrayList<>();
+        List<String> emails = new ArrayList<>();
+        double deducted = 0;
+        for (Map.Entry<BalanceKey, Double> entry : expiredDays.entrySet()) {
+            LeaveBalance balance = balances.get(entry.getKey());
+            if (balance == null) {
+                continue;
+            }
+            double days = Math.min(entry.getValue(), Math.max(0, balance.getAvailableDays()));
+            if (days <= 0) {
+                continue;
+            }
+            deductions.put(balance.getId(), days);
+            entries.add(LeaveLedgerService.entry(entry.getKey().userId(), entry.getKey().leaveTypeId(),
+                    LeaveLedgerEntry.EntryType.EXPIRY, -days, null, description));
+            emails.add(balance.getUser().getEmail());
+            deducted += days;
+        }
+
+        leaveBalanceJdbcRepository.deductExpired(deductions, today);
+        leaveLedgerService.recordAll(entries);
+        leaveCacheService.evictBalances(emails);
+        return new SweepResult(flipped.size(), deducted);
+    }
+}
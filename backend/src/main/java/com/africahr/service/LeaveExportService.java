@@ -0,0 +1,170 @@
+package com.africahr.service;
+
+import com.africahr.dto.response.LeaveExportRow;
+import com.africahr.entity.Leave;
+import com.africahr.exception.LeaveManagementException;
+import com.africahr.repository.LeaveRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Writes the leave history straight from a forward-only result set to the response, clearing the
+ * persistence context every {@value #DETACH_INTERVAL} rows so memory stays flat regardless of row count.
+ */
+@Service
+public class LeaveExportService {
+    private static final Logger logger = LoggerFactory.getLogger(LeaveExportService.class);
+    private static final int DETACH_INTERVAL = 500;
+    private static final String CSV_HEADER = "id,userId,userName,userEmail,leaveType,startDate,endDate," +
+            "status,reason,approverComment,createdAt,updatedAt";
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format from(String value) {
+            try {
+                return Format.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new LeaveManagementException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    private final LeaveRepository leaveRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public LeaveExportService(LeaveRepository leaveRepository,
+                              EntityManager entityManager,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager) {
+        this.leaveRepository = leaveRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public StreamingResponseBody export(Format format, LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new LeaveManagementException("From date cannot be after to date");
+        }
+
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            long rows = readOnlyTransaction.execute(status -> {
+                try (Stream<Leave> leaves = leaveRepository.streamForExport(from, to)) {
+                    return writeRows(format, leaves.iterator(), writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+            logger.info("Exported {} leave records as {}", rows, format);
+        };
+    }
+
+    private long writeRows(Format format, Iterator<Leave> leaves, Writer writer) throws IOException {
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long rows = 0;
+        while (leaves.hasNext()) {
+            LeaveExportRow row = toRow(leaves.next());
+            if (format == Format.CSV) {
+                writeCsv(row, writer);
+            } else {
+                writer.write(objectMapper.writeValueAsString(row));
+                writer.write('\n');
+            }
+
+            if (++rows % DETACH_INTERVAL == 0) {
+                entityManager.clear();
+                writer.flush();
+            }
+        }
+        return rows;
+    }
+
+    private LeaveExportRow toRow(Leave leave) {
+        return LeaveExportRow.builder()
+                .id(leave.getId())
+                .userId(leave.getUser().getId())
+                .userName(leave.getUser().getFullName())
+                .userEmail(leave.getUser().getEmail())
+                .leaveType(leave.getLeaveType().getName())
+                .startDate(leave.getStartDate())
+                .endDate(leave.getEndDate())
+                .status(leave.getStatus().name())
+                .reason(leave.getReason())
+                .approverComment(leave.getApproverComment())
+                .createdAt(leave.getCreatedAt())
+                .updatedAt(leave.getUpdatedAt())
+                .build();
+    }
+
+    private void writeCsv(LeaveExportRow row, Writer writer) throws IOException {
+        writer.write(String.join(",",
+                csv(row.getId()),
+                csv(row.getUserId()),
+                csv(row.getUserName()),
+                csv(row.getUserEmail()),
+                csv(row.getLeaveType()),
+                csv(row.getStartDate()),
+                csv(row.getEndDate()),
+                csv(row.getStatus()),
+                csv(row.getReason()),
+                csv(row.getApproverComment()),
+                csv(row.getCreatedAt()),
+                csv(row.getUpdatedAt())));
+        writer.write('\n');
+    }
+
+    private String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
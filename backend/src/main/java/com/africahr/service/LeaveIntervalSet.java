@@ -0,0 +1,37 @@
+package com.africahr.service;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Disjoint, merged date intervals of one user, keyed by start date. Because merged intervals are sorted
+ * by both start and end, only the interval starting at or before a candidate's end can overlap it,
+ * so checks and inserts are O(log n).
+ */
+class LeaveIntervalSet {
+    private final TreeMap<LocalDate, LocalDate> intervals = new TreeMap<>();
+
+    boolean overlaps(LocalDate start, LocalDate end) {
+        Map.Entry<LocalDate, LocalDate> candidate = intervals.floorEntry(end);
+        return candidate != null && !candidate.getValue().isBefore(start);
+    }
+
+    void add(LocalDate start, LocalDate end) {
+        LocalDate mergedStart = start;
+        LocalDate mergedEnd = end;
+
+        Map.Entry<LocalDate, LocalDate> candidate = intervals.floorEntry(end);
+        while (candidate != null && !candidate.getValue().isBefore(mergedStart)) {
+            if (candidate.getKey().isBefore(mergedStart)) {
+                mergedStart = candidate.getKey();
+            }
+            if (candidate.getValue().isAfter(mergedEnd)) {
+                mergedEnd = candidate.getValue();
+            }
+            intervals.remove(candidate.getKey());
+            candidate = intervals.floorEntry(end);
+        }
+        intervals.put(mergedStart, mergedEnd);
+    }
+}
@@ -0,0 +1,110 @@
+package com.africahr.service;
+
+import com.africahr.dto.response.LedgerBalanceResponse;
+import com.africahr.entity.LeaveLedgerEntry;
+import com.africahr.entity.LeaveType;
+import com.africahr.exception.LeaveManagementException;
+import com.africahr.repository.LeaveBalanceSnapshotRepository;
+import com.africahr.repository.LeaveLedgerJdbcRepository;
+import com.africahr.repository.LeaveLedgerRepository;
+import com.africahr.repository.LeaveTypeRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only record of every balance movement. A balance as of any date is the latest snapshot on or
+ * before that date plus the entries the snapshot has not counted.
+ */
+@Service
+@RequiredArgsConstructor
+public class LeaveLedgerService {
+    private static final Logger logger = LoggerFactory.getLogger(LeaveLedgerService.class);
+    private static final String SNAPSHOT_LEASE = "ledger-snapshot";
+
+    private final LeaveLedgerRepository leaveLedgerRepository;
+    private final LeaveLedgerJdbcRepository leaveLedgerJdbcRepository;
+    private final LeaveBalanceSnapshotRepository leaveBalanceSnapshotRepository;
+    private final LeaveTypeRepository leaveTypeRepository;
+    private final JobLeaseService jobLeaseService;
+    private final CurrentUserService currentUserService;
+
+    public static LeaveLedgerEntry entry(Long userId, Long leaveTypeId, LeaveLedgerEntry.EntryType entryType,
+                                         double days, Long leaveId, String description) {
+        return LeaveLedgerEntry.builder()
+                .userId(userId)
+                .leaveTypeId(leaveTypeId)
+                .entryType(entryType)
+                .days(days)
+                .effectiveDate(LocalDate.now())
+                .leaveId(leaveId)
+                .description(description)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Transactional
+    public void record(Long userId, Long leaveTypeId, LeaveLedgerEntry.EntryType entryType,
+                       double days, Long leaveId, String description) {
+        if (days != 0) {
+            leaveLedgerRepository.save(entry(userId, leaveTypeId, entryType, days, leaveId, description));
+        }
+    }
+
+    @Transactional
+    public void recordAll(List<LeaveLedgerEntry> entries) {
+        leaveLedgerJdbcRepository.appendAll(entries.stream()
+                .filter(entry -> entry.getDays() != 0)
+                .collect(Collectors.toList()));
+    }
+
+    @Transactional(readOnly = true)
+    public double balanceAsOf(Long userId, Long leaveTypeId, LocalDate asOf) {
+        return leaveBalanceSnapshotRepository
+                .findFirstByUserIdAndLeaveTypeIdAndAsOfDateLessThanEqualOrderByAsOfDateDesc(userId, leaveTypeId, asOf)
+                .map(snapshot -> snapshot.getBalance() + leaveLedgerRepository.sumAfterSnapshot(
+                        userId, leaveTypeId, asOf, snapshot.getAsOfDate(), snapshot.getLastEntryId()))
+                .orElseGet(() -> leaveLedgerRepository.sumAfterSnapshot(userId, leaveTypeId, asOf, asOf, 0L));
+    }
+
+    @Transactional(readOnly = true)
+    public List<LedgerBalanceResponse> getBalanceHistory(LocalDate asOf) {
+        Long userId = currentUserService.get().id();
+        if (asOf.isAfter(LocalDate.now())) {
+            throw new LeaveManagementException("Balance history is only available up to today");
+        }
+
+        List<Long> leaveTypeIds = leaveLedgerRepository.findLeaveTypeIdsByUserId(userId);
+        Map<Long, LeaveType> leaveTypes = leaveTypeRepository.findAllById(leaveTypeIds).stream()
+                .collect(Collectors.toMap(LeaveType::getId, Function.identity()));
+
+        return leaveTypeIds.stream()
+                .map(leaveTypeId -> LedgerBalanceResponse.builder()
+                        .leaveType(leaveTypes.get(leaveTypeId).getName())
+                        .asOf(asOf)
+                        .balance(balanceAsOf(userId, leaveTypeId, asOf))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    // Nightly: snapshot yesterday for every pair that moved since its previous snapshot
+    @Scheduled(cron = "${leave.ledger.snapshot-cron:0 30 1 * * *}")
+    @Transactional
+    public void takeSnapshots() {
+        jobLeaseService.runExclusively(SNAPSHOT_LEASE, () -> {
+            LocalDate asOf = LocalDate.now().minusDays(1);
+            int written = leaveLedgerJdbcRepository.snapshot(asOf, leaveLedgerRepository.findMaxId());
+            logger.info("Wrote {} leave balance snapshots as of {}", written, asOf);
+        });
+    }
+}
@@ -0,0 +1,37 @@
+package com.africahr.service;
+
+import com.africahr.enums.LeaveStatus;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Sends decision emails off the request thread once the decision has committed, so SMTP latency or
+ * failures never hold a transaction open or roll a decision back.
+ */
+@Component
+@RequiredArgsConstructor
+public class LeaveNotificationListener {
+    private static final Logger logger = LoggerFactory.getLogger(LeaveNotificationListener.class);
+
+    private final EmailService emailService;
+
+    @Async
+    @TransactionalEventListener
+    public void onLeaveDecision(LeaveDecisionEvent event) {
+        String to = event.leave().getUser().getEmail();
+        try {
+            if (event.decision() == LeaveStatus.APPROVED) {
+                emailService.sendLeaveApprovalNotification(to, event.leave());
+            } else {
+                emailService.sendLeaveRejectionNotification(to, event.leave());
+            }
+        } catch (Exception e) {
+            logger.error("Failed to send leave {} notification for leave {}",
+                    event.decision(), event.leave().getId(), e);
+        }
+    }
+}
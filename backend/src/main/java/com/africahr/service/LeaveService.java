@@ -1,23 +1,29 @@
 package com.africahr.service;
 
+import com.africahr.dto.request.BulkDecisionRequest;
+import com.africahr.dto.request.LeaveCursor;
+import com.africahr.dto.request.LeaveFilter;
 import com.africahr.dto.request.LeaveRequest;
+import com.africahr.dto.response.BulkDecisionResponse;
+import com.africahr.dto.response.CursorPageResponse;
 import com.africahr.dto.response.LeaveResponse;
 import com.africahr.entity.*;
 import com.africahr.enums.LeaveStatus;
 import com.africahr.enums.Role;
 import com.africahr.exception.LeaveManagementException;
 import com.africahr.repository.*;
+import com.africahr.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -25,6 +31,10 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class LeaveService {
     private static final Logger logger = LoggerFactory.getLogger(LeaveService.class);
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BULK_REQUESTS = 100;
+    private static final List<LeaveStatus> ACTIVE_STATUSES = List.of(LeaveStatus.PENDING, LeaveStatus.APPROVED);
 
     private final LeaveRepository leaveRepository;
     private final LeaveBalanceRepository leaveBalanceRepository;
@@ -33,27 +43,67 @@ public class LeaveService {
     private final LeavePolicyRepository leavePolicyRepository;
     private final EmailService emailService;
     private final DocumentStorageService documentStorageService;
+    private final OrgHierarchyService orgHierarchyService;
+    private final WorkingDayCalendar workingDayCalendar;
+    private final LeaveBalanceJdbcRepository leaveBalanceJdbcRepository;
+    private final LeaveJdbcRepository leaveJdbcRepository;
+    private final LeaveAccrualJdbcRepository leaveAccrualJdbcRepository;
+    private final LeaveLedgerService leaveLedgerService;
+    private final LeaveCacheService leaveCacheService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CurrentUserService currentUserService;
 
     @Transactional(readOnly = true)
     public List<LeaveResponse> getLeaveBalance() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new LeaveManagementException("User not found"));
+        AuthenticatedUser user = currentUserService.get();
+        return leaveCacheService.getBalances(user.email(), () ->
+                leaveBalanceRepository.findByUserId(user.id()).stream()
+                        .map(this::convertToLeaveResponse)
+                        .collect(Collectors.toList()));
+    }
 
-        return leaveBalanceRepository.findByUserId(user.getId()).stream()
-                .map(this::convertToLeaveResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPageResponse<LeaveResponse> getLeaveRequests(LeaveFilter filter) {
+        AuthenticatedUser user = currentUserService.get();
+
+        int size = resolvePageSize(filter.getSize());
+        Specification<Leave> spec = buildLeaveSpecification(user, filter);
+
+        List<Leave> leaves = leaveRepository.findBy(spec, query -> query
+                .project("user", "leaveType")
+                .sortBy(LeaveSpecifications.KEYSET_SORT)
+                .limit(size + 1)
+                .all());
+
+        boolean hasMore = leaves.size() > size;
+        List<Leave> page = hasMore ? leaves.subList(0, size) : leaves;
+        String nextCursor = null;
+        if (hasMore) {
+            Leave last = page.get(page.size() - 1);
+            nextCursor = new LeaveCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return CursorPageResponse.<LeaveResponse>builder()
+                .content(page.stream()
+                        .map(this::convertToLeaveResponse)
+                        .collect(Collectors.toList()))
+                .size(size)
+                .hasMore(hasMore)
+                .nextCursor(nextCursor)
+                .build();
     }
 
     @Transactional(readOnly = true)
-    public List<LeaveResponse> getLeaveRequests() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new LeaveManagementException("User not found"));
+    public List<LeaveResponse> getTeamCalendar(LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new LeaveManagementException("A valid date range is required");
+        }
 
-        List<Leave> leaves = user.getRole() == Role.MANAGER || user.getRole() == Role.ADMIN
-                ? leaveRepository.findAll()
-                : leaveRepository.findByUser(user);
+        AuthenticatedUser user = currentUserService.get();
+
+        List<Leave> leaves = user.role() == Role.ADMIN
+                ? leaveRepository.findLeavesInRange(LeaveStatus.APPROVED, from, to)
+                : leaveRepository.findTeamLeaves(user.id(), LeaveStatus.APPROVED, from, to);
 
         return leaves.stream()
                 .map(this::convertToLeaveResponse)
@@ -64,8 +114,7 @@ public class LeaveService {
     public LeaveResponse createLeaveRequest(LeaveRequest request, List<MultipartFile> documents) {
         validateLeaveRequest(request);
 
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByEmail(email)
+        User user = userRepository.findWithManagerByEmail(currentUserService.get().email())
                 .orElseThrow(() -> new LeaveManagementException("User not found"));
 
         LeaveType leaveType = leaveTypeRepository.findByName(request.getLeaveType())
@@ -75,10 +124,13 @@ public class LeaveService {
                                 getAvailableLeaveTypes())
                 ));
 
+        userRepository.lockById(user.getId());
+        validateNoOverlap(user, request);
+
         long duration = calculateLeaveDuration(request.getStartDate(), request.getEndDate());
-        validateLeaveBalance(user, leaveType, duration);
+        reserveLeaveBalance(user, leaveType, duration);
 
-        Leave leave = buildLeaveRequest(user, leaveType, request);
+        Leave leave = buildLeaveRequest(user, leaveType, request, duration);
         storeDocuments(leave, documents);
 
         Leave savedLeave = leaveRepository.save(leave);
@@ -88,67 +140,285 @@ public class LeaveService {
     }
 
     @Transactional
-    public LeaveResponse approveLeave(Long leaveId, String comment) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User approver = userRepository.findByEmail(email)
+    public List<LeaveResponse> createLeaveRequests(List<LeaveRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new LeaveManagementException("At least one leave request is required");
+        }
+        if (requests.size() > MAX_BULK_REQUESTS) {
+            throw new LeaveManagementException(
+                    String.format("At most %d leave requests can be submitted at once", MAX_BULK_REQUESTS));
+        }
+        requests.forEach(this::validateLeaveRequest);
+
+        User user = userRepository.findWithManagerByEmail(currentUserService.get().email())
                 .orElseThrow(() -> new LeaveManagementException("User not found"));
 
-        Leave leave = leaveRepository.findById(leaveId)
+        userRepository.lockById(user.getId());
+        LocalDate windowStart = requests.stream().map(LeaveRequest::getStartDate).min(LocalDate::compareTo).get();
+        LocalDate windowEnd = requests.stream().map(LeaveRequest::getEndDate).max(LocalDate::compareTo).get();
+
+        LeaveIntervalSet booked = new LeaveIntervalSet();
+        leaveRepository.findByUserIdAndStatusInAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
+                        user.getId(), ACTIVE_STATUSES, windowEnd, windowStart)
+                .forEach(existing -> booked.add(existing.getStartDate(), existing.getEndDate()));
+
+        Map<String, LeaveType> leaveTypes = new HashMap<>();
+        Map<LeaveType, Long> requestedDays = new LinkedHashMap<>();
+        List<Leave> leaves = new ArrayList<>();
+
+        for (LeaveRequest request : requests) {
+            if (booked.overlaps(request.getStartDate(), request.getEndDate())) {
+                throw new LeaveManagementException(String.format(
+                        "Leave from %s to %s overlaps an existing or submitted leave",
+                        request.getStartDate(), request.getEndDate()));
+            }
+            booked.add(request.getStartDate(), request.getEndDate());
+
+            LeaveType leaveType = leaveTypes.computeIfAbsent(request.getLeaveType(), name ->
+                    leaveTypeRepository.findByName(name)
+                            .orElseThrow(() -> new LeaveManagementException(
+                                    String.format("Invalid leave type '%s'. Available types: %s",
+                                            name, getAvailableLeaveTypes()))));
+
+            long duration = calculateLeaveDuration(request.getStartDate(), request.getEndDate());
+            requestedDays.merge(leaveType, duration, Long::sum);
+            leaves.add(buildLeaveRequest(user, leaveType, request, duration));
+        }
+
+        requestedDays.forEach((leaveType, days) -> reserveLeaveBalance(user, leaveType, days));
+
+        List<Leave> savedLeaves = leaveRepository.saveAll(leaves);
+        savedLeaves.forEach(leave -> notifyManager(user, leave));
+
+        return savedLeaves.stream()
+                .map(this::convertToLeaveResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public LeaveResponse approveLeave(Long leaveId, String comment) {
+        AuthenticatedUser approver = currentUserService.get();
+
+        Leave leave = leaveRepository.findWithDetailsById(leaveId)
                 .orElseThrow(() -> new LeaveManagementException("Leave request not found"));
 
-        validateApproverRights(approver);
+        validateApproverRights(approver, leave);
+        validatePending(leave);
+        transition(leave, LeaveStatus.PENDING, LeaveStatus.APPROVED);
 
-        long duration = calculateLeaveDuration(leave.getStartDate(), leave.getEndDate());
-        updateLeaveBalance(leave, duration);
+        updateLeaveBalance(leave, leaveDuration(leave), reservedDuration(leave));
 
-        leave = updateLeaveStatus(leave, approver, comment, LeaveStatus.APPROVED);
-        emailService.sendLeaveApprovalNotification(leave.getUser().getEmail(), leave);
+        leave = updateLeaveStatus(leave, currentUserService.reference(), comment, LeaveStatus.APPROVED);
+        eventPublisher.publishEvent(new LeaveDecisionEvent(leave, LeaveStatus.APPROVED));
 
         return convertToLeaveResponse(leave);
     }
 
     @Transactional
     public LeaveResponse rejectLeave(Long leaveId, String comment) {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User approver = userRepository.findByEmail(email)
-                .orElseThrow(() -> new LeaveManagementException("User not found"));
+        AuthenticatedUser approver = currentUserService.get();
 
-        Leave leave = leaveRepository.findById(leaveId)
+        Leave leave = leaveRepository.findWithDetailsById(leaveId)
                 .orElseThrow(() -> new LeaveManagementException("Leave request not found"));
 
-        validateApproverRights(approver);
+        validateApproverRights(approver, leave);
+        validatePending(leave);
+        transition(leave, LeaveStatus.PENDING, LeaveStatus.REJECTED);
+
+        releaseReservation(leave);
 
-        leave = updateLeaveStatus(leave, approver, comment, LeaveStatus.REJECTED);
-        emailService.sendLeaveRejectionNotification(leave.getUser().getEmail(), leave);
+        leave = updateLeaveStatus(leave, currentUserService.reference(), comment, LeaveStatus.REJECTED);
+        eventPublisher.publishEvent(new LeaveDecisionEvent(leave, LeaveStatus.REJECTED));
 
         return convertToLeaveResponse(leave);
     }
 
+    @Transactional
+    public LeaveResponse cancelLeave(Long leaveId) {
+        AuthenticatedUser user = currentUserService.get();
+
+        Leave leave = leaveRepository.findWithDetailsById(leaveId)
+                .orElseThrow(() -> new LeaveManagementException("Leave request not found"));
+
+        if (!leave.getUser().getId().equals(user.id()) && user.role() != Role.ADMIN) {
+            throw new LeaveManagementException("Unauthorized to cancel this leave");
+        }
+
+        if (leave.getStatus() == LeaveStatus.PENDING) {
+            transition(leave, LeaveStatus.PENDING, LeaveStatus.CANCELLED);
+            releaseReservation(leave);
+        } else if (leave.getStatus() == LeaveStatus.APPROVED && leave.getStartDate().isAfter(LocalDate.now())) {
+            transition(leave, LeaveStatus.APPROVED, LeaveStatus.CANCELLED);
+            LeaveBalance balance = findBalance(leave);
+            leaveBalanceRepository.refund(balance.getId(), leaveDuration(leave), LocalDate.now());
+            leaveAccrualJdbcRepository.release(List.of(usage(leave)));
+            leaveCacheService.evictBalances(leave.getUser().getEmail());
+            leaveLedgerService.record(leave.getUser().getId(), leave.getLeaveType().getId(),
+                    LeaveLedgerEntry.EntryType.ADJUSTMENT, leaveDuration(leave), leave.getId(), "Cancelled leave");
+        } else {
+            throw new LeaveManagementException("Only pending or future approved leaves can be cancelled");
+        }
+
+        leave.setStatus(LeaveStatus.CANCELLED);
+        leave.setUpdatedAt(LocalDateTime.now());
+        return convertToLeaveResponse(leaveRepository.save(leave));
+    }
+
+    @Transactional
+    public BulkDecisionResponse decideLeaves(BulkDecisionRequest request) {
+        if (request.getDecision() != LeaveStatus.APPROVED && request.getDecision() != LeaveStatus.REJECTED) {
+            throw new LeaveManagementException("Decision must be APPROVED or REJECTED");
+        }
+
+        AuthenticatedUser current = currentUserService.get();
+        if (current.role() != Role.MANAGER && current.role() != Role.ADMIN) {
+            throw new LeaveManagementException("Unauthorized to approve/reject leave");
+        }
+        User approver = currentUserService.reference();
+
+        Set<Long> requestedIds = new LinkedHashSet<>(request.getLeaveIds());
+        Map<Long, Leave> leavesById = leaveRepository.findWithDetailsByIdIn(requestedIds).stream()
+                .collect(Collectors.toMap(Leave::getId, leave -> leave));
+
+        Set<Long> allowedUserIds = null;
+        if (current.role() == Role.MANAGER) {
+            Set<Long> userIds = leavesById.values().stream()
+                    .map(leave -> leave.getUser().getId())
+                    .collect(Collectors.toSet());
+            allowedUserIds = orgHierarchyService.findReportIds(current.id(), userIds);
+        }
+
+        Map<Long, String> failed = new LinkedHashMap<>();
+        List<Leave> decided = new ArrayList<>();
+        for (Long id : requestedIds) {
+            Leave leave = leavesById.get(id);
+            if (leave == null) {
+                failed.put(id, "Leave request not found");
+            } else if (allowedUserIds != null && !allowedUserIds.contains(leave.getUser().getId())) {
+                failed.put(id, "Unauthorized to approve/reject leave");
+            } else if (leave.getStatus() != LeaveStatus.PENDING) {
+                failed.put(id, "Leave request is not pending");
+            } else {
+                decided.add(leave);
+            }
+        }
+
+        boolean approve = request.getDecision() == LeaveStatus.APPROVED;
+        Map<String, LeaveBalance> balances = approve && !decided.isEmpty() ? loadBalances(decided) : Map.of();
+        if (approve) {
+            decided = withinBalance(decided, balances, failed);
+        }
+        decided = transitionPending(decided, request.getDecision(), failed);
+        if (approve) {
+            deductBalances(decided, balances);
+        } else {
+            releaseReservations(decided);
+        }
+
+        List<LeaveResponse> processed = new ArrayList<>(decided.size());
+        for (Leave leave : decided) {
+            leave.setApprover(approver);
+            leave.setApproverComment(request.getComment());
+            leave.setStatus(request.getDecision());
+            leave.setUpdatedAt(LocalDateTime.now());
+            eventPublisher.publishEvent(new LeaveDecisionEvent(leave, request.getDecision()));
+            processed.add(convertToLeaveResponse(leave));
+        }
+
+        return BulkDecisionResponse.builder()
+                .processed(processed)
+                .failed(failed)
+                .build();
+    }
+
+
+    private Specification<Leave> buildLeaveSpecification(AuthenticatedUser user, LeaveFilter filter) {
+        Specification<Leave> spec = Specification.where(null);
+
+        if (user.role() == Role.ADMIN || user.role() == Role.MANAGER) {
+            if (user.role() == Role.MANAGER) {
+                spec = spec.and(LeaveSpecifications.inReportingLineOf(user.id()));
+            }
+            if (filter.getUserId() != null) {
+                spec = spec.and(LeaveSpecifications.belongsTo(filter.getUserId()));
+            }
+        } else {
+            spec = spec.and(LeaveSpecifications.belongsTo(user.id()));
+        }
+
+        if (filter.getStatus() != null) {
+            spec = spec.and(LeaveSpecifications.hasStatus(filter.getStatus()));
+        }
+        if (filter.getLeaveType() != null && !filter.getLeaveType().isBlank()) {
+            LeaveType leaveType = leaveTypeRepository.findByName(filter.getLeaveType())
+                    .orElseThrow(() -> new LeaveManagementException(
+                            String.format("Invalid leave type '%s'", filter.getLeaveType())));
+            spec = spec.and(LeaveSpecifications.hasLeaveType(leaveType.getId()));
+        }
+        if (filter.getFrom() != null && filter.getTo() != null && filter.getFrom().isAfter(filter.getTo())) {
+            throw new LeaveManagementException("From date cannot be after to date");
+        }
+        if (filter.getFrom() != null) {
+            spec = spec.and(LeaveSpecifications.endsOnOrAfter(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            spec = spec.and(LeaveSpecifications.startsOnOrBefore(filter.getTo()));
+        }
+        if (filter.getCursor() != null && !filter.getCursor().isBlank()) {
+            spec = spec.and(LeaveSpecifications.after(LeaveCursor.decode(filter.getCursor())));
+        }
+        return spec;
+    }
+
+    private int resolvePageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(requested, MAX_PAGE_SIZE);
+    }
 
     private long calculateLeaveDuration(LocalDate startDate, LocalDate endDate) {
-        return ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        long workingDays = workingDayCalendar.workingDaysBetween(startDate, endDate);
+        if (workingDays == 0) {
+            throw new LeaveManagementException(String.format(
+                    "Leave from %s to %s does not include any working days", startDate, endDate));
+        }
+        return workingDays;
+    }
+
+    private void validateNoOverlap(User user, LeaveRequest request) {
+        boolean overlapping = leaveRepository
+                .existsByUserIdAndStatusInAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
+                        user.getId(), ACTIVE_STATUSES, request.getEndDate(), request.getStartDate());
+        if (overlapping) {
+            throw new LeaveManagementException(String.format(
+                    "Leave from %s to %s overlaps an existing pending or approved leave",
+                    request.getStartDate(), request.getEndDate()));
+        }
     }
 
-    private void validateLeaveBalance(User user, LeaveType leaveType, long duration) {
+    private void reserveLeaveBalance(User user, LeaveType leaveType, long duration) {
         LeaveBalance balance = leaveBalanceRepository.findByUserIdAndLeaveType(user.getId(), leaveType)
                 .orElseThrow(() -> new LeaveManagementException(
                         String.format("No leave balance found for type %s", leaveType.getName()))
                 );
 
-        if (balance.getRemainingDays() < duration) {
+        if (leaveBalanceRepository.reserveIfAvailable(balance.getId(), duration) == 0) {
             throw new LeaveManagementException(
                     String.format("Insufficient leave balance. Requested: %d days, Available: %.1f days",
-                            duration, balance.getRemainingDays())
+                            duration, balance.getAvailableDays())
             );
         }
+        leaveCacheService.evictBalances(user.getEmail());
     }
 
-    private Leave buildLeaveRequest(User user, LeaveType leaveType, LeaveRequest request) {
+    private Leave buildLeaveRequest(User user, LeaveType leaveType, LeaveRequest request, long duration) {
         return Leave.builder()
                 .user(user)
                 .leaveType(leaveType)
                 .startDate(request.getStartDate())
                 .endDate(request.getEndDate())
+                .durationDays((int) duration)
                 .reason(request.getReason())
                 .status(LeaveStatus.PENDING)
                 .createdAt(LocalDateTime.now())
@@ -177,19 +447,180 @@ public class LeaveService {
         }
     }
 
-    private void validateApproverRights(User approver) {
-        if (approver.getRole() != Role.MANAGER && approver.getRole() != Role.ADMIN) {
+    private void validateApproverRights(AuthenticatedUser approver, Leave leave) {
+        if (approver.role() == Role.ADMIN) {
+            return;
+        }
+        if (approver.role() != Role.MANAGER
+                || !orgHierarchyService.isInReportingLine(approver.id(), leave.getUser().getId())) {
             throw new LeaveManagementException("Unauthorized to approve/reject leave");
         }
     }
 
-    private void updateLeaveBalance(Leave leave, long duration) {
-        LeaveBalance balance = leaveBalanceRepository.findByUserIdAndLeaveType(
-                        leave.getUser().getId(), leave.getLeaveType())
+    private void updateLeaveBalance(Leave leave, long duration, long reserved) {
+        LeaveBalance balance = findBalance(leave);
+
+        if (leaveBalanceRepository.deductIfAvailable(balance.getId(), duration, reserved, LocalDate.now()) == 0) {
+            throw new LeaveManagementException(String.format(
+                    "Insufficient leave balance. Requested: %d days", duration));
+        }
+        leaveAccrualJdbcRepository.consume(List.of(usage(leave)));
+        leaveLedgerService.record(leave.getUser().getId(), leave.getLeaveType().getId(),
+                LeaveLedgerEntry.EntryType.USAGE, -duration, leave.getId(), "Approved leave");
+        leaveCacheService.evictBalances(leave.getUser().getEmail());
+    }
+
+    private LeaveAccrualJdbcRepository.Usage usage(Leave leave) {
+        return new LeaveAccrualJdbcRepository.Usage(leave.getUser().getId(), leave.getLeaveType().getId(),
+                leaveDuration(leave));
+    }
+
+    private void releaseReservation(Leave leave) {
+        if (leave.getDurationDays() != null) {
+            leaveBalanceRepository.releaseReserved(findBalance(leave).getId(), leave.getDurationDays());
+            leaveCacheService.evictBalances(leave.getUser().getEmail());
+        }
+    }
+
+    private LeaveBalance findBalance(Leave leave) {
+        return leaveBalanceRepository.findByUserIdAndLeaveType(leave.getUser().getId(), leave.getLeaveType())
                 .orElseThrow(() -> new LeaveManagementException("No leave balance found"));
+    }
+
+    private long leaveDuration(Leave leave) {
+        return leave.getDurationDays() != null
+                ? leave.getDurationDays()
+                : calculateLeaveDuration(leave.getStartDate(), leave.getEndDate());
+    }
+
+    private long reservedDuration(Leave leave) {
+        return leave.getDurationDays() != null ? leave.getDurationDays() : 0;
+    }
+
+    private void validatePending(Leave leave) {
+        if (leave.getStatus() != LeaveStatus.PENDING) {
+            throw new LeaveManagementException("Leave request is not pending");
+        }
+    }
+
+    // The status read with the leave can be stale; this conditional update is what holds under concurrent decisions
+    private void transition(Leave leave, LeaveStatus from, LeaveStatus to) {
+        if (leaveRepository.updateStatusIf(leave.getId(), from, to, LocalDateTime.now()) == 0) {
+            throw new LeaveManagementException("Leave request is no longer " + from.name().toLowerCase());
+        }
+    }
+
+    private List<Leave> transitionPending(List<Leave> leaves, LeaveStatus decision, Map<Long, String> failed) {
+        Set<Long> skipped = new HashSet<>(leaveJdbcRepository.updateStatusIf(
+                leaves.stream().map(Leave::getId).collect(Collectors.toList()),
+                LeaveStatus.PENDING, decision, LocalDateTime.now()));
+        if (skipped.isEmpty()) {
+            return leaves;
+        }
+
+        List<Leave> moved = new ArrayList<>(leaves.size() - skipped.size());
+        for (Leave leave : leaves) {
+            if (skipped.contains(leave.getId())) {
+                failed.put(leave.getId(), "Leave request is no longer pending");
+            } else {
+                moved.add(leave);
+            }
+        }
+        return moved;
+    }
+
+    // Leaves whose balance, as read, covers them together with the others of the batch on the same balance
+    private List<Leave> withinBalance(List<Leave> leaves, Map<String, LeaveBalance> balances,
+                                      Map<Long, String> failed) {
+        Map<Long, Double> requested = new HashMap<>();
+        List<Leave> covered = new ArrayList<>();
+        for (Leave leave : leaves) {
+            LeaveBalance balance = balances.get(balanceKey(leave.getUser().getId(), leave.getLeaveType().getId()));
+            if (balance == null) {
+                failed.put(leave.getId(), "No leave balance found");
+                continue;
+            }
+
+            double total = requested.getOrDefault(balance.getId(), 0.0) + leaveDuration(leave);
+            if (balance.getRemainingDays() < total) {
+                failed.put(leave.getId(), "Insufficient leave balance");
+                continue;
+            }
+
+            requested.put(balance.getId(), total);
+            covered.add(leave);
+        }
+        return covered;
+    }
+
+    private void deductBalances(List<Leave> approved, Map<String, LeaveBalance> balances) {
+        if (approved.isEmpty()) {
+            return;
+        }
+
+        Map<Long, LeaveBalanceJdbcRepository.Deduction> deductions = new LinkedHashMap<>();
+        for (Leave leave : approved) {
+            LeaveBalance balance = balances.get(balanceKey(leave.getUser().getId(), leave.getLeaveType().getId()));
+            deductions.merge(balance.getId(),
+                    new LeaveBalanceJdbcRepository.Deduction(leaveDuration(leave), reservedDuration(leave)),
+                    LeaveBalanceJdbcRepository.Deduction::plus);
+        }
+
+        if (!leaveBalanceJdbcRepository.deductIfAvailable(deductions).isEmpty()) {
+            // Another approval drew on one of these balances after it was read; roll back the whole batch.
+            throw new LeaveManagementException("Leave balances changed during approval, please retry");
+        }
+        leaveAccrualJdbcRepository.consume(approved.stream().map(this::usage).collect(Collectors.toList()));
+        leaveLedgerService.recordAll(approved.stream()
+                .map(leave -> LeaveLedgerService.entry(leave.getUser().getId(), leave.getLeaveType().getId(),
+                        LeaveLedgerEntry.EntryType.USAGE, -leaveDuration(leave), leave.getId(), "Approved leave"))
+                .collect(Collectors.toList()));
+        leaveCacheService.evictBalances(balanceOwners(approved));
+    }
+
+    private void releaseReservations(List<Leave> leaves) {
+        List<Leave> reserving = leaves.stream()
+                .filter(leave -> leave.getDurationDays() != null)
+                .collect(Collectors.toList());
+        if (reserving.isEmpty()) {
+            return;
+        }
+
+        Map<String, LeaveBalance> balances = loadBalances(reserving);
+        Map<Long, Double> releases = new LinkedHashMap<>();
+        for (Leave leave : reserving) {
+            LeaveBalance balance = balances.get(balanceKey(leave.getUser().getId(), leave.getLeaveType().getId()));
+            if (balance != null) {
+                releases.merge(balance.getId(), (double) reservedDuration(leave), Double::sum);
+            }
+        }
+        leaveBalanceJdbcRepository.releaseReserved(releases);
+        leaveCacheService.evictBalances(balanceOwners(reserving));
+    }
+
+    private static Set<String> balanceOwners(List<Leave> leaves) {
+        return leaves.stream()
+                .map(leave -> leave.getUser().getEmail())
+                .collect(Collectors.toSet());
+    }
+
+    private Map<String, LeaveBalance> loadBalances(List<Leave> leaves) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> leaveTypeIds = new HashSet<>();
+        leaves.forEach(leave -> {
+            userIds.add(leave.getUser().getId());
+            leaveTypeIds.add(leave.getLeaveType().getId());
+        });
+
+        Map<String, LeaveBalance> balances = new HashMap<>();
+        for (LeaveBalance balance : leaveBalanceRepository.findByUserIdsAndLeaveTypeIds(userIds, leaveTypeIds)) {
+            balances.putIfAbsent(balanceKey(balance.getUser().getId(), balance.getLeaveType().getId()), balance);
+        }
+        return balances;
+    }
 
-        balance.setRemainingDays(balance.getRemainingDays() - duration);
-        leaveBalanceRepository.save(balance);
+    private static String balanceKey(Long userId, Long leaveTypeId) {
+        return userId + ":" + leaveTypeId;
     }
 
     private Leave updateLeaveStatus(Leave leave, User approver, String comment, LeaveStatus status) {
@@ -229,6 +660,7 @@ public class LeaveService {
                 .userName(balance.getUser().getFullName())
                 .leaveType(balance.getLeaveType().getName())
                 .remainingDays(balance.getRemainingDays())
+                .reservedDays(balance.getReservedDays())
                 .totalDays(balance.getTotalDays())
                 .build();
     }
@@ -0,0 +1,95 @@
+package com.africahr.service;
+
+import com.africahr.entity.User;
+import com.africahr.exception.LeaveManagementException;
+import com.africahr.repository.UserHierarchyRepository;
+import com.africahr.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Keeps the {@code user_hierarchy} closure table in step with {@code User.manager}.
+ * Manager changes move a whole subtree with two set-based statements instead of rebuilding the table.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrgHierarchyService {
+    private static final Logger logger = LoggerFactory.getLogger(OrgHierarchyService.class);
+    private static final int MAX_DEPTH = 64;
+
+    private final UserHierarchyRepository userHierarchyRepository;
+    private final UserRepository userRepository;
+
+    @Transactional
+    public void registerUser(User user) {
+        userHierarchyRepository.insertSelf(user.getId());
+        if (user.getManager() != null) {
+            userHierarchyRepository.attachSubtree(user.getId(), user.getManager().getId());
+        }
+    }
+
+    @Transactional
+    public void assignManager(Long userId, Long managerId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new LeaveManagementException("User not found"));
+
+        User manager = null;
+        if (managerId != null) {
+            manager = userRepository.findById(managerId)
+                    .orElseThrow(() -> new LeaveManagementException("Manager not found"));
+            if (userHierarchyRepository.existsByAncestorIdAndDescendantId(userId, managerId)) {
+                throw new LeaveManagementException("A user cannot report to themselves or to one of their reports");
+            }
+        }
+
+        userHierarchyRepository.detachSubtree(userId);
+        if (manager != null) {
+            userHierarchyRepository.attachSubtree(userId, managerId);
+        }
+
+        user.setManager(manager);
+        userRepository.save(user);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isInReportingLine(Long managerId, Long userId) {
+        return userHierarchyRepository.existsByAncestorIdAndDescendantIdAndDepthGreaterThan(managerId, userId, 0);
+    }
+
+    @Transactional(readOnly = true)
+    public Set<Long> findReportIds(Long managerId, Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Set.of();
+        }
+        return userHierarchyRepository.findReportIds(managerId, userIds);
+    }
+
+    @Transactional
+    public int rebuild() {
+        userHierarchyRepository.deleteAllRows();
+        int rows = userHierarchyRepository.rebuildFromManagers(MAX_DEPTH);
+        logger.info("Rebuilt user hierarchy with {} rows", rows);
+        return rows;
+    }
+
+    /**
+     * Rebuilds the table at startup when any user is missing from it, which also covers the first start.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initializeIfIncomplete() {
+        long missing = userHierarchyRepository.countUsersWithoutSelfRow();
+        if (missing > 0) {
+            logger.info("{} users are missing from the user hierarchy", missing);
+            rebuild();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.africahr.service;
+
+import com.africahr.dto.response.AbsentUserResponse;
+import com.africahr.dto.response.TeamAvailabilityResponse;
+import com.africahr.enums.LeaveStatus;
+import com.africahr.enums.Role;
+import com.africahr.exception.LeaveManagementException;
+import com.africahr.repository.AbsenceInterval;
+import com.africahr.repository.LeaveRepository;
+import com.africahr.security.AuthenticatedUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Per-day absence counts for a department or a manager's team. All approved leaves overlapping the
+ * range are loaded in one query and folded into a difference array, so the cost is O(leaves + days)
+ * no matter how long the range is.
+ */
+@Service
+@RequiredArgsConstructor
+public class TeamAvailabilityService {
+    private static final int MAX_RANGE_DAYS = 366;
+
+    public enum Scope {
+        DEPARTMENT,
+        TEAM
+    }
+
+    private final LeaveRepository leaveRepository;
+    private final CurrentUserService currentUserService;
+
+    @Transactional(readOnly = true)
+    public TeamAvailabilityResponse getAvailability(Scope scope, Long departmentId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+
+        int[] absences = new int[days + 1];
+        for (AbsenceInterval interval : loadAbsences(scope, departmentId, from, to)) {
+            LocalDate start = interval.getStartDate().isBefore(from) ? from : interval.getStartDate();
+            LocalDate end = interval.getEndDate().isAfter(to) ? to : interval.getEndDate();
+            absences[(int) ChronoUnit.DAYS.between(from, start)]++;
+            absences[(int) ChronoUnit.DAYS.between(from, end) + 1]--;
+        }
+
+        int[] counts = new int[days];
+        int running = 0;
+        int peak = 0;
+        for (int day = 0; day < days; day++) {
+            running += absences[day];
+            counts[day] = running;
+            peak = Math.max(peak, running);
+        }
+
+        return TeamAvailabilityResponse.builder()
+                .from(from)
+                .to(to)
+                .absences(counts)
+                .peakAbsences(peak)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public List<AbsentUserResponse> getAbsentUsers(Scope scope, Long departmentId, LocalDate date) {
+        if (date == null) {
+            throw new LeaveManagementException("Date is required");
+        }
+
+        return loadAbsences(scope, departmentId, date, date).stream()
+                .map(interval -> AbsentUserResponse.builder()
+                        .userId(interval.getUserId())
+                        .userName(interval.getFirstName() + " " + interval.getLastName())
+                        .startDate(interval.getStartDate())
+                        .endDate(interval.getEndDate())
+                        .build())
+                .sorted(Comparator.comparing(AbsentUserResponse::getUserName))
+                .collect(Collectors.toList());
+    }
+
+    private List<AbsenceInterval> loadAbsences(Scope scope, Long departmentId, LocalDate from, LocalDate to) {
+        AuthenticatedUser user = currentUserService.get();
+
+        if (scope == Scope.TEAM) {
+            return leaveRepository.findTeamAbsences(user.id(), LeaveStatus.APPROVED, from, to);
+        }
+
+        // The department is not in the token; read it from the cached user state
+        Long ownDepartmentId = currentUserService.getState().getDepartmentId();
+        Long targetDepartmentId = departmentId != null ? departmentId : ownDepartmentId;
+        if (targetDepartmentId == null) {
+            throw new LeaveManagementException("Department is required");
+        }
+        if (user.role() != Role.ADMIN && !targetDepartmentId.equals(ownDepartmentId)) {
+            throw new LeaveManagementException("Unauthorized to view another department");
+        }
+        return leaveRepository.findDepartmentAbsences(targetDepartmentId, LeaveStatus.APPROVED, from, to);
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new LeaveManagementException("A valid date range is required");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new LeaveManagementException(
+                    String.format("Date range cannot exceed %d days", MAX_RANGE_DAYS));
+        }
+    }
+}
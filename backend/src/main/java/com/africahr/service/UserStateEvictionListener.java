@@ -0,0 +1,29 @@
+package com.africahr.service;
+
+import com.africahr.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts the cached {@link com.africahr.repository.UserState} of a user whose row is updated or
+ * deleted, so a change of role, department or active flag applies to the user's next request. The
+ * cache is transaction aware, so the eviction happens when the change commits.
+ */
+@Component
+public class UserStateEvictionListener {
+
+    // Looked up lazily: Hibernate creates the listener while building the entity manager factory
+    private final ObjectProvider<CurrentUserService> currentUserService;
+
+    public UserStateEvictionListener(ObjectProvider<CurrentUserService> currentUserService) {
+        this.currentUserService = currentUserService;
+    }
+
+    @PostUpdate
+    @PostRemove
+    void evict(User user) {
+        currentUserService.getObject().evictState(user.getEmail());
+    }
+}
@@ -0,0 +1,125 @@
+package com.africahr.service;
+
+import com.africahr.entity.PublicHoliday;
+import com.africahr.repository.PublicHolidayRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Working-day arithmetic backed by one bitmap per calendar year (weekends and public holidays cleared)
+ * plus prefix counts, so counting the working days of a range needs no database access once the year
+ * is loaded. A year is rebuilt after a holiday change commits on this node, and in any case once it is
+ * older than {@code leave.calendar.refresh-interval}, so changes made through another node show up too.
+ */
+@Component
+public class WorkingDayCalendar {
+
+    public record HolidaysChanged(int year) {
+    }
+
+    private final PublicHolidayRepository publicHolidayRepository;
+    private final Set<DayOfWeek> weekendDays;
+    private final long refreshNanos;
+    private final Map<Integer, YearCalendar> years = new ConcurrentHashMap<>();
+
+    public WorkingDayCalendar(PublicHolidayRepository publicHolidayRepository,
+                              @Value("${leave.calendar.weekend-days:SATURDAY,SUNDAY}") List<DayOfWeek> weekendDays,
+                              @Value("${leave.calendar.refresh-interval:10m}") Duration refreshInterval) {
+        this.publicHolidayRepository = publicHolidayRepository;
+        this.weekendDays = weekendDays.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(weekendDays);
+        this.refreshNanos = refreshInterval.toNanos();
+    }
+
+    public long workingDaysBetween(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            return 0;
+        }
+
+        long total = 0;
+        for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+            YearCalendar calendar = yearCalendar(year);
+            int from = year == startDate.getYear() ? startDate.getDayOfYear() - 1 : 0;
+            int to = year == endDate.getYear() ? endDate.getDayOfYear() - 1 : calendar.length() - 1;
+            total += calendar.count(from, to);
+        }
+        return total;
+    }
+
+    public boolean isWorkingDay(LocalDate date) {
+        return yearCalendar(date.getYear()).isWorkingDay(date.getDayOfYear() - 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHolidaysChanged(HolidaysChanged event) {
+        years.remove(event.year());
+    }
+
+    private YearCalendar yearCalendar(int year) {
+        YearCalendar calendar = years.get(year);
+        if (calendar != null && !calendar.isStale(System.nanoTime())) {
+            return calendar;
+        }
+        return years.compute(year, (key, current) ->
+                current == null || current.isStale(System.nanoTime()) ? buildYear(key) : current);
+    }
+
+    private YearCalendar buildYear(int year) {
+        LocalDate first = LocalDate.of(year, 1, 1);
+        int length = first.lengthOfYear();
+
+        BitSet working = new BitSet(length);
+        for (int day = 0; day < length; day++) {
+            if (!weekendDays.contains(first.plusDays(day).getDayOfWeek())) {
+                working.set(day);
+            }
+        }
+        for (PublicHoliday holiday : publicHolidayRepository.findByDateBetween(first, LocalDate.of(year, 12, 31))) {
+            working.clear(holiday.getDate().getDayOfYear() - 1);
+        }
+
+        return new YearCalendar(working, length, System.nanoTime() + refreshNanos);
+    }
+
+    private static final class YearCalendar {
+        private final BitSet working;
+        // prefix[i] = number of working days among the first i days of the year
+        private final int[] prefix;
+        private final long refreshAt;
+
+        private YearCalendar(BitSet working, int length, long refreshAt) {
+            this.working = working;
+            this.refreshAt = refreshAt;
+            this.prefix = new int[length + 1];
+            for (int day = 0; day < length; day++) {
+                prefix[day + 1] = prefix[day] + (working.get(day) ? 1 : 0);
+            }
+        }
+
+        int length() {
+            return prefix.length - 1;
+        }
+
+        int count(int fromDay, int toDay) {
+            return prefix[toDay + 1] - prefix[fromDay];
+        }
+
+        boolean isWorkingDay(int day) {
+            return working.get(day);
+        }
+
+        boolean isStale(long now) {
+            return now - refreshAt >= 0;
+        }
+    }
+}
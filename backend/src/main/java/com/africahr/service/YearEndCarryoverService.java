@@ -0,0 +1,208 @@
+package com.africahr.service;
+
+import com.africahr.dto.response.YearEndCarryoverResponse;
+import com.africahr.entity.JobCheckpoint;
+import com.africahr.entity.LeaveBalance;
+import com.africahr.entity.LeaveLedgerEntry;
+import com.africahr.exception.LeaveManagementException;
+import com.africahr.repository.AccrualUser;
+import com.africahr.repository.JobCheckpointRepository;
+import com.africahr.repository.LeaveAccrualJdbcRepository;
+import com.africahr.repository.LeaveAccrualJdbcRepository.NewAccrual;
+import com.africahr.repository.LeaveBalanceJdbcRepository;
+import com.africahr.repository.LeaveBalanceJdbcRepository.Carryover;
+import com.africahr.repository.LeaveBalanceRepository;
+import com.africahr.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Closes a leave year for the whole company with the January carryover of the accrual job
+ * ({@link CarryoverFolder}): what each balance of an accruing leave type has available at the end of the
+ * year is carried over up to the cap of the accrual policies, and the rest is forfeited. The new year's
+ * accruals are left out, so running it after January 1st does not carry them, and balances the monthly
+ * job already carried over are skipped.
+ * <p>
+ * Users are read in keyset pages of {@code leave.carryover.chunk-size}; each page locks its balances,
+ * marks the folded accruals, writes the carryovers, balances and ledger entries as JDBC batches and
+ * advances the checkpoint in the same transaction. A failed run resumes after the last committed page,
+ * and a balance is never carried over twice.
+ */
+@Service
+public class YearEndCarryoverService {
+    private static final Logger logger = LoggerFactory.getLogger(YearEndCarryoverService.class);
+    static final String YEAR_END_CARRYOVER_JOB = "year-end-carryover";
+
+    private final UserRepository userRepository;
+    private final LeaveBalanceRepository leaveBalanceRepository;
+    private final LeaveBalanceJdbcRepository leaveBalanceJdbcRepository;
+    private final LeaveAccrualJdbcRepository leaveAccrualJdbcRepository;
+    private final AccrualPolicyService accrualPolicyService;
+    private final CarryoverFolder carryoverFolder;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final JobCheckpointService jobCheckpointService;
+    private final JobLeaseService jobLeaseService;
+    private final LeaveLedgerService leaveLedgerService;
+    private final LeaveCacheService leaveCacheService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public YearEndCarryoverService(UserRepository userRepository,
+                                   LeaveBalanceRepository leaveBalanceRepository,
+                                   LeaveBalanceJdbcRepository leaveBalanceJdbcRepository,
+                                   LeaveAccrualJdbcRepository leaveAccrualJdbcRepository,
+                                   AccrualPolicyService accrualPolicyService,
+                                   CarryoverFolder carryoverFolder,
+                                   JobCheckpointRepository jobCheckpointRepository,
+                                   JobCheckpointService jobCheckpointService,
+                                   JobLeaseService jobLeaseService,
+                                   LeaveLedgerService leaveLedgerService,
+                                   LeaveCacheService leaveCacheService,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${leave.carryover.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.leaveBalanceRepository = leaveBalanceRepository;
+        this.leaveBalanceJdbcRepository = leaveBalanceJdbcRepository;
+        this.leaveAccrualJdbcRepository = leaveAccrualJdbcRepository;
+        this.accrualPolicyService = accrualPolicyService;
+        this.carryoverFolder = carryoverFolder;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.jobCheckpointService = jobCheckpointService;
+        this.jobLeaseService = jobLeaseService;
+        this.leaveLedgerService = leaveLedgerService;
+        this.leaveCacheService = leaveCacheService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    private record ChunkTotals(long balances, double carried, double forfeited) {
+        static final ChunkTotals EMPTY = new ChunkTotals(0, 0, 0);
+
+        ChunkTotals plus(ChunkTotals other) {
+            return new ChunkTotals(balances + other.balances, carried + other.carried, forfeited + other.forfeited);
+        }
+    }
+
+    /**
+     * Carries every balance over from {@code year} into the next one.
+     */
+    public YearEndCarryoverResponse closeYear(int year) {
+        if (year >= LocalDate.now().getYear()) {
+            throw new LeaveManagementException("Year " + year + " has not ended yet");
+        }
+
+        YearEndCarryoverResponse[] response = new YearEndCarryoverResponse[1];
+        boolean ran = jobLeaseService.runExclusively(YEAR_END_CARRYOVER_JOB, () -> response[0] = run(year));
+        if (!ran) {
+            throw new LeaveManagementException("Year-end carryover is already running or has just run");
+        }
+        return response[0];
+    }
+
+    YearEndCarryoverResponse run(int year) {
+        long start = System.nanoTime();
+        LocalDate period = LocalDate.of(year + 1, 1, 1);
+        JobCheckpoint checkpoint = jobCheckpointService.startOrResume(YEAR_END_CARRYOVER_JOB, period);
+        if (checkpoint.getStatus() == JobCheckpoint.Status.COMPLETED) {
+            logger.info("Year-end carryover of {} already completed", year);
+            return response(year, "SKIPPED", 0, ChunkTotals.EMPTY, start);
+        }
+        if (checkpoint.getLastUserId() > 0) {
+            logger.info("Resuming year-end carryover of {} after user {} ({} users done)",
+                    year, checkpoint.getLastUserId(), checkpoint.getProcessedCount());
+        }
+
+        List<AccrualPolicyTable.LeaveTypeRules> accruing = accrualPolicyService.compile().accruing();
+
+        long users = 0;
+        ChunkTotals totals = ChunkTotals.EMPTY;
+        long afterId = checkpoint.getLastUserId();
+        List<AccrualUser> page;
+        do {
+            page = userRepository.findUserPage(afterId, Limit.of(chunkSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            List<AccrualUser> chunk = page;
+            totals = totals.plus(transactionTemplate.execute(
+                    tx -> processChunk(checkpoint.getId(), chunk, accruing, period)));
+            users += page.size();
+            afterId = page.get(page.size() - 1).getId();
+        } while (page.size() == chunkSize);
+
+        jobCheckpointService.complete(checkpoint.getId());
+        YearEndCarryoverResponse response = response(year, "COMPLETED", users, totals, start);
+        logger.info("Year-end carryover of {} completed in {} ms: {} users, {} balances, {} days carried, "
+                        + "{} days forfeited", year, response.getElapsedMs(), users, totals.balances(),
+                totals.carried(), totals.forfeited());
+        return response;
+    }
+
+    private ChunkTotals processChunk(Long checkpointId, List<AccrualUser> users,
+                                     List<AccrualPolicyTable.LeaveTypeRules> accruing, LocalDate period) {
+        List<Long> userIds = new ArrayList<>(users.size());
+        Map<Long, Long> departments = new HashMap<>();
+        for (AccrualUser user : users) {
+            userIds.add(user.getId());
+            departments.put(user.getId(), user.getDepartmentId());
+        }
+
+        // Balances by leave type and user, locked for the whole page so the fold sees the available days
+        Map<Long, Map<Long, LeaveBalance>> balances = new HashMap<>();
+        if (!accruing.isEmpty()) {
+            List<Long> leaveTypeIds = accruing.stream().map(AccrualPolicyTable.LeaveTypeRules::leaveTypeId).toList();
+            for (LeaveBalance balance : leaveBalanceRepository.lockByUserIdsAndLeaveTypeIds(userIds, leaveTypeIds)) {
+                balances.computeIfAbsent(balance.getLeaveType().getId(), id -> new HashMap<>())
+                        .putIfAbsent(balance.getUser().getId(), balance);
+            }
+        }
+
+        List<NewAccrual> accruals = new ArrayList<>();
+        List<Carryover> carryovers = new ArrayList<>();
+        List<LeaveLedgerEntry> entries = new ArrayList<>();
+        double carried = 0;
+        double forfeited = 0;
+        for (AccrualPolicyTable.LeaveTypeRules rules : accruing) {
+            Map<Long, LeaveBalance> byUser = balances.getOrDefault(rules.leaveTypeId(), Map.of());
+            CarryoverFolder.Fold fold = carryoverFolder.fold(rules, period, byUser, departments);
+            carryovers.addAll(fold.balances());
+            accruals.addAll(fold.carryovers());
+            entries.addAll(fold.entries());
+            carried += fold.carried();
+            forfeited += fold.forfeited();
+        }
+
+        leaveAccrualJdbcRepository.insertAll(accruals);
+        leaveBalanceJdbcRepository.applyCarryovers(carryovers);
+        leaveLedgerService.recordAll(entries);
+        jobCheckpointRepository.advance(checkpointId, userIds.get(userIds.size() - 1), users.size(),
+                LocalDateTime.now());
+        leaveCacheService.evictBalances(users.stream().map(AccrualUser::getEmail).toList());
+        return new ChunkTotals(carryovers.size(), carried, forfeited);
+    }
+
+    private static YearEndCarryoverResponse response(int year, String status, long users, ChunkTotals totals,
+                                                     long start) {
+        return YearEndCarryoverResponse.builder()
+                .year(year)
+                .status(status)
+                .usersProcessed(users)
+                .balancesUpdated(totals.balances())
+                .daysCarried(totals.carried())
+                .daysForfeited(totals.forfeited())
+                .elapsedMs((System.nanoTime() - start) / 1_000_000)
+                .build();
+    }
+}
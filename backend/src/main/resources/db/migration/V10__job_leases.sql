@@ -0,0 +1,10 @@
+-- One row per scheduled job; a node runs the job only while it holds the lease (lease_until in the future).
+-- Rows are created on first use, acquisition is a single UPDATE on the primary key compared against the DB clock.
+CREATE TABLE job_leases (
+    job_name VARCHAR(64) NOT NULL,
+    holder VARCHAR(128),
+    lease_until DATETIME(6) NOT NULL,
+    acquired_at DATETIME(6),
+    renewed_at DATETIME(6),
+    PRIMARY KEY (job_name)
+) ENGINE = InnoDB;
@@ -0,0 +1,19 @@
+-- Objects added after the baseline; databases baselined at V1 never ran them from V1.
+
+-- Closure table of the reporting lines, filled from users.manager_id at startup when empty.
+CREATE TABLE user_hierarchy (
+    ancestor_id BIGINT NOT NULL,
+    descendant_id BIGINT NOT NULL,
+    depth INTEGER NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id),
+    INDEX idx_user_hierarchy_descendant (descendant_id, depth)
+) ENGINE = InnoDB;
+
+-- Keyset pagination of the leave request listing, newest first, optionally filtered.
+CREATE INDEX idx_leave_requests_created ON leave_requests (created_at, id);
+
+CREATE INDEX idx_leave_requests_status_created ON leave_requests (status, created_at, id);
+
+CREATE INDEX idx_leave_requests_user_created ON leave_requests (user_id, created_at, id);
+
+CREATE INDEX idx_leave_requests_type_created ON leave_requests (leave_type_id, created_at, id);
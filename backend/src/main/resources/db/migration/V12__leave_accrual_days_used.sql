@@ -0,0 +1,2 @@
+-- Days of the accrual taken by approved leave, drawn soonest to expire first; the sweeper expires only the rest.
+ALTER TABLE leave_accruals ADD COLUMN days_used DOUBLE NOT NULL DEFAULT 0;
@@ -0,0 +1,3 @@
+-- Partitioned runs whose accrual rows do not match the eligible users are kept for review.
+ALTER TABLE accrual_runs MODIFY COLUMN status
+    ENUM ('RUNNING', 'COMPLETED', 'SKIPPED', 'INCOMPLETE', 'NEEDS_REVIEW', 'FAILED') NOT NULL;
@@ -0,0 +1,49 @@
+-- The entities map fields to snake_case columns, as the JDBC repositories and later migrations name them.
+-- One statement per column, so a failure names the column that is missing.
+
+ALTER TABLE users RENAME COLUMN firstName TO first_name;
+ALTER TABLE users RENAME COLUMN lastName TO last_name;
+ALTER TABLE users RENAME COLUMN profilePicture TO profile_picture;
+ALTER TABLE users RENAME COLUMN twoFactorEnabled TO two_factor_enabled;
+ALTER TABLE users RENAME COLUMN twoFactorSecret TO two_factor_secret;
+
+ALTER TABLE leave_types RENAME COLUMN defaultBalance TO default_balance;
+ALTER TABLE leave_types RENAME COLUMN monthlyAccrual TO monthly_accrual;
+ALTER TABLE leave_types RENAME COLUMN maxCarryForward TO max_carry_forward;
+ALTER TABLE leave_types RENAME COLUMN requiresMedicalCertificate TO requires_medical_certificate;
+ALTER TABLE leave_types RENAME COLUMN requiresApproval TO requires_approval;
+ALTER TABLE leave_types RENAME COLUMN createdAt TO created_at;
+ALTER TABLE leave_types RENAME COLUMN updatedAt TO updated_at;
+ALTER TABLE leave_types RENAME COLUMN startDate TO start_date;
+ALTER TABLE leave_types RENAME COLUMN endDate TO end_date;
+
+ALTER TABLE leave_policies RENAME COLUMN leaveType TO leave_type;
+ALTER TABLE leave_policies RENAME COLUMN accrualRate TO accrual_rate;
+ALTER TABLE leave_policies RENAME COLUMN maxCarryover TO max_carryover;
+ALTER TABLE leave_policies RENAME COLUMN maxAnnualLeave TO max_annual_leave;
+ALTER TABLE leave_policies RENAME COLUMN requiresApproval TO requires_approval;
+ALTER TABLE leave_policies RENAME COLUMN requiresDocuments TO requires_documents;
+ALTER TABLE leave_policies RENAME COLUMN minimumNoticeDays TO minimum_notice_days;
+ALTER TABLE leave_policies RENAME COLUMN effectiveDate TO effective_date;
+ALTER TABLE leave_policies RENAME COLUMN expiryDate TO expiry_date;
+
+ALTER TABLE leave_requests RENAME COLUMN startDate TO start_date;
+ALTER TABLE leave_requests RENAME COLUMN endDate TO end_date;
+ALTER TABLE leave_requests RENAME COLUMN documentUrl TO document_url;
+ALTER TABLE leave_requests RENAME COLUMN rejectionReason TO rejection_reason;
+ALTER TABLE leave_requests RENAME COLUMN approvedAt TO approved_at;
+
+ALTER TABLE leave_request_comments RENAME COLUMN createdAt TO created_at;
+
+ALTER TABLE leave_balances RENAME COLUMN totalDays TO total_days;
+ALTER TABLE leave_balances RENAME COLUMN usedDays TO used_days;
+ALTER TABLE leave_balances RENAME COLUMN remainingDays TO remaining_days;
+ALTER TABLE leave_balances RENAME COLUMN carriedOverDays TO carried_over_days;
+ALTER TABLE leave_balances RENAME COLUMN lastAccrualDate TO last_accrual_date;
+ALTER TABLE leave_balances RENAME COLUMN lastCarryoverDate TO last_carryover_date;
+ALTER TABLE leave_balances RENAME COLUMN lastUpdated TO last_updated;
+ALTER TABLE leave_balances RENAME COLUMN expiryDate TO expiry_date;
+
+ALTER TABLE leave_accruals RENAME COLUMN daysAccrued TO days_accrued;
+ALTER TABLE leave_accruals RENAME COLUMN accrualDate TO accrual_date;
+ALTER TABLE leave_accruals RENAME COLUMN expiryDate TO expiry_date;
@@ -0,0 +1,151 @@
+-- Baseline of the schema previously generated by hibernate ddl-auto=update, which named columns after the
+-- entity fields (firstName, startDate) unless mapped explicitly. Existing databases are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and skip it; V1_1 renames the columns for both.
+
+CREATE TABLE departments (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_departments_name UNIQUE (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    firstName VARCHAR(255) NOT NULL,
+    lastName VARCHAR(255) NOT NULL,
+    profilePicture VARCHAR(255),
+    role ENUM ('USER', 'MANAGER', 'ADMIN'),
+    department_id BIGINT,
+    manager_id BIGINT,
+    active BIT NOT NULL,
+    enabled BIT NOT NULL,
+    twoFactorEnabled BIT NOT NULL,
+    twoFactorSecret VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT fk_users_department FOREIGN KEY (department_id) REFERENCES departments (id),
+    CONSTRAINT fk_users_manager FOREIGN KEY (manager_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE leave_types (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    defaultBalance DOUBLE NOT NULL,
+    monthlyAccrual DOUBLE NOT NULL,
+    maxCarryForward INTEGER NOT NULL,
+    code VARCHAR(255) NOT NULL,
+    requiresMedicalCertificate BIT NOT NULL,
+    requiresApproval BIT NOT NULL,
+    active BIT NOT NULL,
+    createdAt DATE NOT NULL,
+    updatedAt DATE NOT NULL,
+    startDate DATE,
+    endDate DATE,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_leave_types_code UNIQUE (code)
+) ENGINE = InnoDB;
+
+CREATE TABLE leave_policies (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    leaveType ENUM ('PTO', 'SICK', 'COMPASSIONATE', 'MATERNITY', 'UNPAID'),
+    accrualRate DOUBLE NOT NULL,
+    maxCarryover DOUBLE NOT NULL,
+    maxAnnualLeave INTEGER NOT NULL,
+    requiresApproval BIT NOT NULL,
+    requiresDocuments BIT NOT NULL,
+    minimumNoticeDays INTEGER NOT NULL,
+    description VARCHAR(255),
+    effectiveDate DATE,
+    expiryDate DATE,
+    active BIT NOT NULL,
+    department_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_leave_policies_department FOREIGN KEY (department_id) REFERENCES departments (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE leave_requests (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    leave_type_id BIGINT NOT NULL,
+    startDate DATE NOT NULL,
+    endDate DATE NOT NULL,
+    reason VARCHAR(500),
+    documentUrl VARCHAR(255),
+    status ENUM ('PENDING', 'APPROVED', 'REJECTED', 'CANCELLED') NOT NULL,
+    approved_by BIGINT,
+    rejectionReason VARCHAR(255),
+    approver_id BIGINT,
+    approvedAt DATE,
+    policy_id BIGINT,
+    approver_comment VARCHAR(500),
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_leave_requests_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_leave_requests_leave_type FOREIGN KEY (leave_type_id) REFERENCES leave_types (id),
+    CONSTRAINT fk_leave_requests_approved_by FOREIGN KEY (approved_by) REFERENCES users (id),
+    CONSTRAINT fk_leave_requests_approver FOREIGN KEY (approver_id) REFERENCES users (id),
+    CONSTRAINT fk_leave_requests_policy FOREIGN KEY (policy_id) REFERENCES leave_policies (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE leave_documents (
+    leave_id BIGINT NOT NULL,
+    document_url VARCHAR(255),
+    CONSTRAINT fk_leave_documents_leave FOREIGN KEY (leave_id) REFERENCES leave_requests (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE leave_request_comments (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    leave_request_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    comment VARCHAR(255) NOT NULL,
+    createdAt DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_leave_request_comments_request FOREIGN KEY (leave_request_id) REFERENCES leave_requests (id),
+    CONSTRAINT fk_leave_request_comments_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE leave_balances (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    leave_type_id BIGINT NOT NULL,
+    totalDays DOUBLE NOT NULL,
+    usedDays DOUBLE NOT NULL,
+    remainingDays DOUBLE NOT NULL,
+    carriedOverDays DOUBLE NOT NULL,
+    balance DOUBLE NOT NULL,
+    lastAccrualDate DATE,
+    lastCarryoverDate DATE,
+    lastUpdated DATE,
+    expiryDate DATE,
+    policy_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_leave_balances_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_leave_balances_leave_type FOREIGN KEY (leave_type_id) REFERENCES leave_types (id),
+    CONSTRAINT fk_leave_balances_policy FOREIGN KEY (policy_id) REFERENCES leave_policies (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE leave_accruals (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    leave_type_id BIGINT NOT NULL,
+    daysAccrued DOUBLE NOT NULL,
+    accrualDate DATE NOT NULL,
+    expiryDate DATE NOT NULL,
+    status ENUM ('ACTIVE', 'EXPIRED', 'USED', 'CARRIED_OVER') NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_leave_accruals_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_leave_accruals_leave_type FOREIGN KEY (leave_type_id) REFERENCES leave_types (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE public_holidays (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    date DATE NOT NULL,
+    description VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
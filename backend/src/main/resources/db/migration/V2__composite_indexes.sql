@@ -0,0 +1,9 @@
+-- Composite indexes for the hot lookup paths; ddl-auto never created these.
+
+CREATE INDEX idx_leave_requests_user_status_start ON leave_requests (user_id, status, start_date);
+
+CREATE INDEX idx_leave_balances_user_type ON leave_balances (user_id, leave_type_id);
+
+CREATE INDEX idx_leave_accruals_user_type_status ON leave_accruals (user_id, leave_type_id, status);
+
+CREATE INDEX idx_public_holidays_date ON public_holidays (date);
@@ -0,0 +1,3 @@
+-- Serves the per-user date range predicate used to reject overlapping leave requests.
+
+CREATE INDEX idx_leave_requests_user_dates ON leave_requests (user_id, start_date, end_date);
@@ -0,0 +1,5 @@
+-- Days held by PENDING requests, so availability is a single-row read.
+ALTER TABLE leave_balances ADD COLUMN reserved_days DOUBLE NOT NULL DEFAULT 0;
+
+-- Working days reserved when the request was filed; NULL for requests filed before reservations existed.
+ALTER TABLE leave_requests ADD COLUMN duration_days INTEGER;
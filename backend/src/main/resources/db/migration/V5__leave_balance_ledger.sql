@@ -0,0 +1,37 @@
+CREATE TABLE leave_balance_ledger (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    leave_type_id BIGINT NOT NULL,
+    entry_type ENUM ('ACCRUAL', 'USAGE', 'CARRYOVER', 'ADJUSTMENT', 'EXPIRY') NOT NULL,
+    days DOUBLE NOT NULL,
+    effective_date DATE NOT NULL,
+    leave_id BIGINT,
+    description VARCHAR(255),
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_leave_balance_ledger_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_leave_balance_ledger_leave_type FOREIGN KEY (leave_type_id) REFERENCES leave_types (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_leave_balance_ledger_user_type_date
+    ON leave_balance_ledger (user_id, leave_type_id, effective_date);
+
+CREATE TABLE leave_balance_snapshots (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    leave_type_id BIGINT NOT NULL,
+    as_of_date DATE NOT NULL,
+    balance DOUBLE NOT NULL,
+    last_entry_id BIGINT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_leave_balance_snapshots_user_type_date UNIQUE (user_id, leave_type_id, as_of_date),
+    CONSTRAINT fk_leave_balance_snapshots_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_leave_balance_snapshots_leave_type FOREIGN KEY (leave_type_id) REFERENCES leave_types (id)
+) ENGINE = InnoDB;
+
+-- Open the ledger with the balances as they stand, so ledger totals match remaining_days from day one.
+INSERT INTO leave_balance_ledger (user_id, leave_type_id, entry_type, days, effective_date, description, created_at)
+SELECT user_id, leave_type_id, 'ADJUSTMENT', remaining_days, CURDATE(), 'Opening balance', NOW(6)
+FROM leave_balances
+WHERE remaining_days <> 0;
@@ -0,0 +1,17 @@
+-- Progress of chunked batch jobs, one row per job and period; advanced in the same transaction as each chunk.
+CREATE TABLE job_checkpoints (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    job_name VARCHAR(64) NOT NULL,
+    period DATE NOT NULL,
+    last_user_id BIGINT NOT NULL DEFAULT 0,
+    processed_count BIGINT NOT NULL DEFAULT 0,
+    status ENUM ('RUNNING', 'COMPLETED') NOT NULL,
+    started_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    completed_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_job_checkpoints_job_period UNIQUE (job_name, period)
+) ENGINE = InnoDB;
+
+-- Keyset paging over active users: WHERE active = 1 AND id > ? ORDER BY id
+CREATE INDEX idx_users_active ON users (active, id);
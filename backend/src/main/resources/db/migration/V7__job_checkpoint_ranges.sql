@@ -0,0 +1,3 @@
+-- Id range owned by a partition checkpoint of a parallel run; NULL for whole-run checkpoints.
+ALTER TABLE job_checkpoints ADD COLUMN range_start BIGINT;
+ALTER TABLE job_checkpoints ADD COLUMN range_end BIGINT;
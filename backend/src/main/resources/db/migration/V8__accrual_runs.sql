@@ -0,0 +1,35 @@
+-- Each (user, leave type, kind, period) accrues once. Existing rows are backfilled with their month, keeping the
+-- earliest row of any duplicate group; later duplicates stay without a period and are left out of the key.
+ALTER TABLE leave_accruals ADD COLUMN kind ENUM ('MONTHLY', 'CARRYOVER') NULL;
+ALTER TABLE leave_accruals ADD COLUMN period DATE NULL;
+
+-- The grouped derived table is materialized, so the update may read the table it modifies
+UPDATE leave_accruals
+SET kind   = CASE WHEN status = 'CARRIED_OVER' THEN 'CARRYOVER' ELSE 'MONTHLY' END,
+    period = CAST(CONCAT(YEAR(accrual_date), '-', LPAD(MONTH(accrual_date), 2, '0'), '-01') AS DATE)
+WHERE id IN (SELECT id
+             FROM (SELECT MIN(id) AS id
+                   FROM leave_accruals
+                   GROUP BY user_id, leave_type_id, status = 'CARRIED_OVER', YEAR(accrual_date), MONTH(accrual_date))
+                 earliest);
+
+CREATE UNIQUE INDEX uk_leave_accruals_user_type_kind_period ON leave_accruals (user_id, leave_type_id, kind, period);
+
+-- One row per accrual job invocation, including re-runs that found nothing to do.
+CREATE TABLE accrual_runs (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    job_name VARCHAR(64) NOT NULL,
+    period DATE NOT NULL,
+    leave_type_id BIGINT NOT NULL,
+    engine VARCHAR(16) NOT NULL,
+    status ENUM ('RUNNING', 'COMPLETED', 'SKIPPED', 'INCOMPLETE', 'FAILED') NOT NULL,
+    users_processed BIGINT NOT NULL DEFAULT 0,
+    accruals_written BIGINT NOT NULL DEFAULT 0,
+    started_at DATETIME(6) NOT NULL,
+    finished_at DATETIME(6),
+    duration_ms BIGINT,
+    error VARCHAR(1000),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_accrual_runs_job_period ON accrual_runs (job_name, period);
@@ -0,0 +1,2 @@
+-- Expiry sweeper: WHERE status = ? AND expiry_date <= ? ORDER BY expiry_date, id
+CREATE INDEX idx_leave_accruals_status_expiry ON leave_accruals (status, expiry_date);
@@ -0,0 +1,120 @@
+package com.africahr;
+
+import com.africahr.entity.Department;
+import com.africahr.entity.Leave;
+import com.africahr.entity.LeaveAccrual;
+import com.africahr.entity.LeaveBalance;
+import com.africahr.entity.LeaveType;
+import com.africahr.entity.User;
+import com.africahr.enums.LeaveStatus;
+import com.africahr.enums.Role;
+import com.africahr.repository.LeaveAccrualRepository;
+import com.africahr.repository.LeaveBalanceRepository;
+import com.africahr.repository.LeaveRepository;
+import com.africahr.repository.LeaveTypeRepository;
+import com.africahr.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Persists the rows tests start from. Import it with {@code @Import(TestData.class)}.
+ */
+@TestComponent
+@RequiredArgsConstructor
+public class TestData {
+
+    private final EntityManager entityManager;
+    private final UserRepository userRepository;
+    private final LeaveTypeRepository leaveTypeRepository;
+    private final LeaveBalanceRepository leaveBalanceRepository;
+    private final LeaveRepository leaveRepository;
+    private final LeaveAccrualRepository leaveAccrualRepository;
+
+    public Department department() {
+        Department department = Department.builder().name("Department " + unique()).build();
+        entityManager.persist(department);
+        return department;
+    }
+
+    public User user(Role role, Department department, User manager) {
+        String name = unique();
+        return userRepository.save(User.builder()
+                .email(name + "@africahr.test")
+                .password("secret")
+                .firstName("First " + name)
+                .lastName("Last " + name)
+                .role(role)
+                .department(department)
+                .manager(manager)
+                .active(true)
+                .enabled(true)
+                .build());
+    }
+
+    public User user() {
+        return user(Role.USER, null, null);
+    }
+
+    public LeaveType leaveType(String code, double monthlyAccrual, int maxCarryForward) {
+        return leaveTypeRepository.save(LeaveType.builder()
+                .name(code)
+                .description(code + " leave")
+                .code(code)
+                .defaultBalance(0)
+                .monthlyAccrual(monthlyAccrual)
+                .maxCarryForward(maxCarryForward)
+                .requiresApproval(true)
+                .active(true)
+                .createdAt(LocalDate.now())
+                .updatedAt(LocalDate.now())
+                .build());
+    }
+
+    public LeaveBalance balance(User user, LeaveType leaveType, double days) {
+        return leaveBalanceRepository.save(LeaveBalance.builder()
+                .user(user)
+                .leaveType(leaveType)
+                .totalDays(days)
+                .remainingDays(days)
+                .balance(days)
+                .lastUpdated(LocalDate.now())
+                .build());
+    }
+
+    public Leave leave(User user, LeaveType leaveType, LocalDate start, LocalDate end, LeaveStatus status,
+                       String... documentUrls) {
+        return leaveRepository.save(Leave.builder()
+                .user(user)
+                .leaveType(leaveType)
+                .startDate(start)
+                .endDate(end)
+                .status(status)
+                .documentUrls(new ArrayList<>(List.of(documentUrls)))
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    public LeaveAccrual monthlyAccrual(User user, LeaveType leaveType, LocalDate period, double days) {
+        return leaveAccrualRepository.save(LeaveAccrual.builder()
+                .user(user)
+                .leaveType(leaveType)
+                .daysAccrued(days)
+                .accrualDate(period)
+                .expiryDate(period.plusYears(1))
+                .status(LeaveAccrual.AccrualStatus.ACTIVE)
+                .kind(LeaveAccrual.AccrualKind.MONTHLY)
+                .period(period)
+                .build());
+    }
+
+    public static String unique() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,33 @@
+package com.africahr.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Builds the schema from the migrations alone, as production does, and starts the application with Hibernate
+ * validating the entity mapping against it. The other tests let Hibernate create the tables, so they never
+ * check the migrations.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:schema_migration;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.sql.init.mode=never"
+})
+@ActiveProfiles("test")
+class SchemaMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void migrationsBuildTheSchemaTheEntitiesMap() {
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals(flyway.info().all().length, flyway.info().applied().length);
+    }
+}
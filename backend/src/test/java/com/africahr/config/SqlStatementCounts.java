@@ -0,0 +1,30 @@
+package com.africahr.config;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Query budget assertions over {@link SqlStatementCounter}. Run the block after the persistence context
+ * is flushed and cleared, otherwise entities already loaded hide the statements under test.
+ */
+public final class SqlStatementCounts {
+
+    private SqlStatementCounts() {
+    }
+
+    public static <T> T assertSelectCount(int expected, Supplier<T> block) {
+        SqlStatementCounter.reset();
+        T result = block.get();
+        int actual = SqlStatementCounter.selectCount();
+        assertEquals(expected, actual, () -> "Expected " + expected + " SELECT statements, ran " + actual);
+        return result;
+    }
+
+    public static void assertSelectCount(int expected, Runnable block) {
+        assertSelectCount(expected, () -> {
+            block.run();
+            return null;
+        });
+    }
+}
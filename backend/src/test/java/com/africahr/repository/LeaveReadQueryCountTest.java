@@ -0,0 +1,106 @@
+package com.africahr.repository;
+
+import com.africahr.TestData;
+import com.africahr.entity.Leave;
+import com.africahr.entity.LeaveBalance;
+import com.africahr.entity.LeaveType;
+import com.africahr.entity.User;
+import com.africahr.enums.LeaveStatus;
+import com.africahr.enums.Role;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.africahr.config.SqlStatementCounts.assertSelectCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pins the read paths that used to load associations one row at a time: however many rows come back,
+ * the number of SELECTs stays the same.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@Import(TestData.class)
+class LeaveReadQueryCountTest {
+
+    private static final int USERS = 5;
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private LeaveRepository leaveRepository;
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Long> leaveIds = new ArrayList<>();
+    private User employee;
+
+    @BeforeEach
+    void setUp() {
+        User manager = testData.user(Role.MANAGER, testData.department(), null);
+        LeaveType pto = testData.leaveType("PTO", 1.66, 5);
+        LeaveType sick = testData.leaveType("SICK", 0, 0);
+        LocalDate start = LocalDate.of(2026, 3, 2);
+        for (int i = 0; i < USERS; i++) {
+            User user = testData.user(Role.USER, manager.getDepartment(), manager);
+            testData.balance(user, pto, 10);
+            testData.balance(user, sick, 5);
+            Leave leave = testData.leave(user, pto, start.plusWeeks(i), start.plusWeeks(i).plusDays(1),
+                    LeaveStatus.PENDING, "doc-" + i + "-a", "doc-" + i + "-b");
+            leaveIds.add(leave.getId());
+            employee = user;
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void leavesWithDetailsLoadUsersTypesAndDocumentsInTwoSelects() {
+        // One join for the leaves with user and type, one batch for the documents of the whole page
+        int documents = assertSelectCount(2, () -> {
+            int count = 0;
+            for (Leave leave : leaveRepository.findWithDetailsByIdIn(leaveIds)) {
+                leave.getUser().getEmail();
+                leave.getLeaveType().getName();
+                count += leave.getDocumentUrls().size();
+            }
+            return count;
+        });
+        assertEquals(USERS * 2, documents);
+    }
+
+    @Test
+    void balancesLoadUserAndLeaveTypeInOneSelect() {
+        List<LeaveBalance> balances = assertSelectCount(1, () -> {
+            List<LeaveBalance> result = leaveBalanceRepository.findByUserId(employee.getId());
+            result.forEach(balance -> {
+                balance.getUser().getEmail();
+                balance.getLeaveType().getCode();
+            });
+            return result;
+        });
+        assertEquals(2, balances.size());
+    }
+
+    @Test
+    void userLoadsWithManagerInOneSelect() {
+        String managerEmail = assertSelectCount(1,
+                () -> userRepository.findWithManagerByEmail(employee.getEmail()).orElseThrow()
+                        .getManager().getEmail());
+        assertEquals(employee.getManager().getEmail(), managerEmail);
+    }
+}
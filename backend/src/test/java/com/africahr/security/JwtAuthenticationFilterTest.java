@@ -0,0 +1,85 @@
+package com.africahr.security;
+
+import com.africahr.TestData;
+import com.africahr.entity.User;
+import com.africahr.enums.Role;
+import com.africahr.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * A token outlives changes to its user: the role and active flag of each request come from the user's
+ * current state, which is evicted from the cache when the user row is updated.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestData.class)
+class JwtAuthenticationFilterTest {
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void demotedUserLosesTheRoleOfTheTokenAtTheNextRequest() throws Exception {
+        User admin = testData.user(Role.ADMIN, null, null);
+        String token = jwtService.generateToken(admin);
+        assertEquals(Role.ADMIN, authenticate(token).role());
+
+        admin.setRole(Role.USER);
+        userRepository.save(admin);
+
+        assertEquals(Role.USER, authenticate(token).role());
+    }
+
+    @Test
+    void deactivatedUserIsRejected() throws Exception {
+        User user = testData.user();
+        String token = jwtService.generateToken(user);
+        assertEquals(user.getId(), authenticate(token).id());
+
+        user.setActive(false);
+        userRepository.save(user);
+
+        MockHttpServletResponse response = filter(token);
+        assertEquals(401, response.getStatus());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private AuthenticatedUser authenticate(String token) throws Exception {
+        assertEquals(200, filter(token).getStatus());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return (AuthenticatedUser) authentication.getPrincipal();
+    }
+
+    private MockHttpServletResponse filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        jwtAuthenticationFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
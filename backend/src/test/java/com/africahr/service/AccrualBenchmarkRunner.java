@@ -0,0 +1,117 @@
+package com.africahr.service;
+
+import com.africahr.LeaveManagementApplication;
+import com.africahr.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times the row and set-based accrual engines on a synthetic workforce. {@link #main} starts the application
+ * without the web server under the {@code accrual-benchmark} profile; pointed at an empty scratch database, it
+ * seeds {@code leave.benchmark.users} active users, opens their balances with a warm-up run, accrues one month
+ * with each engine, logs the timings, removes everything it created and closes the context.
+ */
+@Component
+@Profile("accrual-benchmark")
+public class AccrualBenchmarkRunner implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(AccrualBenchmarkRunner.class);
+    private static final String JOB_PREFIX = "accrual-benchmark-";
+    private static final String EMAIL_DOMAIN = "@benchmark.local";
+    private static final String LEAVE_TYPE_CODE = "BENCH";
+    private static final int SEED_BATCH = 5000;
+    private static final double MONTHLY_DAYS = 1.66;
+    private static final double MAX_CARRYOVER = 5;
+
+    private final AccrualJobRunner accrualJobRunner;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int userCount;
+
+    public AccrualBenchmarkRunner(AccrualJobRunner accrualJobRunner,
+                                  UserRepository userRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  @Value("${leave.benchmark.users:100000}") int userCount) {
+        this.accrualJobRunner = accrualJobRunner;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.userCount = userCount;
+    }
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(LeaveManagementApplication.class)
+                .profiles("accrual-benchmark")
+                .web(WebApplicationType.NONE)
+                .run(args)
+                .close();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (userRepository.count() > 0) {
+            logger.error("Accrual benchmark needs an empty database; found existing users, nothing was run");
+        } else {
+            try {
+                Long leaveTypeId = seed();
+                time(AccrualJobRunner.Engine.SET, LocalDate.of(2000, 2, 1), leaveTypeId);
+                long rowMillis = time(AccrualJobRunner.Engine.ROW, LocalDate.of(2000, 3, 1), leaveTypeId);
+                long setMillis = time(AccrualJobRunner.Engine.SET, LocalDate.of(2000, 4, 1), leaveTypeId);
+                logger.info("Accrual benchmark, {} users: row engine {} ms, set engine {} ms ({}x)",
+                        userCount, rowMillis, setMillis, String.format("%.1f", (double) rowMillis / Math.max(1, setMillis)));
+            } finally {
+                cleanUp();
+            }
+        }
+    }
+
+    private long time(AccrualJobRunner.Engine engine, LocalDate period, Long leaveTypeId) {
+        long start = System.nanoTime();
+        accrualJobRunner.run(JOB_PREFIX + engine.name().toLowerCase(), period,
+                AccrualPolicyTable.LeaveTypeRules.flat(leaveTypeId, LEAVE_TYPE_CODE, MONTHLY_DAYS, MAX_CARRYOVER),
+                engine);
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private Long seed() {
+        jdbcTemplate.update(
+                "INSERT INTO leave_types (name, description, default_balance, monthly_accrual, max_carry_forward, code, " +
+                        "requires_medical_certificate, requires_approval, active, created_at, updated_at) " +
+                        "VALUES ('Benchmark', 'Accrual benchmark', 0, ?, ?, ?, 0, 0, 1, CURDATE(), CURDATE())",
+                MONTHLY_DAYS, MAX_CARRYOVER, LEAVE_TYPE_CODE);
+
+        for (int from = 0; from < userCount; from += SEED_BATCH) {
+            List<Object[]> batch = new ArrayList<>(SEED_BATCH);
+            for (int i = from; i < Math.min(userCount, from + SEED_BATCH); i++) {
+                batch.add(new Object[]{"user" + i + EMAIL_DOMAIN, "User" + i});
+            }
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO users (email, password, first_name, last_name, role, active, enabled, " +
+                            "two_factor_enabled) VALUES (?, '-', 'Benchmark', ?, 'USER', 1, 1, 0)",
+                    batch);
+        }
+        logger.info("Accrual benchmark seeded {} users", userCount);
+        return jdbcTemplate.queryForObject("SELECT id FROM leave_types WHERE code = ?", Long.class, LEAVE_TYPE_CODE);
+    }
+
+    private void cleanUp() {
+        String typeFilter = "leave_type_id = (SELECT id FROM leave_types WHERE code = '" + LEAVE_TYPE_CODE + "')";
+        jdbcTemplate.update("DELETE FROM leave_balance_ledger WHERE " + typeFilter);
+        jdbcTemplate.update("DELETE FROM leave_accruals WHERE " + typeFilter);
+        jdbcTemplate.update("DELETE FROM leave_balances WHERE " + typeFilter);
+        jdbcTemplate.update("DELETE FROM job_checkpoints WHERE job_name LIKE ?", JOB_PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM accrual_runs WHERE job_name LIKE ?", JOB_PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE ?", "%" + EMAIL_DOMAIN);
+        jdbcTemplate.update("DELETE FROM leave_types WHERE code = ?", LEAVE_TYPE_CODE);
+    }
+}
@@ -0,0 +1,116 @@
+package com.africahr.service;
+
+import com.africahr.TestData;
+import com.africahr.entity.LeaveAccrual;
+import com.africahr.entity.LeaveBalance;
+import com.africahr.entity.LeaveLedgerEntry;
+import com.africahr.entity.LeaveType;
+import com.africahr.entity.User;
+import com.africahr.repository.LeaveAccrualRepository;
+import com.africahr.repository.LeaveBalanceRepository;
+import com.africahr.repository.LeaveLedgerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Catch-up of months the monthly job missed: every missing month is accrued once, and a January in
+ * the gap is carried over as the monthly job would have done it.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestData.class)
+class AccrualCatchUpServiceTest {
+    private static final double MONTHLY_DAYS = 2;
+    private static final double MAX_CARRYOVER = 5;
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private AccrualCatchUpService accrualCatchUpService;
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+    @Autowired
+    private LeaveAccrualRepository leaveAccrualRepository;
+    @Autowired
+    private LeaveLedgerRepository leaveLedgerRepository;
+
+    private LeaveType leaveType;
+    private AccrualPolicyTable.LeaveTypeRules rules;
+    private User user;
+    private Long balanceId;
+
+    @BeforeEach
+    void setUp() {
+        leaveType = testData.leaveType("C" + TestData.unique(), MONTHLY_DAYS, (int) MAX_CARRYOVER);
+        rules = AccrualPolicyTable.LeaveTypeRules.flat(
+                leaveType.getId(), leaveType.getCode(), MONTHLY_DAYS, MAX_CARRYOVER);
+        user = testData.user();
+
+        // Accrued from March to November 2030, 18 days, of which 4 were taken
+        for (int month = 3; month <= 11; month++) {
+            testData.monthlyAccrual(user, leaveType, LocalDate.of(2030, month, 1), MONTHLY_DAYS);
+        }
+        LeaveBalance balance = testData.balance(user, leaveType, 18);
+        balance.setRemainingDays(14);
+        balance.setUsedDays(4);
+        balance.setLastAccrualDate(LocalDate.of(2030, 11, 1));
+        balanceId = leaveBalanceRepository.save(balance).getId();
+    }
+
+    @Test
+    void catchUpAcrossJanuaryCarriesOverTheBalanceAsOfYearEnd() {
+        accrualCatchUpService.catchUp(rules, LocalDate.of(2031, 3, 1));
+
+        // December brings the balance to 16 on January 1st: 5 carried, 11 forfeited, then January and February
+        LeaveBalance balance = leaveBalanceRepository.findById(balanceId).orElseThrow();
+        assertEquals(MAX_CARRYOVER + 2 * MONTHLY_DAYS, balance.getRemainingDays());
+        assertEquals(MAX_CARRYOVER, balance.getCarriedOverDays());
+        assertEquals(LocalDate.of(2031, 1, 1), balance.getLastCarryoverDate());
+        assertEquals(LocalDate.of(2031, 2, 1), balance.getLastAccrualDate());
+        assertEquals(-11, ledger(LeaveLedgerEntry.EntryType.EXPIRY));
+        assertEquals(3 * MONTHLY_DAYS, ledger(LeaveLedgerEntry.EntryType.ACCRUAL));
+
+        List<LeaveAccrual> accruals = leaveAccrualRepository.findByUserIdAndLeaveTypeId(user.getId(), leaveType.getId());
+        assertEquals(List.of(MAX_CARRYOVER), accruals.stream()
+                .filter(accrual -> accrual.getStatus() == LeaveAccrual.AccrualStatus.CARRIED_OVER)
+                .map(LeaveAccrual::getDaysAccrued).toList());
+        // Everything granted in 2030, the caught-up December included, is folded into the carryover
+        assertEquals(10, accruals.stream()
+                .filter(accrual -> accrual.getStatus() == LeaveAccrual.AccrualStatus.EXPIRED).count());
+        assertEquals(2, accruals.stream()
+                .filter(accrual -> accrual.getStatus() == LeaveAccrual.AccrualStatus.ACTIVE).count());
+    }
+
+    @Test
+    void januaryAlreadyCarriedOverIsNotFoldedAgain() {
+        accrualCatchUpService.catchUp(rules, LocalDate.of(2031, 3, 1));
+        LeaveBalance balance = leaveBalanceRepository.findById(balanceId).orElseThrow();
+        balance.setLastAccrualDate(LocalDate.of(2030, 12, 1));
+        leaveBalanceRepository.save(balance);
+
+        // Picked up again from January, say after a manual correction: months already accrued are skipped
+        accrualCatchUpService.catchUp(rules, LocalDate.of(2031, 4, 1));
+
+        balance = leaveBalanceRepository.findById(balanceId).orElseThrow();
+        assertEquals(MAX_CARRYOVER + 3 * MONTHLY_DAYS, balance.getRemainingDays());
+        assertEquals(-11, ledger(LeaveLedgerEntry.EntryType.EXPIRY));
+        assertEquals(1, leaveAccrualRepository.findByUserIdAndLeaveTypeId(user.getId(), leaveType.getId()).stream()
+                .filter(accrual -> accrual.getStatus() == LeaveAccrual.AccrualStatus.CARRIED_OVER).count());
+    }
+
+    private double ledger(LeaveLedgerEntry.EntryType type) {
+        return leaveLedgerRepository.findAll().stream()
+                .filter(entry -> user.getId().equals(entry.getUserId()) && entry.getEntryType() == type)
+                .mapToDouble(LeaveLedgerEntry::getDays)
+                .sum();
+    }
+}
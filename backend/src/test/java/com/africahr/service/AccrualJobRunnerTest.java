@@ -0,0 +1,142 @@
+package com.africahr.service;
+
+import com.africahr.TestData;
+import com.africahr.entity.AccrualRun;
+import com.africahr.entity.Department;
+import com.africahr.entity.LeaveType;
+import com.africahr.entity.User;
+import com.africahr.enums.Role;
+import com.africahr.repository.AccrualRunRepository;
+import com.africahr.repository.JobCheckpointRepository;
+import com.africahr.repository.LeaveAccrualRepository;
+import com.africahr.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Partitioned accrual runs and their reconciliation of accrual rows against the users the policies
+ * make eligible.
+ */
+@SpringBootTest(properties = {"leave.accrual.partitions=2", "leave.accrual.chunk-size=3"})
+@ActiveProfiles("test")
+@Import(TestData.class)
+class AccrualJobRunnerTest {
+    private static final LocalDate PERIOD = LocalDate.of(2032, 5, 1);
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private AccrualJobRunner accrualJobRunner;
+    @Autowired
+    private AccrualRunRepository accrualRunRepository;
+    @Autowired
+    private LeaveAccrualRepository leaveAccrualRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private LeaveType leaveType;
+    private AccrualPolicyTable.LeaveTypeRules rules;
+    private String jobName;
+    private final List<User> unpaid = new ArrayList<>();
+    private final List<User> paid = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            leaveType = testData.leaveType("R" + TestData.unique(), 2, 5);
+            // A department whose policy accrues nothing: the engine skips its users
+            Department department = testData.department();
+            rules = AccrualPolicyTable.LeaveTypeRules.compile(
+                    new AccrualPolicyTable.LeaveTypeRules.Defaults(leaveType.getId(), leaveType.getCode(), 2, 5),
+                    List.of(new AccrualPolicyTable.PolicyRow(1L, leaveType.getCode(), department.getId(), 0, 5, 0,
+                            null, null)));
+            for (int i = 0; i < 3; i++) {
+                unpaid.add(testData.user(Role.USER, department, null));
+                paid.add(testData.user());
+            }
+        });
+        jobName = "monthly-accrual/" + leaveType.getCode();
+    }
+
+    @Test
+    void zeroRateUsersReconcile() {
+        accrualJobRunner.run(jobName, PERIOD, rules, AccrualJobRunner.Engine.ROW);
+
+        AccrualRun run = lastRun();
+        assertEquals(AccrualRun.Status.COMPLETED, run.getStatus());
+        assertNull(run.getError());
+        for (User user : unpaid) {
+            assertTrue(leaveAccrualRepository.findByUserIdAndLeaveTypeId(user.getId(), leaveType.getId()).isEmpty());
+        }
+    }
+
+    @Test
+    void accrualOfAnInactiveUserNeedsReview() {
+        User left = testData.user();
+        testData.monthlyAccrual(left, leaveType, PERIOD, 2);
+        left.setActive(false);
+        userRepository.save(left);
+
+        accrualJobRunner.run(jobName, PERIOD, rules, AccrualJobRunner.Engine.ROW);
+
+        AccrualRun run = lastRun();
+        assertEquals(AccrualRun.Status.NEEDS_REVIEW, run.getStatus());
+        assertTrue(run.getError().startsWith("Reconciliation differences"));
+    }
+
+    @Test
+    void secondTriggerForTheSamePeriodIsSkipped() {
+        accrualJobRunner.run(jobName, PERIOD, rules, AccrualJobRunner.Engine.ROW);
+        accrualJobRunner.run(jobName, PERIOD, rules, AccrualJobRunner.Engine.ROW);
+
+        AccrualRun run = lastRun();
+        assertEquals(AccrualRun.Status.SKIPPED, run.getStatus());
+        assertEquals(0, run.getAccrualsWritten());
+        assertAccruedOnce();
+    }
+
+    @Test
+    void rerunWithoutCheckpointsAccruesNobodyTwice() {
+        accrualJobRunner.run(jobName, PERIOD, rules, AccrualJobRunner.Engine.ROW);
+        // As if the checkpoints had been lost: only the accrual key stands in the way
+        jobCheckpointRepository.deleteAll(jobCheckpointRepository.findAll().stream()
+                .filter(checkpoint -> checkpoint.getJobName().startsWith(jobName))
+                .toList());
+
+        accrualJobRunner.run(jobName, PERIOD, rules, AccrualJobRunner.Engine.ROW);
+
+        AccrualRun run = lastRun();
+        assertEquals(AccrualRun.Status.COMPLETED, run.getStatus());
+        assertEquals(0, run.getAccrualsWritten());
+        assertAccruedOnce();
+    }
+
+    private void assertAccruedOnce() {
+        for (User user : paid) {
+            assertEquals(1, leaveAccrualRepository.findByUserIdAndLeaveTypeId(user.getId(), leaveType.getId()).size());
+        }
+    }
+
+    private AccrualRun lastRun() {
+        return accrualRunRepository.findByJobNameOrderByIdDesc(jobName, Limit.of(1)).get(0);
+    }
+}
@@ -0,0 +1,89 @@
+package com.africahr.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccrualPolicyTableTest {
+
+    private static final Long SALES = 1L;
+    private static final Long SUPPORT = 2L;
+    private static final LocalDate JANUARY = LocalDate.of(2031, 1, 1);
+    private static final LocalDate JULY = LocalDate.of(2031, 7, 1);
+
+    private static final AccrualPolicyTable.LeaveTypeRules.Defaults PTO =
+            new AccrualPolicyTable.LeaveTypeRules.Defaults(10L, "PTO", 1.5, 5);
+    private static final AccrualPolicyTable.LeaveTypeRules.Defaults SICK =
+            new AccrualPolicyTable.LeaveTypeRules.Defaults(11L, "SICK", 0, 0);
+
+    @Test
+    void departmentPolicyWinsOverCompanyPolicyOverDefaults() {
+        AccrualPolicyTable.LeaveTypeRules rules = AccrualPolicyTable.compile(List.of(PTO), List.of(
+                policy(1L, null, 2, null, null),
+                policy(2L, SALES, 2.5, null, null))).forLeaveType("PTO");
+
+        assertEquals(2L, rules.resolve(SALES, JULY).policyId());
+        assertEquals(2.5, rules.resolve(SALES, JULY).monthlyDays());
+        assertEquals(1L, rules.resolve(SUPPORT, JULY).policyId());
+        assertEquals(1L, rules.resolve(null, JULY).policyId());
+
+        AccrualPolicyTable.LeaveTypeRules defaults =
+                AccrualPolicyTable.compile(List.of(PTO), List.of()).forLeaveType("PTO");
+        assertTrue(defaults.isFlat());
+        assertNull(defaults.resolve(SALES, JULY).policyId());
+        assertEquals(1.5, defaults.resolve(SALES, JULY).monthlyDays());
+    }
+
+    @Test
+    void latestEffectivePolicyAppliesWithinItsDates() {
+        AccrualPolicyTable.LeaveTypeRules rules = AccrualPolicyTable.compile(List.of(PTO), List.of(
+                policy(1L, SALES, 2, null, null),
+                policy(2L, SALES, 3, LocalDate.of(2031, 3, 1), LocalDate.of(2031, 5, 31)))).forLeaveType("PTO");
+
+        assertEquals(1L, rules.resolve(SALES, JANUARY).policyId());
+        assertEquals(2L, rules.resolve(SALES, LocalDate.of(2031, 3, 1)).policyId());
+        assertEquals(2L, rules.resolve(SALES, LocalDate.of(2031, 5, 31)).policyId());
+        assertEquals(1L, rules.resolve(SALES, LocalDate.of(2031, 6, 1)).policyId());
+    }
+
+    @Test
+    void expiredDepartmentPolicyFallsBackToTheCompanyOne() {
+        AccrualPolicyTable.LeaveTypeRules rules = AccrualPolicyTable.compile(List.of(PTO), List.of(
+                policy(1L, null, 2, null, null),
+                policy(2L, SALES, 3, null, LocalDate.of(2031, 2, 28)))).forLeaveType("PTO");
+
+        assertEquals(2L, rules.resolve(SALES, JANUARY).policyId());
+        assertEquals(1L, rules.resolve(SALES, JULY).policyId());
+    }
+
+    @Test
+    void monthlyRateIsCappedByTheAnnualMaximum() {
+        AccrualPolicyTable.LeaveTypeRules rules = AccrualPolicyTable.compile(List.of(PTO), List.of(
+                new AccrualPolicyTable.PolicyRow(1L, "PTO", null, 3, 5, 24, null, null))).forLeaveType("PTO");
+
+        assertEquals(2, rules.resolve(null, JULY).monthlyDays());
+    }
+
+    @Test
+    void onlyLeaveTypesThatAccrueUnderSomeRuleAreRun() {
+        AccrualPolicyTable table = AccrualPolicyTable.compile(List.of(PTO, SICK), List.of());
+        assertEquals(List.of("PTO"), table.accruing().stream().map(AccrualPolicyTable.LeaveTypeRules::code).toList());
+
+        AccrualPolicyTable withPolicy = AccrualPolicyTable.compile(List.of(PTO, SICK), List.of(
+                new AccrualPolicyTable.PolicyRow(1L, "SICK", SUPPORT, 1, 0, 0, null, null)));
+        assertEquals(2, withPolicy.accruing().size());
+        assertFalse(withPolicy.forLeaveType("SICK").isFlat());
+        assertEquals(0, withPolicy.forLeaveType("SICK").resolve(SALES, JULY).monthlyDays());
+    }
+
+    private static AccrualPolicyTable.PolicyRow policy(Long id, Long departmentId, double rate,
+                                                       LocalDate effective, LocalDate expiry) {
+        return new AccrualPolicyTable.PolicyRow(id, "PTO", departmentId, rate, 5, 0, effective, expiry);
+    }
+}
@@ -0,0 +1,107 @@
+package com.africahr.service;
+
+import com.africahr.TestData;
+import com.africahr.entity.AccrualRun;
+import com.africahr.entity.JobCheckpoint;
+import com.africahr.entity.LeaveAccrual;
+import com.africahr.entity.LeaveType;
+import com.africahr.entity.User;
+import com.africahr.repository.AccrualRunRepository;
+import com.africahr.repository.AccrualUser;
+import com.africahr.repository.JobCheckpointRepository;
+import com.africahr.repository.LeaveAccrualRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.verify;
+
+/**
+ * A monthly accrual run that fails part way: the chunks before the failure stay written and the
+ * next run picks up after the last one instead of starting over.
+ */
+@SpringBootTest(properties = "leave.accrual.chunk-size=3")
+@ActiveProfiles("test")
+@Import(TestData.class)
+class AccrualResumeTest {
+    private static final LocalDate PERIOD = LocalDate.of(2032, 6, 1);
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private AccrualJobRunner accrualJobRunner;
+    @Autowired
+    private AccrualRunRepository accrualRunRepository;
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+    @Autowired
+    private LeaveAccrualRepository leaveAccrualRepository;
+    @SpyBean
+    private AccrualChunkProcessor accrualChunkProcessor;
+
+    private LeaveType leaveType;
+    private AccrualPolicyTable.LeaveTypeRules rules;
+    private String jobName;
+    private final List<User> users = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        leaveType = testData.leaveType("S" + TestData.unique(), 2, 5);
+        rules = AccrualPolicyTable.LeaveTypeRules.flat(leaveType.getId(), leaveType.getCode(), 2, 5);
+        jobName = "monthly-accrual/" + leaveType.getCode();
+        for (int i = 0; i < 7; i++) {
+            users.add(testData.user());
+        }
+    }
+
+    @Test
+    void failedRunResumesAfterTheLastCommittedChunk() {
+        doCallRealMethod()
+                .doThrow(new IllegalStateException("Connection lost"))
+                .doCallRealMethod()
+                .when(accrualChunkProcessor).process(any(), any());
+
+        assertThrows(IllegalStateException.class,
+                () -> accrualJobRunner.run(jobName, PERIOD, rules, AccrualJobRunner.Engine.ROW));
+        assertEquals(AccrualRun.Status.FAILED, lastRun().getStatus());
+        JobCheckpoint checkpoint = jobCheckpointRepository.findByJobNameAndPeriod(jobName, PERIOD).orElseThrow();
+        assertEquals(JobCheckpoint.Status.RUNNING, checkpoint.getStatus());
+        assertEquals(3, checkpoint.getProcessedCount());
+        long resumeAfter = checkpoint.getLastUserId();
+
+        clearInvocations(accrualChunkProcessor);
+        accrualJobRunner.run(jobName, PERIOD, rules, AccrualJobRunner.Engine.ROW);
+
+        assertEquals(AccrualRun.Status.COMPLETED, lastRun().getStatus());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AccrualUser>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(accrualChunkProcessor, atLeastOnce()).process(any(), chunks.capture());
+        assertTrue(chunks.getAllValues().get(0).get(0).getId() > resumeAfter);
+        for (User user : users) {
+            List<LeaveAccrual> accruals =
+                    leaveAccrualRepository.findByUserIdAndLeaveTypeId(user.getId(), leaveType.getId());
+            assertEquals(1, accruals.size());
+        }
+    }
+
+    private AccrualRun lastRun() {
+        return accrualRunRepository.findByJobNameOrderByIdDesc(jobName, Limit.of(1)).get(0);
+    }
+}
@@ -0,0 +1,73 @@
+package com.africahr.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BalanceProjectionTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2030, 11, 15);
+    private static final LocalDate HORIZON = LocalDate.of(2031, 6, 30);
+    private static final AccrualPolicyTable.LeaveTypeRules FLAT =
+            AccrualPolicyTable.LeaveTypeRules.flat(1L, "PTO", 2, 5);
+
+    @Test
+    void accruesOnTheFirstOfEachMonth() {
+        BalanceProjection projection = new BalanceProjection.Schedule(TODAY, HORIZON, FLAT, null)
+                .startingAt(1)
+                .build();
+
+        assertEquals(1, projection.balanceOn(TODAY));
+        assertEquals(1, projection.balanceOn(LocalDate.of(2030, 11, 30)));
+        assertEquals(3, projection.balanceOn(LocalDate.of(2030, 12, 1)));
+        assertEquals(3, projection.balanceOn(LocalDate.of(2030, 12, 31)));
+    }
+
+    @Test
+    void capsTheOldYearBeforeJanuaryAccrues() {
+        BalanceProjection projection = new BalanceProjection.Schedule(TODAY, HORIZON, FLAT, null)
+                .startingAt(10)
+                .build();
+
+        assertEquals(12, projection.balanceOn(LocalDate.of(2030, 12, 31)));
+        // Capped at 5, then January's 2
+        assertEquals(7, projection.balanceOn(LocalDate.of(2031, 1, 1)));
+        assertEquals(9, projection.balanceOn(LocalDate.of(2031, 2, 1)));
+    }
+
+    @Test
+    void leaveTakenBeforeJanuaryIsChargedBeforeTheCap() {
+        BalanceProjection projection = new BalanceProjection.Schedule(TODAY, HORIZON, FLAT, null)
+                .startingAt(10)
+                .usage(LocalDate.of(2030, 12, 20), 8)
+                .usage(LocalDate.of(2031, 1, 1), 1)
+                .build();
+
+        assertEquals(12, projection.balanceOn(LocalDate.of(2030, 12, 19)));
+        assertEquals(4, projection.balanceOn(LocalDate.of(2030, 12, 20)));
+        // Under the cap, so nothing is forfeited; January accrues, then the leave starting that day
+        assertEquals(5, projection.balanceOn(LocalDate.of(2031, 1, 1)));
+    }
+
+    @Test
+    void followsThePolicyInForceEachMonth() {
+        AccrualPolicyTable.LeaveTypeRules rules = AccrualPolicyTable.LeaveTypeRules.compile(
+                new AccrualPolicyTable.LeaveTypeRules.Defaults(1L, "PTO", 2, 5),
+                List.of(new AccrualPolicyTable.PolicyRow(7L, "PTO", 3L, 3, 20, 0,
+                        LocalDate.of(2031, 3, 1), null)));
+
+        BalanceProjection department = new BalanceProjection.Schedule(TODAY, HORIZON, rules, 3L)
+                .startingAt(0)
+                .build();
+        BalanceProjection others = new BalanceProjection.Schedule(TODAY, HORIZON, rules, 4L)
+                .startingAt(0)
+                .build();
+
+        // Dec to Feb at the default 2, then the department's 3 from March; other departments keep 2
+        assertEquals(18, department.balanceOn(HORIZON));
+        assertEquals(14, others.balanceOn(HORIZON));
+    }
+}
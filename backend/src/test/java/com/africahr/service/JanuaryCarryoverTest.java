@@ -0,0 +1,252 @@
+package com.africahr.service;
+
+import com.africahr.TestData;
+import com.africahr.entity.Leave;
+import com.africahr.entity.LeaveAccrual;
+import com.africahr.entity.LeaveBalance;
+import com.africahr.entity.LeaveLedgerEntry;
+import com.africahr.entity.LeaveType;
+import com.africahr.entity.User;
+import com.africahr.enums.LeaveStatus;
+import com.africahr.enums.Role;
+import com.africahr.repository.AccrualUser;
+import com.africahr.repository.LeaveAccrualRepository;
+import com.africahr.repository.LeaveBalanceRepository;
+import com.africahr.repository.LeaveLedgerRepository;
+import com.africahr.repository.LeaveRepository;
+import com.africahr.security.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * January carryover, by the monthly job or the year-end close, followed by the expiry sweeper: every
+ * accrued day is forfeited at most once, and days taken before they expire are not forfeited at all.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestData.class)
+class JanuaryCarryoverTest {
+    private static final LocalDate JANUARY = LocalDate.of(2031, 1, 1);
+    private static final double MAX_CARRYOVER = 5;
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private AccrualChunkProcessor accrualChunkProcessor;
+    @Autowired
+    private JobCheckpointService jobCheckpointService;
+    @Autowired
+    private LeaveExpirySweeper leaveExpirySweeper;
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+    @Autowired
+    private LeaveAccrualRepository leaveAccrualRepository;
+    @Autowired
+    private LeaveLedgerRepository leaveLedgerRepository;
+    @Autowired
+    private YearEndCarryoverService yearEndCarryoverService;
+    @Autowired
+    private LeaveService leaveService;
+    @Autowired
+    private LeaveRepository leaveRepository;
+    @MockBean
+    private EmailService emailService;
+
+    private LeaveType leaveType;
+    private User user;
+    private Long balanceId;
+
+    @BeforeEach
+    void setUp() {
+        leaveType = testData.leaveType("J" + TestData.unique(), 2, (int) MAX_CARRYOVER);
+        user = testData.user();
+        balanceId = accruedLastYear(user);
+    }
+
+    // 2 days a month from March to December: 20 days, all still active on January 1st
+    private Long accruedLastYear(User owner) {
+        for (int month = 3; month <= 12; month++) {
+            testData.monthlyAccrual(owner, leaveType, LocalDate.of(2030, month, 1), 2);
+        }
+        return testData.balance(owner, leaveType, 20).getId();
+    }
+
+    @Test
+    void carryoverKeepsTheCapAndForfeitsTheRestOnce() {
+        accrue(JANUARY, 0);
+
+        assertEquals(MAX_CARRYOVER, remaining());
+        assertEquals(-15, expired());
+        List<LeaveAccrual> accruals = accruals();
+        assertEquals(10, accruals.stream()
+                .filter(accrual -> accrual.getStatus() == LeaveAccrual.AccrualStatus.EXPIRED).count());
+        assertEquals(List.of(MAX_CARRYOVER), accruals.stream()
+                .filter(accrual -> accrual.getStatus() == LeaveAccrual.AccrualStatus.CARRIED_OVER)
+                .map(LeaveAccrual::getDaysAccrued).toList());
+
+        // Running the month again finds no sources left to carry
+        accrue(JANUARY, 0);
+        assertEquals(MAX_CARRYOVER, remaining());
+        assertEquals(-15, expired());
+    }
+
+    @Test
+    void leaveTakenDuringTheYearIsNotCarriedOver() {
+        // Eight of the twenty accrued days taken in December: twelve left, five carried, seven forfeited
+        approve(LocalDate.of(2030, 12, 2), LocalDate.of(2030, 12, 11), 8);
+
+        accrue(JANUARY, 0);
+
+        assertEquals(MAX_CARRYOVER, remaining());
+        assertEquals(-7, expired());
+        assertEquals(List.of(MAX_CARRYOVER), accruals().stream()
+                .filter(accrual -> accrual.getStatus() == LeaveAccrual.AccrualStatus.CARRIED_OVER)
+                .map(LeaveAccrual::getDaysAccrued).toList());
+    }
+
+    @Test
+    void balanceBelowTheCapIsCarriedOverWhole() {
+        approve(LocalDate.of(2030, 12, 2), LocalDate.of(2030, 12, 20), 17);
+
+        accrue(JANUARY, 0);
+
+        assertEquals(3, remaining());
+        assertEquals(0, expired());
+        assertEquals(List.of(3.0), accruals().stream()
+                .filter(accrual -> accrual.getStatus() == LeaveAccrual.AccrualStatus.CARRIED_OVER)
+                .map(LeaveAccrual::getDaysAccrued).toList());
+        assertEquals(3, leaveBalanceRepository.findById(balanceId).orElseThrow().getCarriedOverDays());
+    }
+
+    @Test
+    void sweeperExpiresTheCarryoverButNotItsSources() {
+        accrue(JANUARY, 0);
+        for (int month = 2; month <= 6; month++) {
+            accrue(LocalDate.of(2031, month, 1), 2);
+        }
+        assertEquals(MAX_CARRYOVER + 10, remaining());
+
+        // By year end every 2030 accrual is past its expiry date; only the carryover is deducted
+        leaveExpirySweeper.sweep(LocalDate.of(2031, 12, 31));
+
+        assertEquals(10, remaining());
+        assertEquals(-20, expired());
+    }
+
+    @Test
+    void carryoverUsedBeforeItExpiresIsNotDeductedAgain() {
+        accrue(JANUARY, 2);
+        approve(LocalDate.of(2031, 1, 13), LocalDate.of(2031, 1, 15), 3);
+        assertEquals(MAX_CARRYOVER + 2 - 3, remaining());
+
+        // Two days of the carryover were left when it expired; the January accrual stays
+        leaveExpirySweeper.sweep(LocalDate.of(2031, 2, 2));
+
+        assertEquals(2, remaining());
+        assertEquals(-17, expired());
+    }
+
+    @Test
+    void yearEndCloseFoldsOnlyTheClosedYearAndDoesNotStackOnTheMonthlyJob() {
+        // Already carried over by the monthly job
+        User carried = testData.user();
+        Long carriedBalanceId = accruedLastYear(carried);
+        accrue(JANUARY, 0, carried);
+        // Accrued for January 2031 before the year was closed
+        testData.monthlyAccrual(user, leaveType, JANUARY, 2);
+        LeaveBalance balance = leaveBalanceRepository.findById(balanceId).orElseThrow();
+        balance.setRemainingDays(22);
+        leaveBalanceRepository.save(balance);
+
+        yearEndCarryoverService.run(2030);
+
+        assertEquals(MAX_CARRYOVER + 2, remaining());
+        assertEquals(-15, expired());
+        assertEquals(1, accruals().stream()
+                .filter(accrual -> accrual.getStatus() == LeaveAccrual.AccrualStatus.ACTIVE).count());
+        assertEquals(MAX_CARRYOVER, leaveBalanceRepository.findById(carriedBalanceId).orElseThrow()
+                .getRemainingDays());
+
+        // The monthly job finds the year already folded
+        accrue(JANUARY, 0);
+        assertEquals(MAX_CARRYOVER + 2, remaining());
+        assertEquals(1, accruals().stream()
+                .filter(accrual -> accrual.getStatus() == LeaveAccrual.AccrualStatus.CARRIED_OVER).count());
+    }
+
+    private void approve(LocalDate start, LocalDate end, int days) {
+        Leave leave = testData.leave(user, leaveType, start, end, LeaveStatus.PENDING);
+        leave.setDurationDays(days);
+        Long leaveId = leaveRepository.save(leave).getId();
+
+        User admin = testData.user(Role.ADMIN, null, null);
+        AuthenticatedUser principal = new AuthenticatedUser(admin.getId(), admin.getEmail(), Role.ADMIN);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        try {
+            leaveService.approveLeave(leaveId, "ok");
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private void accrue(LocalDate period, double monthlyDays) {
+        accrue(period, monthlyDays, user);
+    }
+
+    private void accrue(LocalDate period, double monthlyDays, User owner) {
+        Long checkpointId = jobCheckpointService.startOrResume("carryover-test/" + leaveType.getCode(), period)
+                .getId();
+        AccrualPolicyTable.LeaveTypeRules rules = AccrualPolicyTable.LeaveTypeRules.flat(
+                leaveType.getId(), leaveType.getCode(), monthlyDays, MAX_CARRYOVER);
+        accrualChunkProcessor.process(new AccrualChunkProcessor.AccrualSpec(checkpointId, period, rules),
+                List.of(accrualUser(owner)));
+    }
+
+    private static AccrualUser accrualUser(User owner) {
+        return new AccrualUser() {
+            @Override
+            public Long getId() {
+                return owner.getId();
+            }
+
+            @Override
+            public String getEmail() {
+                return owner.getEmail();
+            }
+
+            @Override
+            public Long getDepartmentId() {
+                return null;
+            }
+        };
+    }
+
+    private double remaining() {
+        return leaveBalanceRepository.findById(balanceId).orElseThrow().getRemainingDays();
+    }
+
+    private List<LeaveAccrual> accruals() {
+        return leaveAccrualRepository.findByUserIdAndLeaveTypeId(user.getId(), leaveType.getId());
+    }
+
+    private double expired() {
+        return leaveLedgerRepository.findAll().stream()
+                .filter(entry -> user.getId().equals(entry.getUserId())
+                        && entry.getEntryType() == LeaveLedgerEntry.EntryType.EXPIRY)
+                .mapToDouble(LeaveLedgerEntry::getDays)
+                .sum();
+    }
+}
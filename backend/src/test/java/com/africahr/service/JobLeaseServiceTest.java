@@ -0,0 +1,100 @@
+package com.africahr.service;
+
+import com.africahr.TestData;
+import com.africahr.repository.JobLeaseJdbcRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two replicas firing the same job against one {@code job_leases} table: the job runs on one of
+ * them, including when the other one's trigger fires after the first run has already finished.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class JobLeaseServiceTest {
+    private static final Duration MIN_HOLD = Duration.ofSeconds(2);
+
+    @Autowired
+    private JobLeaseJdbcRepository jobLeaseJdbcRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JobLeaseService nodeA;
+    private JobLeaseService nodeB;
+    private String jobName;
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        nodeA = node("node-a");
+        nodeB = node("node-b");
+        jobName = "lease-test/" + TestData.unique();
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.shutdown();
+        nodeB.shutdown();
+    }
+
+    private JobLeaseService node(String nodeId) {
+        return new JobLeaseService(jobLeaseJdbcRepository, transactionManager, nodeId, Duration.ofMinutes(5),
+                MIN_HOLD);
+    }
+
+    @Test
+    void jobRunsOnOneNodeWhileTheOtherSkipsIt() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> nodeA.runExclusively(jobName, () -> {
+            runs.incrementAndGet();
+            running.countDown();
+            await(finish);
+        }));
+        assertTrue(running.await(10, TimeUnit.SECONDS));
+
+        assertFalse(nodeB.runExclusively(jobName, runs::incrementAndGet));
+        finish.countDown();
+        assertTrue(first.get(10, TimeUnit.SECONDS));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void laggingNodeSkipsAJobThatJustFinished() throws Exception {
+        assertTrue(nodeA.runExclusively(jobName, runs::incrementAndGet));
+
+        // Node B's trigger fires a moment after node A's run ended
+        assertFalse(nodeB.runExclusively(jobName, runs::incrementAndGet));
+        assertEquals(1, runs.get());
+
+        // Once the minimum hold has passed, the next trigger runs again
+        Thread.sleep(MIN_HOLD.toMillis() + 500);
+        assertTrue(nodeB.runExclusively(jobName, runs::incrementAndGet));
+        assertEquals(2, runs.get());
+        assertEquals("node-b", jobLeaseJdbcRepository.findAll().stream()
+                .filter(lease -> lease.jobName().equals(jobName)).findFirst().orElseThrow().holder());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
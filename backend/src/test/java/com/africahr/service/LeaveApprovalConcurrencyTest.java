@@ -0,0 +1,291 @@
+package com.africahr.service;
+
+import com.africahr.TestData;
+import com.africahr.dto.request.BulkDecisionRequest;
+import com.africahr.dto.request.LeaveRequest;
+import com.africahr.dto.response.BulkDecisionResponse;
+import com.africahr.entity.Leave;
+import com.africahr.entity.LeaveBalance;
+import com.africahr.entity.LeaveLedgerEntry;
+import com.africahr.entity.LeaveType;
+import com.africahr.entity.User;
+import com.africahr.enums.LeaveStatus;
+import com.africahr.enums.Role;
+import com.africahr.repository.LeaveBalanceRepository;
+import com.africahr.repository.LeaveLedgerRepository;
+import com.africahr.repository.LeaveRepository;
+import com.africahr.security.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Hammers leave balances with concurrent approvals: every request is decided at most once and a
+ * balance is never deducted twice for the same request, nor below zero. Concurrent submissions of the
+ * same dates book them once.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestData.class)
+class LeaveApprovalConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final LocalDate MONDAY = LocalDate.now().plusWeeks(2).with(DayOfWeek.MONDAY);
+
+    @MockBean
+    private EmailService emailService;
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private LeaveService leaveService;
+    @Autowired
+    private LeaveRepository leaveRepository;
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+    @Autowired
+    private LeaveLedgerRepository leaveLedgerRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private AuthenticatedUser admin;
+    private AuthenticatedUser employeePrincipal;
+    private User employee;
+    private LeaveType leaveType;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            User user = testData.user(Role.ADMIN, null, null);
+            admin = new AuthenticatedUser(user.getId(), user.getEmail(), Role.ADMIN);
+            employee = testData.user();
+            employeePrincipal = new AuthenticatedUser(employee.getId(), employee.getEmail(), Role.USER);
+            leaveType = testData.leaveType("T" + UUID.randomUUID().toString().substring(0, 8), 0, 0);
+        });
+    }
+
+    @Test
+    void sameRequestApprovedConcurrentlyIsDeductedOnce() throws Exception {
+        Long balanceId = balance(10, 2);
+        Long leaveId = leave(MONDAY, MONDAY.plusDays(1), 2);
+
+        List<Boolean> results = race(THREADS, i -> () -> leaveService.approveLeave(leaveId, "ok"));
+
+        assertEquals(1, results.stream().filter(Boolean::booleanValue).count());
+        LeaveBalance balance = leaveBalanceRepository.findById(balanceId).orElseThrow();
+        assertEquals(8, balance.getRemainingDays());
+        assertEquals(2, balance.getUsedDays());
+        assertEquals(0, balance.getReservedDays());
+        assertEquals(LeaveStatus.APPROVED, leaveRepository.findById(leaveId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void approvalAndRejectionRacingLeaveOneDecision() throws Exception {
+        Long balanceId = balance(10, 2);
+        Long leaveId = leave(MONDAY, MONDAY.plusDays(1), 2);
+
+        List<Boolean> results = race(THREADS, i -> i % 2 == 0
+                ? () -> leaveService.approveLeave(leaveId, "ok")
+                : () -> leaveService.rejectLeave(leaveId, "no"));
+
+        assertEquals(1, results.stream().filter(Boolean::booleanValue).count());
+        LeaveBalance balance = leaveBalanceRepository.findById(balanceId).orElseThrow();
+        assertEquals(0, balance.getReservedDays());
+        if (leaveRepository.findById(leaveId).orElseThrow().getStatus() == LeaveStatus.APPROVED) {
+            assertEquals(8, balance.getRemainingDays());
+        } else {
+            assertEquals(10, balance.getRemainingDays());
+        }
+    }
+
+    @Test
+    void cancellationRacingApprovalAppliesOneOutcome() throws Exception {
+        Long balanceId = balance(10, 2);
+        Long leaveId = leave(MONDAY, MONDAY.plusDays(1), 2);
+
+        List<Boolean> results = race(THREADS, i -> i % 2 == 0
+                ? () -> leaveService.approveLeave(leaveId, "ok")
+                : () -> leaveService.cancelLeave(leaveId));
+
+        LeaveBalance balance = leaveBalanceRepository.findById(balanceId).orElseThrow();
+        LeaveStatus status = leaveRepository.findById(leaveId).orElseThrow().getStatus();
+        assertEquals(0, balance.getReservedDays());
+        if (status == LeaveStatus.APPROVED) {
+            // Every cancellation read the request as pending and lost to the approval
+            assertEquals(1, results.stream().filter(Boolean::booleanValue).count());
+            assertEquals(8, balance.getRemainingDays());
+        } else {
+            // Cancelled while pending, or approved and then refunded exactly once
+            assertEquals(LeaveStatus.CANCELLED, status);
+            assertEquals(10, balance.getRemainingDays());
+            assertEquals(0, balance.getUsedDays());
+        }
+    }
+
+    @Test
+    void approvedLeaveCancelledConcurrentlyIsRefundedOnce() throws Exception {
+        Long balanceId = balance(10, 2);
+        Long leaveId = leave(MONDAY, MONDAY.plusDays(1), 2);
+        race(1, i -> () -> leaveService.approveLeave(leaveId, "ok"));
+
+        List<Boolean> results = race(THREADS, i -> () -> leaveService.cancelLeave(leaveId));
+
+        assertEquals(1, results.stream().filter(Boolean::booleanValue).count());
+        LeaveBalance balance = leaveBalanceRepository.findById(balanceId).orElseThrow();
+        assertEquals(10, balance.getRemainingDays());
+        assertEquals(0, balance.getUsedDays());
+        // The refund is an adjustment, so usage reports only see the approval
+        List<LeaveLedgerEntry> entries = leaveLedgerRepository.findAll(Sort.by("id")).stream()
+                .filter(entry -> leaveId.equals(entry.getLeaveId()))
+                .toList();
+        assertEquals(List.of(LeaveLedgerEntry.EntryType.USAGE, LeaveLedgerEntry.EntryType.ADJUSTMENT),
+                entries.stream().map(LeaveLedgerEntry::getEntryType).toList());
+        assertEquals(2, entries.get(1).getDays());
+    }
+
+    @Test
+    void concurrentApprovalsNeverOverdrawOrLoseDeductions() throws Exception {
+        Long balanceId = balance(5, 0);
+        List<Long> leaveIds = new ArrayList<>();
+        for (int week = 0; week < 2; week++) {
+            for (int day = 0; day < 5; day++) {
+                LocalDate date = MONDAY.plusWeeks(week).plusDays(day);
+                leaveIds.add(leave(date, date, null));
+            }
+        }
+
+        List<Boolean> results = race(leaveIds.size(), i -> () -> leaveService.approveLeave(leaveIds.get(i), "ok"));
+
+        assertEquals(5, results.stream().filter(Boolean::booleanValue).count());
+        LeaveBalance balance = leaveBalanceRepository.findById(balanceId).orElseThrow();
+        assertEquals(0, balance.getRemainingDays());
+        assertEquals(5, balance.getUsedDays());
+        assertEquals(5, leaveRepository.findAllById(leaveIds).stream()
+                .filter(leave -> leave.getStatus() == LeaveStatus.APPROVED).count());
+    }
+
+    @Test
+    void overlappingBulkDecisionsApproveEachRequestOnce() throws Exception {
+        Long balanceId = balance(10, 0);
+        List<Long> leaveIds = new ArrayList<>();
+        for (int day = 0; day < 5; day++) {
+            leaveIds.add(leave(MONDAY.plusDays(day), MONDAY.plusDays(day), null));
+        }
+        BulkDecisionRequest request = new BulkDecisionRequest();
+        request.setLeaveIds(leaveIds);
+        request.setDecision(LeaveStatus.APPROVED);
+
+        List<BulkDecisionResponse> responses = new ArrayList<>();
+        race(THREADS, i -> () -> {
+            BulkDecisionResponse response = leaveService.decideLeaves(request);
+            synchronized (responses) {
+                responses.add(response);
+            }
+        });
+
+        assertEquals(5, responses.stream().mapToInt(response -> response.getProcessed().size()).sum());
+        LeaveBalance balance = leaveBalanceRepository.findById(balanceId).orElseThrow();
+        assertEquals(5, balance.getRemainingDays());
+        assertEquals(5, balance.getUsedDays());
+    }
+
+    @Test
+    void sameDatesSubmittedConcurrentlyAreBookedOnce() throws Exception {
+        Long balanceId = balance(10, 0);
+        LeaveRequest request = new LeaveRequest();
+        request.setLeaveType(leaveType.getName());
+        request.setStartDate(MONDAY);
+        request.setEndDate(MONDAY.plusDays(1));
+        request.setReason("Holiday");
+
+        List<Boolean> results = race(THREADS, employeePrincipal,
+                i -> () -> leaveService.createLeaveRequest(request, List.of()));
+
+        assertEquals(1, results.stream().filter(Boolean::booleanValue).count());
+        assertEquals(1, leaveRepository.findAll().stream()
+                .filter(leave -> leave.getUser().getId().equals(employee.getId()))
+                .count());
+        assertEquals(2, leaveBalanceRepository.findById(balanceId).orElseThrow().getReservedDays());
+    }
+
+    private Long balance(double days, double reserved) {
+        return tx.execute(status -> {
+            LeaveBalance balance = testData.balance(employee, leaveType, days);
+            balance.setReservedDays(reserved);
+            return leaveBalanceRepository.save(balance).getId();
+        });
+    }
+
+    private Long leave(LocalDate start, LocalDate end, Integer durationDays) {
+        return tx.execute(status -> {
+            Leave leave = testData.leave(employee, leaveType, start, end, LeaveStatus.PENDING);
+            leave.setDurationDays(durationDays);
+            return leaveRepository.save(leave).getId();
+        });
+    }
+
+    // Starts every task at once, each as the admin on its own thread; true where the task did not throw
+    private List<Boolean> race(int tasks, IntFunction<Runnable> task) throws Exception {
+        return race(tasks, admin, task);
+    }
+
+    private List<Boolean> race(int tasks, AuthenticatedUser principal, IntFunction<Runnable> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(tasks);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                Runnable work = task.apply(i);
+                Callable<Boolean> call = () -> {
+                    SecurityContextHolder.getContext().setAuthentication(
+                            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+                    start.await();
+                    try {
+                        work.run();
+                        return true;
+                    } catch (RuntimeException e) {
+                        return false;
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                };
+                futures.add(executor.submit(call));
+            }
+            start.countDown();
+
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
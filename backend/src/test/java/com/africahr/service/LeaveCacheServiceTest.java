@@ -0,0 +1,116 @@
+package com.africahr.service;
+
+import com.africahr.TestData;
+import com.africahr.dto.response.LeaveResponse;
+import com.africahr.entity.LeaveType;
+import com.africahr.repository.LeaveTypeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Balance and leave-type caching: evictions issued inside a transaction reach the cache only once it
+ * commits, and not at all if it rolls back.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestData.class)
+class LeaveCacheServiceTest {
+
+    @Autowired
+    private LeaveCacheService leaveCacheService;
+    @Autowired
+    private LeaveTypeRepository leaveTypeRepository;
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private String email;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        email = TestData.unique() + "@africahr.test";
+    }
+
+    @Test
+    void balancesAreLoadedOnceUntilEvicted() {
+        leaveCacheService.getBalances(email, loader());
+        leaveCacheService.getBalances(email, loader());
+        assertEquals(1, loads.get());
+
+        leaveCacheService.evictBalances(email);
+        leaveCacheService.getBalances(email, loader());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictionInsideATransactionAppliesAfterCommit() {
+        leaveCacheService.getBalances(email, loader());
+
+        transaction.executeWithoutResult(status -> {
+            leaveCacheService.evictBalances(email);
+            // A concurrent reader would still see the committed balance here
+            leaveCacheService.getBalances(email, loader());
+            assertEquals(1, loads.get());
+        });
+
+        leaveCacheService.getBalances(email, loader());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void rolledBackEvictionKeepsTheEntry() {
+        leaveCacheService.getBalances(email, loader());
+
+        transaction.executeWithoutResult(status -> {
+            leaveCacheService.evictBalances(email);
+            status.setRollbackOnly();
+        });
+
+        leaveCacheService.getBalances(email, loader());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void savingALeaveTypeClearsTheLeaveTypeCache() {
+        String code = "C" + TestData.unique();
+        LeaveType leaveType = testData.leaveType(code, 2, 5);
+        LeaveType cached = leaveTypeRepository.findByCode(code);
+        assertSame(cached, leaveTypeRepository.findByCode(code));
+
+        transaction.executeWithoutResult(status -> {
+            LeaveType renamed = leaveTypeRepository.findById(leaveType.getId()).orElseThrow();
+            renamed.setDescription("Renamed");
+            leaveTypeRepository.save(renamed);
+            assertSame(cached, leaveTypeRepository.findByCode(code));
+        });
+
+        LeaveType reloaded = leaveTypeRepository.findByCode(code);
+        assertNotSame(cached, reloaded);
+        assertEquals("Renamed", reloaded.getDescription());
+    }
+
+    private Supplier<List<LeaveResponse>> loader() {
+        return () -> {
+            loads.incrementAndGet();
+            return List.of();
+        };
+    }
+}
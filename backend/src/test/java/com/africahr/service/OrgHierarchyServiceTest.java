@@ -0,0 +1,68 @@
+package com.africahr.service;
+
+import com.africahr.TestData;
+import com.africahr.dto.request.RegisterRequest;
+import com.africahr.entity.User;
+import com.africahr.enums.Role;
+import com.africahr.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Every user has rows in the closure table: a registration commits the user and the rows together, and
+ * users missing from the table are put back at startup.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestData.class)
+class OrgHierarchyServiceTest {
+
+    @SpyBean
+    private OrgHierarchyService orgHierarchyService;
+
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private AuthService authService;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void failedHierarchyInsertRollsBackTheRegistration() {
+        String email = TestData.unique() + "@africahr.test";
+        doThrow(new IllegalStateException("hierarchy unavailable")).when(orgHierarchyService).registerUser(any());
+
+        assertThrows(IllegalStateException.class, () -> authService.register(RegisterRequest.builder()
+                .firstName("First")
+                .lastName("Last")
+                .email(email)
+                .password("secret1")
+                .build()));
+
+        assertTrue(userRepository.findByEmail(email).isEmpty());
+    }
+
+    @Test
+    void usersMissingFromTheHierarchyAreRestoredAtStartup() {
+        // Saved directly, as a registration that lost its closure rows
+        User manager = testData.user(Role.MANAGER, null, null);
+        User employee = testData.user(Role.USER, null, manager);
+
+        orgHierarchyService.initializeIfIncomplete();
+
+        assertTrue(orgHierarchyService.isInReportingLine(manager.getId(), employee.getId()));
+        assertEquals(0, orgHierarchyService.findReportIds(employee.getId(), List.of(manager.getId())).size());
+    }
+}
@@ -0,0 +1,69 @@
+package com.africahr.service;
+
+import com.africahr.entity.PublicHoliday;
+import com.africahr.repository.PublicHolidayRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WorkingDayCalendarTest {
+
+    private static final List<DayOfWeek> WEEKEND = List.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+    // Monday 2026-05-04 to Sunday 2026-05-10
+    private static final LocalDate MONDAY = LocalDate.of(2026, 5, 4);
+
+    private final PublicHolidayRepository publicHolidayRepository = mock(PublicHolidayRepository.class);
+
+    @Test
+    void skipsWeekendsAndHolidays() {
+        holidays(MONDAY.plusDays(2));
+        WorkingDayCalendar calendar = new WorkingDayCalendar(publicHolidayRepository, WEEKEND, Duration.ofMinutes(10));
+
+        assertEquals(4, calendar.workingDaysBetween(MONDAY, MONDAY.plusDays(6)));
+        assertFalse(calendar.isWorkingDay(MONDAY.plusDays(2)));
+    }
+
+    @Test
+    void keepsAYearUntilItIsStaleOrChanged() {
+        holidays();
+        WorkingDayCalendar calendar = new WorkingDayCalendar(publicHolidayRepository, WEEKEND, Duration.ofMinutes(10));
+
+        calendar.workingDaysBetween(MONDAY, MONDAY.plusDays(6));
+        calendar.workingDaysBetween(MONDAY, MONDAY.plusDays(6));
+        verify(publicHolidayRepository, times(1)).findByDateBetween(any(), any());
+
+        holidays(MONDAY);
+        calendar.onHolidaysChanged(new WorkingDayCalendar.HolidaysChanged(2026));
+        assertEquals(4, calendar.workingDaysBetween(MONDAY, MONDAY.plusDays(6)));
+    }
+
+    @Test
+    void reloadsHolidaysAddedElsewhereAfterTheRefreshInterval() {
+        holidays();
+        WorkingDayCalendar calendar = new WorkingDayCalendar(publicHolidayRepository, WEEKEND, Duration.ZERO);
+        assertEquals(5, calendar.workingDaysBetween(MONDAY, MONDAY.plusDays(6)));
+
+        // Another node adds a holiday; no event reaches this one
+        holidays(MONDAY);
+        assertEquals(4, calendar.workingDaysBetween(MONDAY, MONDAY.plusDays(6)));
+    }
+
+    private void holidays(LocalDate... dates) {
+        List<PublicHoliday> holidays = Arrays.stream(dates)
+                .map(date -> PublicHoliday.builder().name("Holiday").date(date).build())
+                .toList();
+        when(publicHolidayRepository.findByDateBetween(any(), any())).thenReturn(holidays);
+    }
+}
@@ -0,0 +1,9 @@
+-- Tables without an entity, as created by the Flyway migrations
+CREATE TABLE IF NOT EXISTS job_leases (
+    job_name VARCHAR(64) NOT NULL,
+    holder VARCHAR(128),
+    lease_until DATETIME(6) NOT NULL,
+    acquired_at DATETIME(6),
+    renewed_at DATETIME(6),
+    PRIMARY KEY (job_name)
+);
@@ -70,7 +70,7 @@ const AdminPanel = () => {
         ]);
 
         setLeaveTypes(typesResponse.data);
-        setLeaveRequests(requestsResponse.data);
+        setLeaveRequests(requestsResponse.data.content);
       } catch (err) {
         setError(err.response?.data?.message || "Failed to fetch data");
       } finally {
@@ -23,7 +23,7 @@ const LeaveHistory = () => {
           },
         }
       );
-      setLeaveRequests(response.data);
+      setLeaveRequests(response.data.content);
     } catch (err) {
       setError(err.response?.data?.message || "Failed to fetch leave requests");
     } finally {
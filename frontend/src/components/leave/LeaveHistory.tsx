@@ -54,7 +54,7 @@ const LeaveHistory = () => {
           },
         }
       );
-      setLeaveRequests(response.data);
+      setLeaveRequests(response.data.content);
     } catch (err) {
       setError("Failed to fetch leave history");
       console.error(err);
@@ -28,7 +28,7 @@ const TeamCalendar = () => {
         }
       );
 
-      const calendarEvents = response.data.map((leave) => ({
+      const calendarEvents = response.data.content.map((leave) => ({
         title: `${leave.user.firstName} ${leave.user.lastName} - ${leave.leaveType}`,
         start: new Date(leave.startDate),
         end: new Date(leave.endDate),